@@ -4,161 +4,235 @@ import com.hicode.backend.model.entity.*;
 import com.hicode.backend.model.enums.*;
 import com.hicode.backend.repository.BloodTypeCompatibilityRepository;
 import com.hicode.backend.repository.BloodTypeRepository;
+import com.hicode.backend.repository.ReferenceDataJdbcRepository;
 import com.hicode.backend.repository.RoleRepository;
+import com.hicode.backend.repository.StorageLocationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+/**
+ * Khởi tạo dữ liệu tham chiếu khi khởi động: mỗi bảng được đọc một lần, so sánh với danh sách mong muốn
+ * trong bộ nhớ, và chỉ các dòng còn thiếu được INSERT bằng một JDBC batch.
+ */
 @Component
 public class DataInitializer implements CommandLineRunner {
 
+    private static final Logger logger = LoggerFactory.getLogger(DataInitializer.class);
+
     @Autowired
     private RoleRepository roleRepository;
     @Autowired
     private BloodTypeRepository bloodTypeRepository;
     @Autowired
     private BloodTypeCompatibilityRepository compatibilityRepository;
+    @Autowired
+    private StorageLocationRepository storageLocationRepository;
+    @Autowired
+    private ReferenceDataJdbcRepository referenceDataJdbcRepository;
+
+    @Value("${inventory.default-location:Main Storage}")
+    private String defaultLocation;
 
     @Override
     public void run(String... args) throws Exception {
-        initializeRoles();
-        initializeBloodTypes();
-        initializeBloodCompatibilities();
+        long start = System.nanoTime();
+        int roles = initializeRoles();
+        long afterRoles = System.nanoTime();
+        List<BloodType> allTypes = new ArrayList<>();
+        int bloodTypes = initializeBloodTypes(allTypes);
+        long afterBloodTypes = System.nanoTime();
+        int compatibilities = initializeBloodCompatibilities(allTypes);
+        long afterCompatibilities = System.nanoTime();
+        initializeStorageLocations();
+        long end = System.nanoTime();
+        logger.info("Reference data initialized in {} ms (roles: {} ms, {} added; blood types: {} ms, {} added; " +
+                        "compatibility rules: {} ms, {} added; storage locations: {} ms).",
+                millis(start, end), millis(start, afterRoles), roles, millis(afterRoles, afterBloodTypes), bloodTypes,
+                millis(afterBloodTypes, afterCompatibilities), compatibilities, millis(afterCompatibilities, end));
+    }
+
+    private static long millis(long from, long to) {
+        return (to - from) / 1_000_000;
+    }
+
+    private void initializeStorageLocations() {
+        if (!storageLocationRepository.existsById(defaultLocation)) {
+            StorageLocation location = new StorageLocation();
+            location.setCode(defaultLocation);
+            location.setName(defaultLocation);
+            location.setDescription("Default storage for newly collected units");
+            location.setActive(true);
+            storageLocationRepository.save(location);
+            logger.info("Initialized storage location: {}", defaultLocation);
+        }
+    }
+
+    private int initializeRoles() {
+        List<Role> roles = new ArrayList<>();
+        addRole(roles, "Guest", "[\"view_public_content\"]", "Public users with limited access");
+        addRole(roles, "Member", "[\"view_content\", \"request_blood\", \"view_profile\"]", "Registered users");
+        addRole(roles, "Staff", "[\"manage_donations\", \"manage_inventory\", \"view_reports\"]", "Medical staff");
+        addRole(roles, "Admin", "[\"full_access\", \"manage_users\", \"manage_system\"]", "System administrators");
+
+        Set<String> existing = roleRepository.findAll().stream().map(Role::getName).collect(Collectors.toSet());
+        List<Role> missing = roles.stream().filter(role -> !existing.contains(role.getName())).collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            referenceDataJdbcRepository.batchInsertRoles(missing);
+        }
+        return missing.size();
     }
 
-    private void initializeRoles() {
-        createRoleIfNotFound("Guest", "[\"view_public_content\"]", "Public users with limited access");
-        createRoleIfNotFound("Member", "[\"view_content\", \"request_blood\", \"view_profile\"]", "Registered users");
-        createRoleIfNotFound("Staff", "[\"manage_donations\", \"manage_inventory\", \"view_reports\"]", "Medical staff");
-        createRoleIfNotFound("Admin", "[\"full_access\", \"manage_users\", \"manage_system\"]", "System administrators");
+    private int initializeBloodTypes(List<BloodType> allTypes) {
+        List<BloodType> bloodTypes = new ArrayList<>();
+        addBloodType(bloodTypes, "O+", BloodComponentType.WHOLE_BLOOD, "Whole Blood O+", 42);
+        addBloodType(bloodTypes, "O+", BloodComponentType.RED_BLOOD_CELLS, "Red Blood Cells O+", 42);
+        addBloodType(bloodTypes, "O+", BloodComponentType.PLASMA, "Plasma O+", 365);
+        addBloodType(bloodTypes, "O+", BloodComponentType.PLATELETS, "Platelets O+", 5);
+        addBloodType(bloodTypes, "O-", BloodComponentType.WHOLE_BLOOD, "Whole Blood O-", 42);
+        addBloodType(bloodTypes, "O-", BloodComponentType.RED_BLOOD_CELLS, "Red Blood Cells O- (Universal Donor)", 42);
+        addBloodType(bloodTypes, "O-", BloodComponentType.PLASMA, "Plasma O-", 365);
+        addBloodType(bloodTypes, "O-", BloodComponentType.PLATELETS, "Platelets O-", 5);
+        addBloodType(bloodTypes, "A+", BloodComponentType.WHOLE_BLOOD, "Whole Blood A+", 42);
+        addBloodType(bloodTypes, "A+", BloodComponentType.RED_BLOOD_CELLS, "Red Blood Cells A+", 42);
+        addBloodType(bloodTypes, "A+", BloodComponentType.PLASMA, "Plasma A+", 365);
+        addBloodType(bloodTypes, "A+", BloodComponentType.PLATELETS, "Platelets A+", 5);
+        addBloodType(bloodTypes, "A-", BloodComponentType.WHOLE_BLOOD, "Whole Blood A-", 42);
+        addBloodType(bloodTypes, "A-", BloodComponentType.RED_BLOOD_CELLS, "Red Blood Cells A-", 42);
+        addBloodType(bloodTypes, "A-", BloodComponentType.PLASMA, "Plasma A-", 365);
+        addBloodType(bloodTypes, "A-", BloodComponentType.PLATELETS, "Platelets A-", 5);
+        addBloodType(bloodTypes, "B+", BloodComponentType.WHOLE_BLOOD, "Whole Blood B+", 42);
+        addBloodType(bloodTypes, "B+", BloodComponentType.RED_BLOOD_CELLS, "Red Blood Cells B+", 42);
+        addBloodType(bloodTypes, "B+", BloodComponentType.PLASMA, "Plasma B+", 365);
+        addBloodType(bloodTypes, "B+", BloodComponentType.PLATELETS, "Platelets B+", 5);
+        addBloodType(bloodTypes, "B-", BloodComponentType.WHOLE_BLOOD, "Whole Blood B-", 42);
+        addBloodType(bloodTypes, "B-", BloodComponentType.RED_BLOOD_CELLS, "Red Blood Cells B-", 42);
+        addBloodType(bloodTypes, "B-", BloodComponentType.PLASMA, "Plasma B-", 365);
+        addBloodType(bloodTypes, "B-", BloodComponentType.PLATELETS, "Platelets B-", 5);
+        addBloodType(bloodTypes, "AB+", BloodComponentType.WHOLE_BLOOD, "Whole Blood AB+", 42);
+        addBloodType(bloodTypes, "AB+", BloodComponentType.RED_BLOOD_CELLS, "Red Blood Cells AB+", 42);
+        addBloodType(bloodTypes, "AB+", BloodComponentType.PLASMA, "Plasma AB+ (Universal Donor)", 365);
+        addBloodType(bloodTypes, "AB+", BloodComponentType.PLATELETS, "Platelets AB+", 5);
+        addBloodType(bloodTypes, "AB-", BloodComponentType.WHOLE_BLOOD, "Whole Blood AB-", 42);
+        addBloodType(bloodTypes, "AB-", BloodComponentType.RED_BLOOD_CELLS, "Red Blood Cells AB-", 42);
+        addBloodType(bloodTypes, "AB-", BloodComponentType.PLASMA, "Plasma AB-", 365);
+        addBloodType(bloodTypes, "AB-", BloodComponentType.PLATELETS, "Platelets AB-", 5);
+
+        allTypes.addAll(bloodTypeRepository.findAll());
+        Set<String> existing = allTypes.stream().map(DataInitializer::typeKey).collect(Collectors.toSet());
+        List<BloodType> missing = bloodTypes.stream().filter(bt -> !existing.contains(typeKey(bt))).collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            referenceDataJdbcRepository.batchInsertBloodTypes(missing);
+            allTypes.clear();
+            allTypes.addAll(bloodTypeRepository.findAll());
+        }
+        return missing.size();
     }
 
-    private void initializeBloodTypes() {
-        createBloodTypeIfNotFound("O+", BloodComponentType.WHOLE_BLOOD, "Whole Blood O+", 42);
-        createBloodTypeIfNotFound("O+", BloodComponentType.RED_BLOOD_CELLS, "Red Blood Cells O+", 42);
-        createBloodTypeIfNotFound("O+", BloodComponentType.PLASMA, "Plasma O+", 365);
-        createBloodTypeIfNotFound("O+", BloodComponentType.PLATELETS, "Platelets O+", 5);
-        createBloodTypeIfNotFound("O-", BloodComponentType.WHOLE_BLOOD, "Whole Blood O-", 42);
-        createBloodTypeIfNotFound("O-", BloodComponentType.RED_BLOOD_CELLS, "Red Blood Cells O- (Universal Donor)", 42);
-        createBloodTypeIfNotFound("O-", BloodComponentType.PLASMA, "Plasma O-", 365);
-        createBloodTypeIfNotFound("O-", BloodComponentType.PLATELETS, "Platelets O-", 5);
-        createBloodTypeIfNotFound("A+", BloodComponentType.WHOLE_BLOOD, "Whole Blood A+", 42);
-        createBloodTypeIfNotFound("A+", BloodComponentType.RED_BLOOD_CELLS, "Red Blood Cells A+", 42);
-        createBloodTypeIfNotFound("A+", BloodComponentType.PLASMA, "Plasma A+", 365);
-        createBloodTypeIfNotFound("A+", BloodComponentType.PLATELETS, "Platelets A+", 5);
-        createBloodTypeIfNotFound("A-", BloodComponentType.WHOLE_BLOOD, "Whole Blood A-", 42);
-        createBloodTypeIfNotFound("A-", BloodComponentType.RED_BLOOD_CELLS, "Red Blood Cells A-", 42);
-        createBloodTypeIfNotFound("A-", BloodComponentType.PLASMA, "Plasma A-", 365);
-        createBloodTypeIfNotFound("A-", BloodComponentType.PLATELETS, "Platelets A-", 5);
-        createBloodTypeIfNotFound("B+", BloodComponentType.WHOLE_BLOOD, "Whole Blood B+", 42);
-        createBloodTypeIfNotFound("B+", BloodComponentType.RED_BLOOD_CELLS, "Red Blood Cells B+", 42);
-        createBloodTypeIfNotFound("B+", BloodComponentType.PLASMA, "Plasma B+", 365);
-        createBloodTypeIfNotFound("B+", BloodComponentType.PLATELETS, "Platelets B+", 5);
-        createBloodTypeIfNotFound("B-", BloodComponentType.WHOLE_BLOOD, "Whole Blood B-", 42);
-        createBloodTypeIfNotFound("B-", BloodComponentType.RED_BLOOD_CELLS, "Red Blood Cells B-", 42);
-        createBloodTypeIfNotFound("B-", BloodComponentType.PLASMA, "Plasma B-", 365);
-        createBloodTypeIfNotFound("B-", BloodComponentType.PLATELETS, "Platelets B-", 5);
-        createBloodTypeIfNotFound("AB+", BloodComponentType.WHOLE_BLOOD, "Whole Blood AB+", 42);
-        createBloodTypeIfNotFound("AB+", BloodComponentType.RED_BLOOD_CELLS, "Red Blood Cells AB+", 42);
-        createBloodTypeIfNotFound("AB+", BloodComponentType.PLASMA, "Plasma AB+ (Universal Donor)", 365);
-        createBloodTypeIfNotFound("AB+", BloodComponentType.PLATELETS, "Platelets AB+", 5);
-        createBloodTypeIfNotFound("AB-", BloodComponentType.WHOLE_BLOOD, "Whole Blood AB-", 42);
-        createBloodTypeIfNotFound("AB-", BloodComponentType.RED_BLOOD_CELLS, "Red Blood Cells AB-", 42);
-        createBloodTypeIfNotFound("AB-", BloodComponentType.PLASMA, "Plasma AB-", 365);
-        createBloodTypeIfNotFound("AB-", BloodComponentType.PLATELETS, "Platelets AB-", 5);
+    private static String typeKey(BloodType bloodType) {
+        return bloodType.getBloodGroup() + "|" + bloodType.getComponentType().name();
     }
 
-    private void initializeBloodCompatibilities() {
-        List<BloodType> allTypes = bloodTypeRepository.findAll();
-        System.out.println("Initializing Red Blood Cell compatibility rules...");
+    private int initializeBloodCompatibilities(List<BloodType> allTypes) {
+        List<BloodTypeCompatibility> rules = new ArrayList<>();
         Map<String, BloodType> rbcMap = allTypes.stream().filter(bt -> bt.getComponentType() == BloodComponentType.RED_BLOOD_CELLS).collect(Collectors.toMap(BloodType::getBloodGroup, bt -> bt));
-        addRbcRules(rbcMap);
-        System.out.println("Initializing Plasma compatibility rules...");
+        addRbcRules(rules, rbcMap);
         Map<String, BloodType> plasmaMap = allTypes.stream().filter(bt -> bt.getComponentType() == BloodComponentType.PLASMA).collect(Collectors.toMap(BloodType::getBloodGroup, bt -> bt));
-        addPlasmaRules(plasmaMap);
-        System.out.println("Initializing Platelet compatibility rules...");
+        addPlasmaRules(rules, plasmaMap);
         Map<String, BloodType> plateletMap = allTypes.stream().filter(bt -> bt.getComponentType() == BloodComponentType.PLATELETS).collect(Collectors.toMap(BloodType::getBloodGroup, bt -> bt));
-        addPlateletRules(plateletMap);
-        System.out.println("Initializing Whole Blood compatibility rules...");
+        addPlateletRules(rules, plateletMap);
         Map<String, BloodType> wholeBloodMap = allTypes.stream().filter(bt -> bt.getComponentType() == BloodComponentType.WHOLE_BLOOD).collect(Collectors.toMap(BloodType::getBloodGroup, bt -> bt));
-        addWholeBloodRules(wholeBloodMap);
+        addWholeBloodRules(rules, wholeBloodMap);
+
+        Set<Long> existing = new HashSet<>();
+        for (Object[] pair : compatibilityRepository.findAllTypePairs()) {
+            existing.add(pairKey((Integer) pair[0], (Integer) pair[1]));
+        }
+        List<BloodTypeCompatibility> missing = new ArrayList<>();
+        for (BloodTypeCompatibility rule : rules) {
+            // add() cũng loại các cặp bị khai báo trùng trong danh sách
+            if (existing.add(pairKey(rule.getDonorBloodType().getId(), rule.getRecipientBloodType().getId()))) {
+                missing.add(rule);
+            }
+        }
+        if (!missing.isEmpty()) {
+            referenceDataJdbcRepository.batchInsertCompatibilities(missing);
+        }
+        return missing.size();
     }
 
-    private void addRbcRules(Map<String, BloodType> rbcMap) {
-        addCompatibility(rbcMap, "O-", "O-", true, "RBC"); addCompatibility(rbcMap, "O-", "O+", true, "RBC"); addCompatibility(rbcMap, "O-", "A-", true, "RBC"); addCompatibility(rbcMap, "O-", "A+", true, "RBC"); addCompatibility(rbcMap, "O-", "B-", true, "RBC"); addCompatibility(rbcMap, "O-", "B+", true, "RBC"); addCompatibility(rbcMap, "O-", "AB-", true, "RBC"); addCompatibility(rbcMap, "O-", "AB+", true, "RBC");
-        addCompatibility(rbcMap, "O+", "O+", true, "RBC"); addCompatibility(rbcMap, "O+", "A+", true, "RBC"); addCompatibility(rbcMap, "O+", "B+", true, "RBC"); addCompatibility(rbcMap, "O+", "AB+", true, "RBC");
-        addCompatibility(rbcMap, "A-", "A-", true, "RBC"); addCompatibility(rbcMap, "A-", "A+", true, "RBC"); addCompatibility(rbcMap, "A-", "AB-", true, "RBC"); addCompatibility(rbcMap, "A-", "AB+", true, "RBC");
-        addCompatibility(rbcMap, "A+", "A+", true, "RBC"); addCompatibility(rbcMap, "A+", "AB+", true, "RBC");
-        addCompatibility(rbcMap, "B-", "B-", true, "RBC"); addCompatibility(rbcMap, "B-", "B+", true, "RBC"); addCompatibility(rbcMap, "B-", "AB-", true, "RBC"); addCompatibility(rbcMap, "B-", "AB+", true, "RBC");
-        addCompatibility(rbcMap, "B+", "B+", true, "RBC"); addCompatibility(rbcMap, "B+", "AB+", true, "RBC");
-        addCompatibility(rbcMap, "AB-", "AB-", true, "RBC"); addCompatibility(rbcMap, "AB-", "AB+", true, "RBC");
-        addCompatibility(rbcMap, "AB+", "AB+", true, "RBC");
+    private static long pairKey(int donorBloodTypeId, int recipientBloodTypeId) {
+        return ((long) donorBloodTypeId << 32) | (recipientBloodTypeId & 0xFFFFFFFFL);
     }
 
-    private void addPlasmaRules(Map<String, BloodType> plasmaMap) {
-        addCompatibility(plasmaMap, "AB+", "AB+", true, "Plasma"); addCompatibility(plasmaMap, "AB+", "A+", true, "Plasma"); addCompatibility(plasmaMap, "AB+", "B+", true, "Plasma"); addCompatibility(plasmaMap, "AB+", "O+", true, "Plasma");
-        addCompatibility(plasmaMap, "AB-", "AB-", true, "Plasma"); addCompatibility(plasmaMap, "AB-", "A-", true, "Plasma"); addCompatibility(plasmaMap, "AB-", "B-", true, "Plasma"); addCompatibility(plasmaMap, "AB-", "O-", true, "Plasma");
-        addCompatibility(plasmaMap, "A+", "A+", true, "Plasma"); addCompatibility(plasmaMap, "A+", "O+", true, "Plasma");
-        addCompatibility(plasmaMap, "B+", "B+", true, "Plasma"); addCompatibility(plasmaMap, "B+", "O+", true, "Plasma");
-        addCompatibility(plasmaMap, "O+", "O+", true, "Plasma");
+    private void addRbcRules(List<BloodTypeCompatibility> rules, Map<String, BloodType> rbcMap) {
+        addCompatibility(rules, rbcMap, "O-", "O-", true, "RBC"); addCompatibility(rules, rbcMap, "O-", "O+", true, "RBC"); addCompatibility(rules, rbcMap, "O-", "A-", true, "RBC"); addCompatibility(rules, rbcMap, "O-", "A+", true, "RBC"); addCompatibility(rules, rbcMap, "O-", "B-", true, "RBC"); addCompatibility(rules, rbcMap, "O-", "B+", true, "RBC"); addCompatibility(rules, rbcMap, "O-", "AB-", true, "RBC"); addCompatibility(rules, rbcMap, "O-", "AB+", true, "RBC");
+        addCompatibility(rules, rbcMap, "O+", "O+", true, "RBC"); addCompatibility(rules, rbcMap, "O+", "A+", true, "RBC"); addCompatibility(rules, rbcMap, "O+", "B+", true, "RBC"); addCompatibility(rules, rbcMap, "O+", "AB+", true, "RBC");
+        addCompatibility(rules, rbcMap, "A-", "A-", true, "RBC"); addCompatibility(rules, rbcMap, "A-", "A+", true, "RBC"); addCompatibility(rules, rbcMap, "A-", "AB-", true, "RBC"); addCompatibility(rules, rbcMap, "A-", "AB+", true, "RBC");
+        addCompatibility(rules, rbcMap, "A+", "A+", true, "RBC"); addCompatibility(rules, rbcMap, "A+", "AB+", true, "RBC");
+        addCompatibility(rules, rbcMap, "B-", "B-", true, "RBC"); addCompatibility(rules, rbcMap, "B-", "B+", true, "RBC"); addCompatibility(rules, rbcMap, "B-", "AB-", true, "RBC"); addCompatibility(rules, rbcMap, "B-", "AB+", true, "RBC");
+        addCompatibility(rules, rbcMap, "B+", "B+", true, "RBC"); addCompatibility(rules, rbcMap, "B+", "AB+", true, "RBC");
+        addCompatibility(rules, rbcMap, "AB-", "AB-", true, "RBC"); addCompatibility(rules, rbcMap, "AB-", "AB+", true, "RBC");
+        addCompatibility(rules, rbcMap, "AB+", "AB+", true, "RBC");
     }
 
-    private void addPlateletRules(Map<String, BloodType> plateletMap) {
-        addCompatibility(plateletMap, "O+", "O+", true, "Platelets"); addCompatibility(plateletMap, "O+", "A+", true, "Platelets"); addCompatibility(plateletMap, "O+", "B+", true, "Platelets"); addCompatibility(plateletMap, "O+", "AB+", true, "Platelets");
-        addCompatibility(plateletMap, "A+", "A+", true, "Platelets"); addCompatibility(plateletMap, "A+", "AB+", true, "Platelets");
-        addCompatibility(plateletMap, "B+", "B+", true, "Platelets"); addCompatibility(plateletMap, "B+", "AB+", true, "Platelets");
-        addCompatibility(plateletMap, "AB+", "AB+", true, "Platelets");
+    private void addPlasmaRules(List<BloodTypeCompatibility> rules, Map<String, BloodType> plasmaMap) {
+        addCompatibility(rules, plasmaMap, "AB+", "AB+", true, "Plasma"); addCompatibility(rules, plasmaMap, "AB+", "A+", true, "Plasma"); addCompatibility(rules, plasmaMap, "AB+", "B+", true, "Plasma"); addCompatibility(rules, plasmaMap, "AB+", "O+", true, "Plasma");
+        addCompatibility(rules, plasmaMap, "AB-", "AB-", true, "Plasma"); addCompatibility(rules, plasmaMap, "AB-", "A-", true, "Plasma"); addCompatibility(rules, plasmaMap, "AB-", "B-", true, "Plasma"); addCompatibility(rules, plasmaMap, "AB-", "O-", true, "Plasma");
+        addCompatibility(rules, plasmaMap, "A+", "A+", true, "Plasma"); addCompatibility(rules, plasmaMap, "A+", "O+", true, "Plasma");
+        addCompatibility(rules, plasmaMap, "B+", "B+", true, "Plasma"); addCompatibility(rules, plasmaMap, "B+", "O+", true, "Plasma");
+        addCompatibility(rules, plasmaMap, "O+", "O+", true, "Plasma");
     }
 
-    private void addWholeBloodRules(Map<String, BloodType> wholeBloodMap) {
-        addCompatibility(wholeBloodMap, "O+", "O+", true, "Whole Blood"); addCompatibility(wholeBloodMap, "O-", "O-", true, "Whole Blood");
-        addCompatibility(wholeBloodMap, "A+", "A+", true, "Whole Blood"); addCompatibility(wholeBloodMap, "A-", "A-", true, "Whole Blood");
-        addCompatibility(wholeBloodMap, "B+", "B+", true, "Whole Blood"); addCompatibility(wholeBloodMap, "B-", "B-", true, "Whole Blood");
-        addCompatibility(wholeBloodMap, "AB+", "AB+", true, "Whole Blood"); addCompatibility(wholeBloodMap, "AB-", "AB-", true, "Whole Blood");
+    private void addPlateletRules(List<BloodTypeCompatibility> rules, Map<String, BloodType> plateletMap) {
+        addCompatibility(rules, plateletMap, "O+", "O+", true, "Platelets"); addCompatibility(rules, plateletMap, "O+", "A+", true, "Platelets"); addCompatibility(rules, plateletMap, "O+", "B+", true, "Platelets"); addCompatibility(rules, plateletMap, "O+", "AB+", true, "Platelets");
+        addCompatibility(rules, plateletMap, "A+", "A+", true, "Platelets"); addCompatibility(rules, plateletMap, "A+", "AB+", true, "Platelets");
+        addCompatibility(rules, plateletMap, "B+", "B+", true, "Platelets"); addCompatibility(rules, plateletMap, "B+", "AB+", true, "Platelets");
+        addCompatibility(rules, plateletMap, "AB+", "AB+", true, "Platelets");
     }
 
-    private void createRoleIfNotFound(String name, String permissions, String description) {
-        if (roleRepository.findByName(name).isEmpty()) {
-            Role role = new Role(name);
-            role.setPermissions(permissions);
-            role.setDescription(description);
-            roleRepository.save(role);
-            System.out.println("Initialized role: " + name);
-        }
+    private void addWholeBloodRules(List<BloodTypeCompatibility> rules, Map<String, BloodType> wholeBloodMap) {
+        addCompatibility(rules, wholeBloodMap, "O+", "O+", true, "Whole Blood"); addCompatibility(rules, wholeBloodMap, "O-", "O-", true, "Whole Blood");
+        addCompatibility(rules, wholeBloodMap, "A+", "A+", true, "Whole Blood"); addCompatibility(rules, wholeBloodMap, "A-", "A-", true, "Whole Blood");
+        addCompatibility(rules, wholeBloodMap, "B+", "B+", true, "Whole Blood"); addCompatibility(rules, wholeBloodMap, "B-", "B-", true, "Whole Blood");
+        addCompatibility(rules, wholeBloodMap, "AB+", "AB+", true, "Whole Blood"); addCompatibility(rules, wholeBloodMap, "AB-", "AB-", true, "Whole Blood");
     }
 
-    private void createBloodTypeIfNotFound(String group, BloodComponentType component, String desc, Integer shelfLife) {
-        if (bloodTypeRepository.findByBloodGroupAndComponentType(group, component).isEmpty()) {
-            BloodType bloodType = new BloodType();
-            bloodType.setBloodGroup(group);
-            bloodType.setComponentType(component);
-            bloodType.setDescription(desc);
-            bloodType.setShelfLifeDays(shelfLife);
-            bloodTypeRepository.save(bloodType);
-            System.out.println("Initialized Blood Type: " + group + " " + component.getDisplayName());
-        }
+    private void addRole(List<Role> roles, String name, String permissions, String description) {
+        Role role = new Role(name);
+        role.setPermissions(permissions);
+        role.setDescription(description);
+        roles.add(role);
+    }
+
+    private void addBloodType(List<BloodType> bloodTypes, String group, BloodComponentType component, String desc, Integer shelfLife) {
+        BloodType bloodType = new BloodType();
+        bloodType.setBloodGroup(group);
+        bloodType.setComponentType(component);
+        bloodType.setDescription(desc);
+        bloodType.setShelfLifeDays(shelfLife);
+        bloodTypes.add(bloodType);
     }
 
-    private void addCompatibility(Map<String, BloodType> typeMap, String donorGroup, String recipientGroup, boolean isCompatible, String notes) {
+    private void addCompatibility(List<BloodTypeCompatibility> rules, Map<String, BloodType> typeMap, String donorGroup, String recipientGroup, boolean isCompatible, String notes) {
         BloodType donor = typeMap.get(donorGroup);
         BloodType recipient = typeMap.get(recipientGroup);
         if (donor != null && recipient != null) {
-            createCompatibilityIfNotFound(donor, recipient, isCompatible, 100, true, notes);
-        }
-    }
-
-    private void createCompatibilityIfNotFound(BloodType donor, BloodType recipient, boolean isCompatible, int score, boolean isEmergency, String notes) {
-        if (compatibilityRepository.findByDonorBloodTypeIdAndRecipientBloodTypeId(donor.getId(), recipient.getId()).isEmpty()) {
             BloodTypeCompatibility compatibility = new BloodTypeCompatibility();
             compatibility.setDonorBloodType(donor);
             compatibility.setRecipientBloodType(recipient);
             compatibility.setIsCompatible(isCompatible);
             compatibility.setNotes(notes);
-            compatibilityRepository.save(compatibility);
-            System.out.println("Initialized Compatibility: " + notes + " (" + donor.getBloodGroup() + " -> " + recipient.getBloodGroup() + ")");
+            rules.add(compatibility);
         }
     }
-}
\ No newline at end of file
+}
@@ -53,6 +53,7 @@ public class SecurityConfig {
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/blood-types", "/api/blood-types/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/blood-compatibility/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/reference-data", "/api/reference-data/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/blog-posts", "/api/blog-posts/**").permitAll()
                         .requestMatchers("/api/inventory/**").hasAnyRole("STAFF", "ADMIN")
                         // THÊM DÒNG MỚI NÀY
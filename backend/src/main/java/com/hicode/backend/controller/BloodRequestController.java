@@ -1,20 +1,29 @@
 package com.hicode.backend.controller;
 
+import com.hicode.backend.dto.admin.BloodAllocationResponse;
 import com.hicode.backend.dto.admin.BloodRequestResponse;
+import com.hicode.backend.dto.admin.BloodRequestSearchCriteria;
+import com.hicode.backend.dto.admin.BloodRequestSearchResponse;
+import com.hicode.backend.dto.admin.BloodRequestTriageResponse;
 import com.hicode.backend.dto.admin.CreateBloodRequestRequest;
 import com.hicode.backend.model.entity.DonationPledge;
 import com.hicode.backend.model.enums.RequestStatus;
+import com.hicode.backend.model.enums.UrgencyLevel;
+import com.hicode.backend.service.BloodAllocationService;
 import com.hicode.backend.service.BloodRequestService;
+import com.hicode.backend.service.BloodRequestTriageService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -23,6 +32,10 @@ public class BloodRequestController {
 
     @Autowired
     private BloodRequestService bloodRequestService;
+    @Autowired
+    private BloodRequestTriageService triageService;
+    @Autowired
+    private BloodAllocationService allocationService;
 
     @PostMapping
     @PreAuthorize("hasAnyRole('STAFF', 'ADMIN')")
@@ -39,6 +52,36 @@ public class BloodRequestController {
         return ResponseEntity.ok(bloodRequestService.getAllRequests(pageable));
     }
 
+    @GetMapping("/triage")
+    @PreAuthorize("hasAnyRole('STAFF', 'ADMIN')")
+    public ResponseEntity<Page<BloodRequestTriageResponse>> getTriageQueue(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(triageService.getTriageQueue(PageRequest.of(page, size)));
+    }
+
+    @GetMapping("/search")
+    @PreAuthorize("hasAnyRole('STAFF', 'ADMIN')")
+    public ResponseEntity<BloodRequestSearchResponse> searchRequests(
+            @RequestParam(required = false) String hospital,
+            @RequestParam(required = false) Integer bloodTypeId,
+            @RequestParam(required = false) UrgencyLevel urgency,
+            @RequestParam(required = false) RequestStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        BloodRequestSearchCriteria criteria = new BloodRequestSearchCriteria();
+        criteria.setHospital(hospital);
+        criteria.setBloodTypeId(bloodTypeId);
+        criteria.setUrgency(urgency);
+        criteria.setStatus(status);
+        criteria.setCreatedFrom(createdFrom);
+        criteria.setCreatedTo(createdTo);
+        int pageSize = Math.max(1, Math.min(size, 100));
+        return ResponseEntity.ok(bloodRequestService.searchRequests(criteria, cursor, pageSize));
+    }
+
     @GetMapping("/search/active")
     @PreAuthorize("permitAll()")
     public ResponseEntity<List<BloodRequestResponse>> searchActiveRequests() {
@@ -74,4 +117,16 @@ public class BloodRequestController {
             @RequestParam RequestStatus newStatus) {
         return ResponseEntity.ok(bloodRequestService.updateStatus(id, newStatus));
     }
+
+    @PostMapping("/{id}/allocate")
+    @PreAuthorize("hasAnyRole('STAFF', 'ADMIN')")
+    public ResponseEntity<BloodAllocationResponse> allocateUnits(@PathVariable Long id) {
+        return ResponseEntity.ok(allocationService.allocate(id));
+    }
+
+    @PostMapping("/allocate/rebalance")
+    @PreAuthorize("hasAnyRole('STAFF', 'ADMIN')")
+    public ResponseEntity<List<BloodAllocationResponse>> rebalanceAllocations() {
+        return ResponseEntity.ok(allocationService.rebalanceOpenRequests());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,110 @@
+package com.hicode.backend.controller;
+
+import com.hicode.backend.dto.admin.BloodRequestSearchCriteria;
+import com.hicode.backend.dto.admin.BloodUnitSearchCriteria;
+import com.hicode.backend.model.enums.DonationStatus;
+import com.hicode.backend.model.enums.ExportFormat;
+import com.hicode.backend.model.enums.InventoryStatus;
+import com.hicode.backend.model.enums.RequestStatus;
+import com.hicode.backend.model.enums.UrgencyLevel;
+import com.hicode.backend.service.ExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/admin/exports")
+@PreAuthorize("hasRole('ADMIN')")
+public class ExportController {
+
+    private static final int GZIP_BUFFER_BYTES = 64 * 1024;
+
+    @Autowired
+    private ExportService exportService;
+
+    @GetMapping("/blood-units")
+    public ResponseEntity<StreamingResponseBody> exportBloodUnits(
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) InventoryStatus status,
+            @RequestParam(required = false) Integer bloodTypeId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate expiryFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate expiryTo,
+            @RequestParam(required = false) String storageLocation) {
+        BloodUnitSearchCriteria criteria = new BloodUnitSearchCriteria();
+        criteria.setStatus(status);
+        criteria.setBloodTypeId(bloodTypeId);
+        criteria.setExpiryFrom(expiryFrom);
+        criteria.setExpiryTo(expiryTo);
+        criteria.setStorageLocation(storageLocation);
+        return streaming("blood-units", format, gzip, out -> exportService.exportBloodUnits(criteria, format, out));
+    }
+
+    @GetMapping("/donations")
+    public ResponseEntity<StreamingResponseBody> exportDonations(
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) DonationStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo) {
+        return streaming("donations", format, gzip,
+                out -> exportService.exportDonations(status, createdFrom, createdTo, format, out));
+    }
+
+    @GetMapping("/blood-requests")
+    public ResponseEntity<StreamingResponseBody> exportBloodRequests(
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) String hospital,
+            @RequestParam(required = false) Integer bloodTypeId,
+            @RequestParam(required = false) UrgencyLevel urgency,
+            @RequestParam(required = false) RequestStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo) {
+        BloodRequestSearchCriteria criteria = new BloodRequestSearchCriteria();
+        criteria.setHospital(hospital);
+        criteria.setBloodTypeId(bloodTypeId);
+        criteria.setUrgency(urgency);
+        criteria.setStatus(status);
+        criteria.setCreatedFrom(createdFrom);
+        criteria.setCreatedTo(createdTo);
+        return streaming("blood-requests", format, gzip, out -> exportService.exportBloodRequests(criteria, format, out));
+    }
+
+    private ResponseEntity<StreamingResponseBody> streaming(String name, ExportFormat format, boolean gzip,
+                                                            StreamingResponseBody body) {
+        String fileName = name + "-" + LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE)
+                + (format == ExportFormat.NDJSON ? ".ndjson" : ".csv") + (gzip ? ".gz" : "");
+        MediaType contentType = gzip ? MediaType.parseMediaType("application/gzip")
+                : format == ExportFormat.NDJSON ? MediaType.parseMediaType("application/x-ndjson;charset=UTF-8")
+                : MediaType.parseMediaType("text/csv;charset=UTF-8");
+
+        StreamingResponseBody stream = out -> {
+            if (!gzip) {
+                body.writeTo(out);
+                return;
+            }
+            GZIPOutputStream gzipOut = new GZIPOutputStream(out, GZIP_BUFFER_BYTES);
+            body.writeTo(gzipOut);
+            gzipOut.finish();
+        };
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .contentType(contentType)
+                .body(stream);
+    }
+}
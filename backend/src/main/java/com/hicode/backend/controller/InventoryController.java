@@ -1,14 +1,57 @@
 package com.hicode.backend.controller;
 
+import com.hicode.backend.dto.admin.BloodTypeAvailabilityResponse;
 import com.hicode.backend.dto.admin.BloodUnitResponse;
+import com.hicode.backend.dto.admin.BloodUnitSearchCriteria;
+import com.hicode.backend.dto.admin.ComponentSeparationRequest;
+import com.hicode.backend.dto.admin.ComponentSeparationResponse;
+import com.hicode.backend.dto.admin.CreateStorageLocationRequest;
+import com.hicode.backend.dto.admin.ExpirySweepResponse;
 import com.hicode.backend.dto.admin.InventorySummary;
+import com.hicode.backend.dto.admin.InventoryTrendPoint;
+import com.hicode.backend.dto.admin.NearExpiryWarning;
+import com.hicode.backend.dto.admin.ScanBatchRequest;
+import com.hicode.backend.dto.admin.ScanResolutionResponse;
+import com.hicode.backend.dto.admin.ShortageForecastResponse;
+import com.hicode.backend.dto.admin.StockTransferRequest;
+import com.hicode.backend.dto.admin.StockTransferResponse;
+import com.hicode.backend.dto.admin.StorageLocationResponse;
+import com.hicode.backend.dto.admin.UnitBatchRequest;
+import com.hicode.backend.dto.admin.UnitStatusUpdateRequest;
+import com.hicode.backend.dto.admin.UnitStatusUpdateResponse;
+import com.hicode.backend.dto.admin.WastageReportRow;
+import com.hicode.backend.model.enums.InventoryStatus;
+import com.hicode.backend.model.enums.TrendGranularity;
+import com.hicode.backend.service.ComponentSeparationService;
+import com.hicode.backend.service.InventoryExpiryService;
+import com.hicode.backend.service.InventoryIndexService;
 import com.hicode.backend.service.InventoryService;
+import com.hicode.backend.service.InventorySnapshotService;
+import com.hicode.backend.service.InventorySummaryService;
+import com.hicode.backend.service.ShortageForecastService;
+import com.hicode.backend.service.StorageLocationService;
+import com.hicode.backend.service.UnitIdLookupService;
+import com.hicode.backend.service.WastageAnalyticsService;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 
 @RestController
@@ -18,21 +61,170 @@ public class InventoryController {
 
     @Autowired
     private InventoryService inventoryService;
+    @Autowired
+    private InventorySummaryService inventorySummaryService;
+    @Autowired
+    private InventoryIndexService inventoryIndexService;
+    @Autowired
+    private InventoryExpiryService inventoryExpiryService;
+    @Autowired
+    private InventorySnapshotService inventorySnapshotService;
+    @Autowired
+    private ShortageForecastService shortageForecastService;
+    @Autowired
+    private UnitIdLookupService unitIdLookupService;
+    @Autowired
+    private ComponentSeparationService componentSeparationService;
+    @Autowired
+    private StorageLocationService storageLocationService;
+    @Autowired
+    private WastageAnalyticsService wastageAnalyticsService;
 
     @GetMapping
     public ResponseEntity<List<BloodUnitResponse>> viewInventory() {
         return ResponseEntity.ok(inventoryService.getAllInventory());
     }
 
+    @GetMapping("/units")
+    public ResponseEntity<Page<BloodUnitResponse>> searchUnits(
+            @RequestParam(required = false) InventoryStatus status,
+            @RequestParam(required = false) Integer bloodTypeId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate expiryFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate expiryTo,
+            @RequestParam(required = false) String storageLocation,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        BloodUnitSearchCriteria criteria = new BloodUnitSearchCriteria();
+        criteria.setStatus(status);
+        criteria.setBloodTypeId(bloodTypeId);
+        criteria.setExpiryFrom(expiryFrom);
+        criteria.setExpiryTo(expiryTo);
+        criteria.setStorageLocation(storageLocation);
+        int pageSize = Math.max(1, Math.min(size, 100));
+        return ResponseEntity.ok(inventoryService.searchInventory(criteria, PageRequest.of(Math.max(0, page), pageSize)));
+    }
+
+    @GetMapping("/units/lookup")
+    public ResponseEntity<List<String>> lookupUnitIds(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(unitIdLookupService.typeAhead(prefix, Math.max(1, Math.min(limit, 50))));
+    }
+
+    @PostMapping("/units/scan")
+    public ResponseEntity<List<ScanResolutionResponse>> resolveScannedCodes(@Valid @RequestBody ScanBatchRequest request) {
+        return ResponseEntity.ok(unitIdLookupService.resolveBatch(request.getCodes()));
+    }
+
+    @PutMapping("/units/status")
+    public ResponseEntity<UnitStatusUpdateResponse> updateUnitStatus(@Valid @RequestBody UnitStatusUpdateRequest request) {
+        return ResponseEntity.ok(inventoryService.updateUnitStatus(request));
+    }
+
+    @PostMapping("/units/quarantine/release")
+    public ResponseEntity<UnitStatusUpdateResponse> releaseQuarantine(@Valid @RequestBody UnitBatchRequest request) {
+        return ResponseEntity.ok(inventoryService.releaseQuarantine(request.getUnitIds()));
+    }
+
+    @PostMapping("/separations")
+    public ResponseEntity<ComponentSeparationResponse> separateComponents(@Valid @RequestBody ComponentSeparationRequest request) {
+        return ResponseEntity.ok(componentSeparationService.separate(request));
+    }
+
+    @GetMapping("/locations")
+    public ResponseEntity<List<StorageLocationResponse>> getLocations() {
+        return ResponseEntity.ok(storageLocationService.getAllLocations());
+    }
+
+    @PostMapping("/locations")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StorageLocationResponse> createLocation(@Valid @RequestBody CreateStorageLocationRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(storageLocationService.createLocation(request));
+    }
+
+    @GetMapping("/locations/{code}/summary")
+    public ResponseEntity<List<InventorySummary>> getLocationSummary(
+            @PathVariable String code,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return InventorySummaryResponses.of(inventorySummaryService.getSnapshot(code), ifNoneMatch);
+    }
+
+    @PostMapping("/transfers")
+    public ResponseEntity<StockTransferResponse> transferUnits(@Valid @RequestBody StockTransferRequest request) {
+        return ResponseEntity.ok(storageLocationService.transferUnits(request));
+    }
+
     // --- CÁC ENDPOINT MỚI ---
 
     @GetMapping("/summary")
-    public ResponseEntity<List<InventorySummary>> getSummary() {
-        return ResponseEntity.ok(inventoryService.getInventorySummary());
+    public ResponseEntity<List<InventorySummary>> getSummary(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return InventorySummaryResponses.of(inventorySummaryService.getSnapshot(), ifNoneMatch);
     }
 
     @GetMapping("/recent")
     public ResponseEntity<List<BloodUnitResponse>> getRecentAdditions() {
         return ResponseEntity.ok(inventoryService.getRecentAdditions());
     }
+
+    @GetMapping("/availability")
+    public ResponseEntity<List<BloodTypeAvailabilityResponse>> getAvailability(
+            @RequestParam(defaultValue = "7") int expiringWithinDays) {
+        return ResponseEntity.ok(inventoryIndexService.getAllAvailability(expiringWithinDays));
+    }
+
+    @GetMapping("/availability/{bloodTypeId}")
+    public ResponseEntity<BloodTypeAvailabilityResponse> getAvailabilityByBloodType(
+            @PathVariable Integer bloodTypeId,
+            @RequestParam(defaultValue = "7") int expiringWithinDays) {
+        return ResponseEntity.ok(inventoryIndexService.getAvailability(bloodTypeId, expiringWithinDays));
+    }
+
+    @GetMapping("/expiry/warnings")
+    public ResponseEntity<List<NearExpiryWarning>> getNearExpiryWarnings() {
+        return ResponseEntity.ok(inventoryExpiryService.getNearExpiryWarnings());
+    }
+
+    @PostMapping("/expiry/sweep")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ExpirySweepResponse> sweepExpiredUnits() {
+        ExpirySweepResponse response = inventoryExpiryService.sweepExpiredUnits();
+        inventoryExpiryService.refreshNearExpiryWarnings();
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/trends")
+    public ResponseEntity<List<InventoryTrendPoint>> getTrends(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer bloodTypeId,
+            @RequestParam(defaultValue = "DAY") TrendGranularity granularity) {
+        return ResponseEntity.ok(inventorySnapshotService.getTrend(from, to, bloodTypeId, granularity));
+    }
+
+    @PostMapping("/snapshots")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<String> takeSnapshot() {
+        int bloodTypes = inventorySnapshotService.takeSnapshot();
+        return ResponseEntity.ok("Inventory snapshot recorded for " + bloodTypes + " blood types.");
+    }
+
+    @GetMapping("/wastage")
+    public ResponseEntity<List<WastageReportRow>> getWastageReport(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth to,
+            @RequestParam(required = false) Integer bloodTypeId,
+            @RequestParam(required = false) String storageLocation) {
+        return ResponseEntity.ok(wastageAnalyticsService.getReport(from, to, bloodTypeId, storageLocation));
+    }
+
+    @GetMapping("/forecast")
+    public ResponseEntity<List<ShortageForecastResponse>> getForecasts() {
+        return ResponseEntity.ok(shortageForecastService.getForecasts());
+    }
+
+    @GetMapping("/forecast/{bloodTypeId}")
+    public ResponseEntity<ShortageForecastResponse> getForecast(@PathVariable Integer bloodTypeId) {
+        return ResponseEntity.ok(shortageForecastService.getForecast(bloodTypeId));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.hicode.backend.controller;
+
+import com.hicode.backend.dto.admin.InventorySummary;
+import com.hicode.backend.service.InventorySummaryService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+/**
+ * Trả snapshot tổng hợp tồn kho kèm ETag theo version; client gửi lại If-None-Match trùng thì nhận 304.
+ */
+final class InventorySummaryResponses {
+
+    private InventorySummaryResponses() {
+    }
+
+    static ResponseEntity<List<InventorySummary>> of(InventorySummaryService.Snapshot snapshot, String ifNoneMatch) {
+        String eTag = "\"inventory-summary-" + snapshot.getVersion() + "\"";
+        if (eTag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).body(snapshot.getItems());
+    }
+}
@@ -0,0 +1,37 @@
+package com.hicode.backend.controller;
+
+import com.hicode.backend.dto.admin.AntigenProfileRequest;
+import com.hicode.backend.dto.admin.AntigenProfileResponse;
+import com.hicode.backend.dto.admin.RareDonorMatch;
+import com.hicode.backend.dto.admin.RareDonorSearchRequest;
+import com.hicode.backend.service.RareDonorService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/rare-donors")
+@PreAuthorize("hasAnyRole('STAFF', 'ADMIN')")
+public class RareDonorController {
+
+    @Autowired
+    private RareDonorService rareDonorService;
+
+    @GetMapping("/profiles/{userId}")
+    public ResponseEntity<AntigenProfileResponse> getProfile(@PathVariable Long userId) {
+        return ResponseEntity.ok(rareDonorService.getProfile(userId));
+    }
+
+    @PutMapping("/profiles/{userId}")
+    public ResponseEntity<AntigenProfileResponse> updateProfile(@PathVariable Long userId, @Valid @RequestBody AntigenProfileRequest request) {
+        return ResponseEntity.ok(rareDonorService.updateProfile(userId, request));
+    }
+
+    @PostMapping("/search")
+    public ResponseEntity<List<RareDonorMatch>> search(@Valid @RequestBody RareDonorSearchRequest request) {
+        return ResponseEntity.ok(rareDonorService.search(request));
+    }
+}
@@ -0,0 +1,93 @@
+package com.hicode.backend.controller;
+
+import com.hicode.backend.dto.admin.ReferenceDataVersionResponse;
+import com.hicode.backend.service.ReferenceDataBundleService;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/api/reference-data")
+public class ReferenceDataController {
+
+    @Autowired
+    private ReferenceDataBundleService referenceDataBundleService;
+
+    /**
+     * Phiên bản hiện tại của gói; client luôn hỏi lại (ETag) rồi tải gói theo URL có mã băm.
+     */
+    @GetMapping
+    public ResponseEntity<ReferenceDataVersionResponse> getCurrentVersion(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        ReferenceDataBundleService.Bundle bundle = referenceDataBundleService.getBundle();
+        String eTag = "\"" + bundle.getVersion() + "\"";
+        if (eTag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(CacheControl.noCache()).build();
+        }
+        ReferenceDataVersionResponse response = new ReferenceDataVersionResponse();
+        response.setVersion(bundle.getVersion());
+        response.setUrl("/api/reference-data/" + bundle.getVersion());
+        response.setSizeBytes(bundle.getJson().length);
+        response.setGzipSizeBytes(bundle.getGzipped().length);
+        return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache()).body(response);
+    }
+
+    @GetMapping("/{version}")
+    public ResponseEntity<byte[]> getBundle(
+            @PathVariable String version,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ReferenceDataBundleService.Bundle bundle = referenceDataBundleService.getBundle();
+        if (!bundle.getVersion().equals(version)) {
+            throw new EntityNotFoundException("Reference data version not found: " + version);
+        }
+        boolean gzip = acceptsGzip(acceptEncoding);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag("\"" + version + "\"")
+                .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(bundle.getGzipped());
+        }
+        return builder.body(bundle.getJson());
+    }
+
+    /**
+     * Đọc Accept-Encoding theo q-value: "gzip;q=0" nghĩa là từ chối gzip; "*" áp dụng khi gzip không được nêu tên.
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double wildcard = null;
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.split(";");
+            String coding = params[0].trim().toLowerCase(Locale.ROOT);
+            double q = 1.0;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.length() > 2 && (param.charAt(0) == 'q' || param.charAt(0) == 'Q') && param.charAt(1) == '=') {
+                    try {
+                        q = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                return q > 0;
+            }
+            if (coding.equals("*")) {
+                wildcard = q;
+            }
+        }
+        return wildcard != null && wildcard > 0;
+    }
+}
@@ -3,10 +3,13 @@ package com.hicode.backend.controller;
 import com.hicode.backend.dto.admin.BloodUnitResponse;
 import com.hicode.backend.dto.admin.InventorySummary;
 import com.hicode.backend.service.InventoryService;
+import com.hicode.backend.service.InventorySummaryService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import java.util.List;
@@ -18,6 +21,8 @@ public class StaffInventoryController {
 
     @Autowired
     private InventoryService inventoryService;
+    @Autowired
+    private InventorySummaryService inventorySummaryService;
 
     @GetMapping
     public ResponseEntity<List<BloodUnitResponse>> viewInventory() {
@@ -25,8 +30,9 @@ public class StaffInventoryController {
     }
 
     @GetMapping("/summary")
-    public ResponseEntity<List<InventorySummary>> getSummary() {
-        return ResponseEntity.ok(inventoryService.getInventorySummary());
+    public ResponseEntity<List<InventorySummary>> getSummary(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return InventorySummaryResponses.of(inventorySummaryService.getSnapshot(), ifNoneMatch);
     }
 
     @GetMapping("/recent")
@@ -0,0 +1,58 @@
+package com.hicode.backend.controller;
+
+import com.hicode.backend.dto.admin.CreateTemperatureSensorRequest;
+import com.hicode.backend.dto.admin.TemperatureIngestResponse;
+import com.hicode.backend.dto.admin.TemperatureReading;
+import com.hicode.backend.dto.admin.TemperatureReadingBatchRequest;
+import com.hicode.backend.dto.admin.TemperatureSensorResponse;
+import com.hicode.backend.model.entity.TemperatureSample;
+import com.hicode.backend.service.TemperatureTelemetryService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/telemetry")
+@PreAuthorize("hasAnyRole('STAFF', 'ADMIN')")
+public class TelemetryController {
+
+    @Autowired
+    private TemperatureTelemetryService telemetryService;
+
+    @PostMapping("/temperature")
+    public ResponseEntity<TemperatureIngestResponse> ingestTemperature(@Valid @RequestBody TemperatureReadingBatchRequest request) {
+        return ResponseEntity.ok(telemetryService.ingest(request.getReadings()));
+    }
+
+    @GetMapping("/sensors")
+    public ResponseEntity<List<TemperatureSensorResponse>> getSensors() {
+        return ResponseEntity.ok(telemetryService.getSensors());
+    }
+
+    @PostMapping("/sensors")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<TemperatureSensorResponse> createSensor(@Valid @RequestBody CreateTemperatureSensorRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(telemetryService.createSensor(request));
+    }
+
+    @GetMapping("/sensors/{id}/recent")
+    public ResponseEntity<List<TemperatureReading>> getRecentReadings(
+            @PathVariable String id,
+            @RequestParam(defaultValue = "300") int seconds) {
+        return ResponseEntity.ok(telemetryService.getRecentReadings(id, Math.max(1, Math.min(seconds, 3600))));
+    }
+
+    @GetMapping("/sensors/{id}/samples")
+    public ResponseEntity<List<TemperatureSample>> getSamples(
+            @PathVariable String id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.ok(telemetryService.getSamples(id, from, to));
+    }
+}
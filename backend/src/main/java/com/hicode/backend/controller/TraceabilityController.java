@@ -0,0 +1,44 @@
+package com.hicode.backend.controller;
+
+import com.hicode.backend.dto.admin.DonorQuarantineRequest;
+import com.hicode.backend.dto.admin.DonorQuarantineResponse;
+import com.hicode.backend.dto.admin.TraceabilityRow;
+import com.hicode.backend.service.TraceabilityService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/traceability")
+@PreAuthorize("hasAnyRole('STAFF', 'ADMIN')")
+public class TraceabilityController {
+
+    @Autowired
+    private TraceabilityService traceabilityService;
+
+    @GetMapping("/donors/{donorId}")
+    public ResponseEntity<List<TraceabilityRow>> traceDonor(@PathVariable Long donorId) {
+        return ResponseEntity.ok(traceabilityService.traceDonor(donorId));
+    }
+
+    @GetMapping("/units/{unitId}")
+    public ResponseEntity<List<TraceabilityRow>> traceUnit(@PathVariable String unitId) {
+        return ResponseEntity.ok(traceabilityService.traceUnit(unitId));
+    }
+
+    @GetMapping("/requests/{requestId}")
+    public ResponseEntity<List<TraceabilityRow>> traceRequest(@PathVariable Long requestId) {
+        return ResponseEntity.ok(traceabilityService.traceRequest(requestId));
+    }
+
+    @PostMapping("/donors/{donorId}/quarantine")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<DonorQuarantineResponse> quarantineDonorUnits(
+            @PathVariable Long donorId,
+            @Valid @RequestBody DonorQuarantineRequest request) {
+        return ResponseEntity.ok(traceabilityService.quarantineDonorUnits(donorId, request.getReason()));
+    }
+}
@@ -0,0 +1,54 @@
+package com.hicode.backend.controller;
+
+import com.hicode.backend.dto.admin.CreateWebhookEndpointRequest;
+import com.hicode.backend.dto.admin.WebhookDeadLetterResponse;
+import com.hicode.backend.dto.admin.WebhookEndpointResponse;
+import com.hicode.backend.service.WebhookService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/webhooks")
+@PreAuthorize("hasRole('ADMIN')")
+public class WebhookController {
+
+    @Autowired
+    private WebhookService webhookService;
+
+    @GetMapping("/endpoints")
+    public ResponseEntity<List<WebhookEndpointResponse>> getAllEndpoints() {
+        return ResponseEntity.ok(webhookService.getAllEndpoints());
+    }
+
+    @PostMapping("/endpoints")
+    public ResponseEntity<WebhookEndpointResponse> createEndpoint(@Valid @RequestBody CreateWebhookEndpointRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(webhookService.createEndpoint(request));
+    }
+
+    @DeleteMapping("/endpoints/{id}")
+    public ResponseEntity<Void> deactivateEndpoint(@PathVariable Long id) {
+        webhookService.deactivateEndpoint(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/dead-letters")
+    public ResponseEntity<Page<WebhookDeadLetterResponse>> getDeadLetters(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(webhookService.getDeadLetters(PageRequest.of(page, size, Sort.by("failedAt").descending())));
+    }
+
+    @PostMapping("/dead-letters/{id}/replay")
+    public ResponseEntity<Void> replayDeadLetter(@PathVariable Long id) {
+        webhookService.replayDeadLetter(id);
+        return ResponseEntity.accepted().build();
+    }
+}
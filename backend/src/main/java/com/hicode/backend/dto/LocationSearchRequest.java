@@ -1,6 +1,11 @@
 package com.hicode.backend.dto;
 
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -8,13 +13,23 @@ import lombok.Setter;
 @Setter
 public class LocationSearchRequest {
     @NotNull(message = "Latitude is required")
+    @DecimalMin(value = "-90", message = "Latitude must be between -90 and 90")
+    @DecimalMax(value = "90", message = "Latitude must be between -90 and 90")
     private Double latitude;
 
     @NotNull(message = "Longitude is required")
+    @DecimalMin(value = "-180", message = "Longitude must be between -180 and 180")
+    @DecimalMax(value = "180", message = "Longitude must be between -180 and 180")
     private Double longitude;
 
     @NotNull(message = "Radius in kilometers is required")
+    @Positive(message = "Radius must be positive")
     private Double radius;
 
     private Integer bloodTypeId;
+
+    // Số kết quả tối đa (gần nhất trước); để trống thì dùng donor-search.default-limit
+    @Min(1)
+    @Max(500)
+    private Integer limit;
 }
\ No newline at end of file
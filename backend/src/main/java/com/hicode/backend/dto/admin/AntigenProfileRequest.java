@@ -0,0 +1,20 @@
+package com.hicode.backend.dto.admin;
+
+import com.hicode.backend.model.enums.RedCellAntigen;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import java.util.Set;
+
+/**
+ * Kết quả xét nghiệm kháng nguyên; kháng nguyên không có trong hai tập được coi là chưa xét nghiệm.
+ */
+@Getter
+@Setter
+public class AntigenProfileRequest {
+    @NotNull
+    private Set<RedCellAntigen> positive;
+
+    @NotNull
+    private Set<RedCellAntigen> negative;
+}
@@ -0,0 +1,16 @@
+package com.hicode.backend.dto.admin;
+
+import com.hicode.backend.model.enums.RedCellAntigen;
+import lombok.Getter;
+import lombok.Setter;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+public class AntigenProfileResponse {
+    private Long donorId;
+    private List<RedCellAntigen> positive;
+    private List<RedCellAntigen> negative;
+    private LocalDateTime updatedAt;
+}
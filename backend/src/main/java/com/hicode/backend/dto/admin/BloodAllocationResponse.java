@@ -0,0 +1,17 @@
+package com.hicode.backend.dto.admin;
+
+import lombok.Getter;
+import lombok.Setter;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+public class BloodAllocationResponse {
+    private Long requestId;
+    private int requestedUnits;
+    private int allocatedUnits;
+    private int shortfall;
+    private List<String> unitIds;
+    private LocalDateTime reservedUntil;
+}
@@ -20,4 +20,6 @@ public class BloodRequestResponse {
     private UserResponse createdBy;
     private int pledgeCount;
     private LocalDateTime createdAt;
+    private LocalDateTime estimatedFulfillmentAt;
+    private Boolean likelyToMiss;
 }
\ No newline at end of file
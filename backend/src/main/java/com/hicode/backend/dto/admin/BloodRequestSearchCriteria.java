@@ -0,0 +1,18 @@
+package com.hicode.backend.dto.admin;
+
+import com.hicode.backend.model.enums.RequestStatus;
+import com.hicode.backend.model.enums.UrgencyLevel;
+import lombok.Getter;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+public class BloodRequestSearchCriteria {
+    private String hospital;
+    private Integer bloodTypeId;
+    private UrgencyLevel urgency;
+    private RequestStatus status;
+    private LocalDateTime createdFrom;
+    private LocalDateTime createdTo;
+}
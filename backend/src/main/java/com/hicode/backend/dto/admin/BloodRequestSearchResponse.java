@@ -0,0 +1,14 @@
+package com.hicode.backend.dto.admin;
+
+import lombok.Getter;
+import lombok.Setter;
+import java.util.List;
+
+@Getter
+@Setter
+public class BloodRequestSearchResponse {
+    private List<BloodRequestResponse> items;
+    private boolean hasMore;
+    // Truyền lại qua tham số "cursor" để lấy trang kế tiếp; null khi đã hết
+    private String nextCursor;
+}
@@ -0,0 +1,23 @@
+package com.hicode.backend.dto.admin;
+
+import com.hicode.backend.model.enums.UrgencyLevel;
+import lombok.Getter;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+public class BloodRequestTriageResponse {
+    private int rank;
+    private Long requestId;
+    private String patientName;
+    private String hospital;
+    private BloodTypeResponse bloodType;
+    private Integer quantityInUnits;
+    private int pledgeCount;
+    private int deficit;
+    private UrgencyLevel urgency;
+    private UrgencyLevel effectiveUrgency;
+    private long waitingMinutes;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,15 @@
+package com.hicode.backend.dto.admin;
+
+import lombok.Getter;
+import lombok.Setter;
+import java.time.LocalDate;
+
+@Getter
+@Setter
+public class BloodTypeAvailabilityResponse {
+    private Integer bloodTypeId;
+    private int availableUnits;
+    private String oldestUnitId;
+    private LocalDate oldestExpiryDate;
+    private int expiringSoonUnits;
+}
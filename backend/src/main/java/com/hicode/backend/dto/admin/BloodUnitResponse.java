@@ -1,12 +1,15 @@
 package com.hicode.backend.dto.admin;
 
+import com.hicode.backend.model.enums.BloodComponentType;
 import com.hicode.backend.model.enums.InventoryStatus;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 import java.time.LocalDate;
 
 @Getter
 @Setter
+@NoArgsConstructor
 public class BloodUnitResponse {
     private String id;
     private BloodTypeResponse bloodType;
@@ -17,4 +20,29 @@ public class BloodUnitResponse {
     private String storageLocation;
     private Long donorId;
     private String donorName;
-}
\ No newline at end of file
+
+    /**
+     * Dùng cho constructor expression: dựng response trực tiếp từ các cột, không tải entity.
+     */
+    public BloodUnitResponse(String id, Integer bloodTypeId, String bloodGroup, BloodComponentType componentType,
+                             String bloodTypeDescription, Integer shelfLifeDays, Integer volumeMl,
+                             LocalDate collectionDate, LocalDate expiryDate, InventoryStatus status,
+                             String storageLocation, Long donorId, String donorName) {
+        BloodTypeResponse btResponse = new BloodTypeResponse();
+        btResponse.setId(bloodTypeId);
+        btResponse.setBloodGroup(bloodGroup);
+        btResponse.setComponentType(componentType);
+        btResponse.setDescription(bloodTypeDescription);
+        btResponse.setShelfLifeDays(shelfLifeDays);
+
+        this.id = id;
+        this.bloodType = btResponse;
+        this.volumeMl = volumeMl;
+        this.collectionDate = collectionDate;
+        this.expiryDate = expiryDate;
+        this.status = status;
+        this.storageLocation = storageLocation;
+        this.donorId = donorId;
+        this.donorName = donorName;
+    }
+}
@@ -0,0 +1,16 @@
+package com.hicode.backend.dto.admin;
+
+import com.hicode.backend.model.enums.InventoryStatus;
+import lombok.Getter;
+import lombok.Setter;
+import java.time.LocalDate;
+
+@Getter
+@Setter
+public class BloodUnitSearchCriteria {
+    private InventoryStatus status;
+    private Integer bloodTypeId;
+    private LocalDate expiryFrom;
+    private LocalDate expiryTo;
+    private String storageLocation;
+}
@@ -0,0 +1,21 @@
+package com.hicode.backend.dto.admin;
+
+import com.hicode.backend.model.enums.InventoryStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.time.LocalDate;
+
+/**
+ * Projection gọn của BloodUnit (không tải BloodType/DonationProcess), dùng cho các cấu trúc in-memory
+ * và các thao tác đổi trạng thái hàng loạt.
+ */
+@Getter
+@AllArgsConstructor
+public class BloodUnitSnapshot {
+    private String id;
+    private Integer bloodTypeId;
+    private Integer volumeMl;
+    private LocalDate expiryDate;
+    private InventoryStatus status;
+    private String storageLocation;
+}
@@ -0,0 +1,17 @@
+package com.hicode.backend.dto.admin;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Một quy tắc tương thích dạng phẳng (chỉ id của BloodType), dùng trong gói dữ liệu tham chiếu.
+ */
+@Getter
+@AllArgsConstructor
+public class CompatibilityRuleEntry {
+    private Integer id;
+    private Integer donorBloodTypeId;
+    private Integer recipientBloodTypeId;
+    private Boolean isCompatible;
+    private String notes;
+}
@@ -0,0 +1,22 @@
+package com.hicode.backend.dto.admin;
+
+import com.hicode.backend.model.enums.BloodComponentType;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class ComponentOutputRequest {
+    @NotBlank
+    @Size(max = 50)
+    private String unitId;
+    @NotNull
+    private BloodComponentType componentType;
+    @NotNull
+    @Positive
+    private Integer volumeMl;
+}
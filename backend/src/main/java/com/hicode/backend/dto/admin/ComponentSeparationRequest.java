@@ -0,0 +1,19 @@
+package com.hicode.backend.dto.admin;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+import java.util.List;
+
+/**
+ * Một lượt tách chế phẩm: nhiều túi máu toàn phần, mỗi túi tách thành một hoặc nhiều chế phẩm.
+ */
+@Getter
+@Setter
+public class ComponentSeparationRequest {
+    @NotEmpty
+    @Size(max = 1000)
+    private List<@Valid UnitSeparationRequest> units;
+}
@@ -0,0 +1,13 @@
+package com.hicode.backend.dto.admin;
+
+import lombok.Getter;
+import lombok.Setter;
+import java.util.List;
+
+@Getter
+@Setter
+public class ComponentSeparationResponse {
+    private int processedParents;
+    private int createdUnits;
+    private List<String> createdUnitIds;
+}
@@ -0,0 +1,21 @@
+package com.hicode.backend.dto.admin;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class CreateStorageLocationRequest {
+    @NotBlank
+    @Size(max = 100)
+    private String code;
+
+    @NotBlank
+    @Size(max = 255)
+    private String name;
+
+    @Size(max = 500)
+    private String description;
+}
@@ -0,0 +1,24 @@
+package com.hicode.backend.dto.admin;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class CreateTemperatureSensorRequest {
+    @NotBlank
+    @Size(max = 100)
+    private String id;
+
+    @NotBlank
+    private String storageLocation;
+
+    @NotNull
+    private Double minCelsius;
+
+    @NotNull
+    private Double maxCelsius;
+}
@@ -0,0 +1,24 @@
+package com.hicode.backend.dto.admin;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class CreateWebhookEndpointRequest {
+    @NotBlank
+    private String hospital;
+    @NotBlank
+    @Size(max = 500)
+    private String url;
+    // Nếu bỏ trống, hệ thống sẽ sinh ngẫu nhiên và trả về một lần duy nhất
+    @Size(min = 16, max = 255)
+    private String secret;
+    @Positive
+    @Max(32)
+    private Integer maxConcurrency;
+}
@@ -0,0 +1,14 @@
+package com.hicode.backend.dto.admin;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class DonorQuarantineRequest {
+    @NotBlank
+    @Size(max = 400)
+    private String reason;
+}
@@ -0,0 +1,15 @@
+package com.hicode.backend.dto.admin;
+
+import lombok.Getter;
+import lombok.Setter;
+import java.util.List;
+
+@Getter
+@Setter
+public class DonorQuarantineResponse {
+    private Long donorId;
+    private int quarantinedUnits;
+    private List<String> quarantinedUnitIds;
+    // Đơn vị đã cấp phát/sử dụng: cần thông báo cho bệnh viện nhận máu
+    private List<TraceabilityRow> distributedUnits;
+}
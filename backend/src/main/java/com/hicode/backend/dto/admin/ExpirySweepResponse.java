@@ -0,0 +1,17 @@
+package com.hicode.backend.dto.admin;
+
+import lombok.Getter;
+import lombok.Setter;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Getter
+@Setter
+public class ExpirySweepResponse {
+    private int totalExpired;
+    private int chunks;
+    // bloodTypeId -> số đơn vị chuyển sang EXPIRED
+    private Map<Integer, Integer> expiredByBloodType;
+    private LocalDateTime sweptAt;
+    private long durationMs;
+}
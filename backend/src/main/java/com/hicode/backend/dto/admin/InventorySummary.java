@@ -25,4 +25,10 @@ public class InventorySummary {
         this.unitCount = unitCount;
         this.totalVolumeMl = (totalVolumeMl != null) ? totalVolumeMl : 0L;
     }
+
+    public InventorySummary(BloodTypeResponse bloodType, long unitCount, long totalVolumeMl) {
+        this.bloodType = bloodType;
+        this.unitCount = unitCount;
+        this.totalVolumeMl = totalVolumeMl;
+    }
 }
@@ -0,0 +1,24 @@
+package com.hicode.backend.dto.admin;
+
+import lombok.Getter;
+import lombok.Setter;
+import java.time.LocalDate;
+
+/**
+ * Một điểm trên biểu đồ xu hướng tồn kho của một nhóm máu.
+ * Với WEEK/MONTH, các giá trị avg/min/max tính trên các snapshot ngày trong kỳ, closing là snapshot cuối kỳ.
+ */
+@Getter
+@Setter
+public class InventoryTrendPoint {
+    private Integer bloodTypeId;
+    private LocalDate periodStart;
+    private int days;
+    private double avgAvailableUnits;
+    private int minAvailableUnits;
+    private int maxAvailableUnits;
+    private int closingAvailableUnits;
+    private long closingAvailableVolumeMl;
+    private double avgExpiringSoonUnits;
+    private double avgReservedUnits;
+}
@@ -0,0 +1,18 @@
+package com.hicode.backend.dto.admin;
+
+import com.hicode.backend.model.enums.BloodComponentType;
+import lombok.Getter;
+import lombok.Setter;
+import java.time.LocalDate;
+
+@Getter
+@Setter
+public class NearExpiryWarning {
+    private Integer bloodTypeId;
+    private String bloodGroup;
+    private BloodComponentType componentType;
+    private int warningHours;
+    private int expiringUnits;
+    private String oldestUnitId;
+    private LocalDate oldestExpiryDate;
+}
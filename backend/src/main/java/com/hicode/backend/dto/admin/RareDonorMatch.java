@@ -0,0 +1,21 @@
+package com.hicode.backend.dto.admin;
+
+import com.hicode.backend.model.enums.RedCellAntigen;
+import lombok.Getter;
+import lombok.Setter;
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@Setter
+public class RareDonorMatch {
+    private Long donorId;
+    private String fullName;
+    private String phone;
+    private String email;
+    private String bloodGroup;
+    private Boolean isReadyToDonate;
+    private LocalDate lastDonationDate;
+    private List<RedCellAntigen> positive;
+    private List<RedCellAntigen> negative;
+}
@@ -0,0 +1,26 @@
+package com.hicode.backend.dto.admin;
+
+import com.hicode.backend.model.enums.RedCellAntigen;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Getter;
+import lombok.Setter;
+import java.util.Set;
+
+@Getter
+@Setter
+public class RareDonorSearchRequest {
+    // BloodType của người nhận; bỏ trống thì không lọc theo ABO/Rh
+    private Integer recipientBloodTypeId;
+
+    // Các kháng nguyên người hiến phải âm tính (đã xét nghiệm)
+    @NotEmpty
+    private Set<RedCellAntigen> antigenNegative;
+
+    private boolean includeNotReady;
+
+    @Min(1)
+    @Max(500)
+    private Integer limit;
+}
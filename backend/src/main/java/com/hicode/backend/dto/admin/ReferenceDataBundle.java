@@ -0,0 +1,12 @@
+package com.hicode.backend.dto.admin;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class ReferenceDataBundle {
+    private List<BloodTypeResponse> bloodTypes;
+    private List<CompatibilityRuleEntry> compatibilityRules;
+}
@@ -0,0 +1,14 @@
+package com.hicode.backend.dto.admin;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class ReferenceDataVersionResponse {
+    // Mã băm SHA-256 (hex) của nội dung gói
+    private String version;
+    private String url;
+    private int sizeBytes;
+    private int gzipSizeBytes;
+}
@@ -0,0 +1,15 @@
+package com.hicode.backend.dto.admin;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+import java.util.List;
+
+@Getter
+@Setter
+public class ScanBatchRequest {
+    @NotEmpty
+    @Size(max = 500)
+    private List<String> codes;
+}
@@ -0,0 +1,22 @@
+package com.hicode.backend.dto.admin;
+
+import com.hicode.backend.model.enums.InventoryStatus;
+import com.hicode.backend.model.enums.ScanMatchType;
+import lombok.Getter;
+import lombok.Setter;
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@Setter
+public class ScanResolutionResponse {
+    private String scannedCode;
+    private ScanMatchType matchType;
+    private String unitId;
+    // Các mã có thể khớp khi matchType = AMBIGUOUS
+    private List<String> candidates;
+    private Integer bloodTypeId;
+    private InventoryStatus status;
+    private LocalDate expiryDate;
+    private String storageLocation;
+}
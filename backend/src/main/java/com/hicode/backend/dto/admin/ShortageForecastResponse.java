@@ -0,0 +1,24 @@
+package com.hicode.backend.dto.admin;
+
+import com.hicode.backend.model.enums.BloodComponentType;
+import com.hicode.backend.model.enums.ShortageAlertLevel;
+import lombok.Getter;
+import lombok.Setter;
+import java.util.List;
+
+@Getter
+@Setter
+public class ShortageForecastResponse {
+    private Integer bloodTypeId;
+    private String bloodGroup;
+    private BloodComponentType componentType;
+    private int currentUnits;
+    private double expectedDailyInflow;
+    private double expectedDailyOutflow;
+    // null nếu tồn kho không cạn trong khoảng dự báo
+    private Double daysOfSupply;
+    private ShortageAlertLevel alertLevel;
+    private int observedDays;
+    // Tồn kho dự kiến cuối mỗi ngày tới
+    private List<Integer> projectedUnits;
+}
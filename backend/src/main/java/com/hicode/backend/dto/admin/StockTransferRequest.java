@@ -0,0 +1,19 @@
+package com.hicode.backend.dto.admin;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+import java.util.List;
+
+@Getter
+@Setter
+public class StockTransferRequest {
+    @NotBlank
+    private String toLocation;
+
+    @NotEmpty
+    @Size(max = 1000)
+    private List<String> unitIds;
+}
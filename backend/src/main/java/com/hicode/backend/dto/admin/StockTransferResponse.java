@@ -0,0 +1,15 @@
+package com.hicode.backend.dto.admin;
+
+import lombok.Getter;
+import lombok.Setter;
+import java.util.Map;
+
+@Getter
+@Setter
+public class StockTransferResponse {
+    private String toLocation;
+    private int transferredUnits;
+    // Đơn vị đã ở sẵn kho đích, không cần chuyển
+    private int alreadyAtLocation;
+    private Map<String, Integer> unitsBySourceLocation;
+}
@@ -0,0 +1,15 @@
+package com.hicode.backend.dto.admin;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class StorageLocationResponse {
+    private String code;
+    private String name;
+    private String description;
+    private boolean active;
+    private long availableUnits;
+    private long availableVolumeMl;
+}
@@ -0,0 +1,13 @@
+package com.hicode.backend.dto.admin;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class TemperatureIngestResponse {
+    private int accepted;
+    // Cảm biến không tồn tại hoặc đã ngừng hoạt động
+    private int rejected;
+    private int excursionsRaised;
+}
@@ -0,0 +1,24 @@
+package com.hicode.backend.dto.admin;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TemperatureReading {
+    @NotBlank
+    private String sensorId;
+
+    // Thời điểm đo theo đồng hồ của gateway; để trống thì lấy thời điểm nhận
+    private LocalDateTime recordedAt;
+
+    @NotNull
+    private Double celsius;
+}
@@ -0,0 +1,16 @@
+package com.hicode.backend.dto.admin;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+import java.util.List;
+
+@Getter
+@Setter
+public class TemperatureReadingBatchRequest {
+    @NotEmpty
+    @Size(max = 5000)
+    private List<@Valid TemperatureReading> readings;
+}
@@ -0,0 +1,18 @@
+package com.hicode.backend.dto.admin;
+
+import lombok.Getter;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+public class TemperatureSensorResponse {
+    private String id;
+    private String storageLocation;
+    private double minCelsius;
+    private double maxCelsius;
+    private boolean active;
+    private Double lastCelsius;
+    private LocalDateTime lastRecordedAt;
+    private boolean inExcursion;
+}
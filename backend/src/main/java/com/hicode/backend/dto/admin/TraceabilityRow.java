@@ -0,0 +1,34 @@
+package com.hicode.backend.dto.admin;
+
+import com.hicode.backend.model.enums.BloodComponentType;
+import com.hicode.backend.model.enums.InventoryStatus;
+import com.hicode.backend.model.enums.RequestStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.time.LocalDate;
+
+/**
+ * Một đơn vị máu trong chuỗi truy vết: người hiến, lần hiến, túi gốc (nếu là chế phẩm) và yêu cầu nhận máu.
+ */
+@Getter
+@AllArgsConstructor
+public class TraceabilityRow {
+    private String unitId;
+    // Null với túi máu toàn phần
+    private String parentUnitId;
+    private Long processId;
+    private Long donorId;
+    private String donorName;
+    private String bloodGroup;
+    private BloodComponentType componentType;
+    private Integer volumeMl;
+    private LocalDate collectionDate;
+    private LocalDate expiryDate;
+    private InventoryStatus status;
+    private String storageLocation;
+    // Null nếu đơn vị chưa được giữ/cấp cho yêu cầu nào
+    private Long requestId;
+    private String hospital;
+    private String patientName;
+    private RequestStatus requestStatus;
+}
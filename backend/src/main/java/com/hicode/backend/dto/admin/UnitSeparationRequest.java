@@ -0,0 +1,19 @@
+package com.hicode.backend.dto.admin;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+import java.util.List;
+
+@Getter
+@Setter
+public class UnitSeparationRequest {
+    @NotBlank
+    private String parentUnitId;
+    @NotEmpty
+    @Size(max = 4)
+    private List<@Valid ComponentOutputRequest> components;
+}
@@ -0,0 +1,21 @@
+package com.hicode.backend.dto.admin;
+
+import com.hicode.backend.model.enums.InventoryStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+import java.util.List;
+
+@Getter
+@Setter
+public class UnitStatusUpdateRequest {
+    @NotEmpty
+    @Size(max = 1000)
+    private List<String> unitIds;
+
+    // USED hoặc DISPOSED
+    @NotNull
+    private InventoryStatus status;
+}
@@ -0,0 +1,14 @@
+package com.hicode.backend.dto.admin;
+
+import com.hicode.backend.model.enums.InventoryStatus;
+import lombok.Getter;
+import lombok.Setter;
+import java.util.List;
+
+@Getter
+@Setter
+public class UnitStatusUpdateResponse {
+    private InventoryStatus status;
+    private int updatedUnits;
+    private List<String> unitIds;
+}
@@ -0,0 +1,21 @@
+package com.hicode.backend.dto.admin;
+
+import com.hicode.backend.model.enums.BloodComponentType;
+import com.hicode.backend.model.enums.InventoryStatus;
+import lombok.Getter;
+import lombok.Setter;
+import java.time.YearMonth;
+
+@Getter
+@Setter
+public class WastageReportRow {
+    private YearMonth month;
+    private Integer bloodTypeId;
+    private String bloodGroup;
+    private BloodComponentType componentType;
+    private String storageLocation;
+    private InventoryStatus outcome;
+    private int units;
+    private long volumeMl;
+    private double avgDaysBeforeExpiry;
+}
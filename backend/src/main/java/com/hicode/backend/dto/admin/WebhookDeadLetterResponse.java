@@ -0,0 +1,19 @@
+package com.hicode.backend.dto.admin;
+
+import lombok.Getter;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+public class WebhookDeadLetterResponse {
+    private Long id;
+    private Long endpointId;
+    private String hospital;
+    private Long originalDeliveryId;
+    private String eventType;
+    private String payload;
+    private Integer attempts;
+    private String lastError;
+    private LocalDateTime failedAt;
+}
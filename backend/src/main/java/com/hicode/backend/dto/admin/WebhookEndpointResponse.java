@@ -0,0 +1,18 @@
+package com.hicode.backend.dto.admin;
+
+import lombok.Getter;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+public class WebhookEndpointResponse {
+    private Long id;
+    private String hospital;
+    private String url;
+    // Chỉ có giá trị trong phản hồi khi tạo mới
+    private String secret;
+    private Integer maxConcurrency;
+    private Boolean active;
+    private LocalDateTime createdAt;
+}
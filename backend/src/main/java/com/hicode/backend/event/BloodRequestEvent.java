@@ -0,0 +1,37 @@
+package com.hicode.backend.event;
+
+import com.hicode.backend.model.enums.BloodComponentType;
+import com.hicode.backend.model.enums.RequestStatus;
+import com.hicode.backend.model.enums.UrgencyLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.time.LocalDateTime;
+
+/**
+ * Ảnh chụp (snapshot) bất biến của một BloodRequest tại thời điểm thay đổi.
+ * Được phát trong transaction; các listener in-memory nên nghe ở pha AFTER_COMMIT.
+ */
+@Getter
+@AllArgsConstructor
+public class BloodRequestEvent {
+
+    public enum Type {
+        CREATED,
+        PLEDGED,
+        STATUS_CHANGED
+    }
+
+    private final Type type;
+    private final Long requestId;
+    private final String patientName;
+    private final String hospital;
+    private final Integer bloodTypeId;
+    private final String bloodGroup;
+    private final BloodComponentType componentType;
+    private final int quantityInUnits;
+    private final int pledgeCount;
+    private final UrgencyLevel urgency;
+    private final RequestStatus status;
+    private final RequestStatus previousStatus;
+    private final LocalDateTime createdAt;
+}
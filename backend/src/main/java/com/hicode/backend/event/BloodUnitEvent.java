@@ -0,0 +1,40 @@
+package com.hicode.backend.event;
+
+import com.hicode.backend.dto.admin.BloodUnitSnapshot;
+import com.hicode.backend.model.enums.InventoryStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Một đơn vị máu được nhập kho (previousStatus = null), đổi trạng thái hoặc chuyển kho
+ * (previousStorageLocation khác storageLocation).
+ * Được phát trong transaction; các cấu trúc in-memory nghe ở pha AFTER_COMMIT.
+ */
+@Getter
+@AllArgsConstructor
+public class BloodUnitEvent {
+    private final String unitId;
+    private final Integer bloodTypeId;
+    private final Integer volumeMl;
+    private final LocalDate expiryDate;
+    private final String storageLocation;
+    private final String previousStorageLocation;
+    private final InventoryStatus previousStatus;
+    private final InventoryStatus status;
+
+    public static BloodUnitEvent transition(BloodUnitSnapshot unit, InventoryStatus previousStatus, InventoryStatus status) {
+        return new BloodUnitEvent(unit.getId(), unit.getBloodTypeId(), unit.getVolumeMl(), unit.getExpiryDate(),
+                unit.getStorageLocation(), unit.getStorageLocation(), previousStatus, status);
+    }
+
+    public static BloodUnitEvent transfer(BloodUnitSnapshot unit, String toLocation) {
+        return new BloodUnitEvent(unit.getId(), unit.getBloodTypeId(), unit.getVolumeMl(), unit.getExpiryDate(),
+                toLocation, unit.getStorageLocation(), unit.getStatus(), unit.getStatus());
+    }
+
+    public boolean isTransfer() {
+        return previousStatus != null && !Objects.equals(previousStorageLocation, storageLocation);
+    }
+}
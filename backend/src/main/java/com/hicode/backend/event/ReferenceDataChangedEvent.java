@@ -0,0 +1,20 @@
+package com.hicode.backend.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Dữ liệu tham chiếu (nhóm máu, quy tắc tương thích) vừa thay đổi.
+ * Được phát trong transaction; các bản sao in-memory nên nạp lại ở pha AFTER_COMMIT.
+ */
+@Getter
+@AllArgsConstructor
+public class ReferenceDataChangedEvent {
+
+    public enum Type {
+        BLOOD_TYPES,
+        COMPATIBILITY_RULES
+    }
+
+    private final Type type;
+}
@@ -12,7 +12,13 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "blood_requests")
+@Table(name = "blood_requests", indexes = {
+        @Index(name = "IX_blood_requests_created", columnList = "created_at, id"),
+        @Index(name = "IX_blood_requests_status_created", columnList = "status, created_at, id"),
+        @Index(name = "IX_blood_requests_hospital_created", columnList = "hospital, status, created_at"),
+        @Index(name = "IX_blood_requests_type_created", columnList = "blood_type_id, status, created_at"),
+        @Index(name = "IX_blood_requests_urgency_created", columnList = "urgency, status, created_at")
+})
 @Getter
 @Setter
 @NoArgsConstructor
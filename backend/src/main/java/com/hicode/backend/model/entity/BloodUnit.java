@@ -5,10 +5,20 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import com.hicode.backend.model.enums.InventoryStatus;
 
 @Entity
-@Table(name = "blood_units")
+@Table(name = "blood_units", indexes = {
+        @Index(name = "IX_blood_units_status_type_expiry", columnList = "status, blood_type_id, expiry_date"),
+        @Index(name = "IX_blood_units_status_expiry", columnList = "status, expiry_date"),
+        @Index(name = "IX_blood_units_location_status_expiry", columnList = "storage_location, status, expiry_date"),
+        @Index(name = "IX_blood_units_status_reserved_until", columnList = "status, reserved_until"),
+        // Truy vết lookback: người hiến -> lần hiến -> đơn vị -> chế phẩm con -> yêu cầu nhận máu
+        @Index(name = "IX_blood_units_process", columnList = "process_id"),
+        @Index(name = "IX_blood_units_parent", columnList = "parent_unit_id"),
+        @Index(name = "IX_blood_units_allocated_request", columnList = "allocated_request_id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -18,10 +28,16 @@ public class BloodUnit {
     @Column(length = 50)
     private String id;
 
-    @OneToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "process_id", nullable = false, unique = true)
+    // Một lần hiến có thể tạo nhiều đơn vị: túi máu toàn phần và các chế phẩm tách từ nó
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "process_id", nullable = false)
     private DonationProcess donationProcess;
 
+    // Túi máu toàn phần mà chế phẩm này được tách ra (null với đơn vị gốc)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "parent_unit_id")
+    private BloodUnit parentUnit;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "blood_type_id", nullable = false)
     private BloodType bloodType;
@@ -39,6 +55,23 @@ public class BloodUnit {
     @Column(length = 20, nullable = false)
     private InventoryStatus status;
 
+    // Mã của StorageLocation đang chứa đơn vị
     @Column(columnDefinition = "NVARCHAR(255)")
     private String storageLocation;
-}
\ No newline at end of file
+
+    // Yêu cầu máu mà đơn vị này đang được giữ (RESERVED) hoặc đã cấp phát cho
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "allocated_request_id")
+    private BloodRequest allocatedRequest;
+
+    // Hạn giữ chỗ: quá thời điểm này đơn vị RESERVED được trả về kho. Null nghĩa là giữ không thời hạn
+    private LocalDateTime reservedUntil;
+
+    // Bên đang giữ đơn vị (bệnh viện của yêu cầu)
+    @Column(columnDefinition = "NVARCHAR(255)")
+    private String reservationOwner;
+
+    // Lý do đưa vào QUARANTINED
+    @Column(columnDefinition = "NVARCHAR(500)")
+    private String quarantineReason;
+}
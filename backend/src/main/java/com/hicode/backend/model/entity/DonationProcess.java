@@ -10,7 +10,9 @@ import lombok.Setter;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "donation_processes")
+@Table(name = "donation_processes", indexes = {
+        @Index(name = "IX_donation_processes_donor", columnList = "donor_id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
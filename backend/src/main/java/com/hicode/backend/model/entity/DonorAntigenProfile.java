@@ -0,0 +1,37 @@
+package com.hicode.backend.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+/**
+ * Kiểu hình kháng nguyên hồng cầu mở rộng của một người hiến, lưu gọn dưới dạng bitmask theo RedCellAntigen.
+ * Một kháng nguyên chỉ được coi là âm tính khi đã xét nghiệm (bit trong testedMask) và không có trong positiveMask.
+ */
+@Entity
+@Table(name = "donor_antigen_profiles")
+@Getter
+@Setter
+@NoArgsConstructor
+public class DonorAntigenProfile {
+
+    @Id
+    @Column(name = "donor_id")
+    private Long donorId;
+
+    @Column(nullable = false)
+    private Long testedMask;
+
+    @Column(nullable = false)
+    private Long positiveMask;
+
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
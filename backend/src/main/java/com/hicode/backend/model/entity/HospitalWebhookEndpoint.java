@@ -0,0 +1,54 @@
+package com.hicode.backend.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "hospital_webhook_endpoints", indexes = {
+        @Index(name = "IX_webhook_endpoints_hospital", columnList = "hospital, active")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class HospitalWebhookEndpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Phải trùng với BloodRequest.hospital để nhận sự kiện của bệnh viện đó
+    @Column(nullable = false, columnDefinition = "NVARCHAR(255)")
+    private String hospital;
+
+    @Column(length = 500, nullable = false)
+    private String url;
+
+    // Khóa bí mật dùng để ký HMAC-SHA256 payload
+    @Column(length = 255, nullable = false)
+    private String secret;
+
+    @Column(nullable = false)
+    private Integer maxConcurrency;
+
+    @Column(nullable = false)
+    private Boolean active;
+
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = this.updatedAt = LocalDateTime.now();
+        if (this.active == null) this.active = true;
+        if (this.maxConcurrency == null) this.maxConcurrency = 2;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,58 @@
+package com.hicode.backend.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Trạng thái của mô hình làm trơn mũ (level + hệ số mùa theo thứ trong tuần) cho một BloodType,
+ * lưu lại để không phải quét lịch sử khi khởi động.
+ */
+@Entity
+@Table(name = "inventory_forecast_state")
+@Getter
+@Setter
+@NoArgsConstructor
+public class InventoryForecastState {
+
+    @Id
+    @Column(name = "blood_type_id")
+    private Integer bloodTypeId;
+
+    @Column(nullable = false)
+    private Double inflowLevel;
+
+    // 7 hệ số mùa, thứ Hai -> Chủ Nhật, phân tách bằng dấu phẩy
+    @Column(length = 200, nullable = false)
+    private String inflowSeasonal;
+
+    @Column(nullable = false)
+    private Double outflowLevel;
+
+    @Column(length = 200, nullable = false)
+    private String outflowSeasonal;
+
+    @Column(nullable = false)
+    private Integer observedDays;
+
+    // Ngày đang được đếm và số đơn vị vào/ra tính đến lúc lưu
+    @Column(nullable = false)
+    private LocalDate currentDate;
+
+    @Column(nullable = false)
+    private Integer currentInflow;
+
+    @Column(nullable = false)
+    private Integer currentOutflow;
+
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,51 @@
+package com.hicode.backend.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "inventory_snapshots", uniqueConstraints = {
+        @UniqueConstraint(name = "UQ_inventory_snapshot_date_type", columnNames = {"snapshot_date", "blood_type_id"})
+}, indexes = {
+        @Index(name = "IX_inventory_snapshots_type_date", columnList = "blood_type_id, snapshot_date")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class InventorySnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "snapshot_date", nullable = false)
+    private LocalDate snapshotDate;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "blood_type_id", nullable = false)
+    private BloodType bloodType;
+
+    @Column(nullable = false)
+    private Integer availableUnits;
+
+    @Column(nullable = false)
+    private Long availableVolumeMl;
+
+    @Column(nullable = false)
+    private Integer expiringSoonUnits;
+
+    @Column(nullable = false)
+    private Integer reservedUnits;
+
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,47 @@
+package com.hicode.backend.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+/**
+ * Một điểm lưu trữ máu (kho chính, tủ lạnh vệ tinh...). Mã kho chính là giá trị lưu trong
+ * blood_units.storage_location, nên các đơn vị cũ ("Main Storage") không cần chuyển đổi dữ liệu.
+ */
+@Entity
+@Table(name = "storage_locations")
+@Getter
+@Setter
+@NoArgsConstructor
+public class StorageLocation {
+
+    @Id
+    @Column(length = 100)
+    private String code;
+
+    @Column(columnDefinition = "NVARCHAR(255)", nullable = false)
+    private String name;
+
+    @Column(columnDefinition = "NVARCHAR(500)")
+    private String description;
+
+    @Column(nullable = false)
+    private Boolean active;
+
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = this.updatedAt = LocalDateTime.now();
+        if (this.active == null) this.active = true;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,46 @@
+package com.hicode.backend.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+/**
+ * Nhiệt độ đã gộp theo phút của một cảm biến (min/max/trung bình), thay cho việc lưu từng lần đọc.
+ */
+@Entity
+@Table(name = "temperature_samples", indexes = {
+        @Index(name = "IX_temperature_samples_sensor_bucket", columnList = "sensor_id, bucket_start")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class TemperatureSample {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "sensor_id", length = 100, nullable = false)
+    private String sensorId;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(nullable = false)
+    private Double minCelsius;
+
+    @Column(nullable = false)
+    private Double maxCelsius;
+
+    @Column(nullable = false)
+    private Double avgCelsius;
+
+    @Column(nullable = false)
+    private Integer readingCount;
+
+    // Có ít nhất một lần đọc ngoài ngưỡng trong phút này
+    @Column(nullable = false)
+    private Boolean excursion;
+}
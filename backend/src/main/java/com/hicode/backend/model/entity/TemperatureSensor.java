@@ -0,0 +1,44 @@
+package com.hicode.backend.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+/**
+ * Cảm biến nhiệt độ gắn với một kho lưu trữ, kèm ngưỡng nhiệt cho phép.
+ */
+@Entity
+@Table(name = "temperature_sensors")
+@Getter
+@Setter
+@NoArgsConstructor
+public class TemperatureSensor {
+
+    @Id
+    @Column(length = 100)
+    private String id;
+
+    // Mã của StorageLocation
+    @Column(name = "storage_location", columnDefinition = "NVARCHAR(255)", nullable = false)
+    private String storageLocation;
+
+    @Column(nullable = false)
+    private Double minCelsius;
+
+    @Column(nullable = false)
+    private Double maxCelsius;
+
+    @Column(nullable = false)
+    private Boolean active;
+
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+        if (this.active == null) this.active = true;
+    }
+}
@@ -11,7 +11,10 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        // Lọc sơ bộ theo hình chữ nhật bao khi tìm người hiến theo bán kính
+        @Index(name = "IX_users_ready_lat_lon", columnList = "is_ready_to_donate, latitude, longitude")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,55 @@
+package com.hicode.backend.model.entity;
+
+import com.hicode.backend.model.enums.InventoryStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Số đơn vị rời kho theo tháng, BloodType, kho và kết cục (USED/EXPIRED/DISPOSED).
+ * Được cộng dồn trong cùng transaction với việc đổi trạng thái, nên báo cáo hao hụt không cần quét blood_units.
+ */
+@Entity
+@Table(name = "wastage_rollups", uniqueConstraints = {
+        @UniqueConstraint(name = "UQ_wastage_rollup_key",
+                columnNames = {"period_month", "blood_type_id", "storage_location", "outcome"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class WastageRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Ngày đầu tháng
+    @Column(name = "period_month", nullable = false)
+    private LocalDate periodMonth;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "blood_type_id", nullable = false)
+    private BloodType bloodType;
+
+    @Column(name = "storage_location", columnDefinition = "NVARCHAR(255)", nullable = false)
+    private String storageLocation;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20, nullable = false)
+    private InventoryStatus outcome;
+
+    @Column(nullable = false)
+    private Integer units;
+
+    @Column(nullable = false)
+    private Long volumeMl;
+
+    // Tổng số ngày còn lại tới hạn dùng tại thời điểm rời kho, để tính trung bình
+    @Column(nullable = false)
+    private Long daysBeforeExpirySum;
+
+    private LocalDateTime updatedAt;
+}
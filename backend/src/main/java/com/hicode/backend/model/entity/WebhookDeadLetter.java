@@ -0,0 +1,45 @@
+package com.hicode.backend.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "webhook_dead_letters")
+@Getter
+@Setter
+@NoArgsConstructor
+public class WebhookDeadLetter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "endpoint_id", nullable = false)
+    private HospitalWebhookEndpoint endpoint;
+
+    private Long originalDeliveryId;
+
+    @Column(length = 50, nullable = false)
+    private String eventType;
+
+    @Column(nullable = false, columnDefinition = "NVARCHAR(MAX)")
+    private String payload;
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    @Column(columnDefinition = "NVARCHAR(1000)")
+    private String lastError;
+
+    @Column(updatable = false)
+    private LocalDateTime failedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.failedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,60 @@
+package com.hicode.backend.model.entity;
+
+import com.hicode.backend.model.enums.WebhookDeliveryStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "webhook_deliveries", indexes = {
+        @Index(name = "IX_webhook_deliveries_status_next", columnList = "status, next_attempt_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class WebhookDelivery {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "endpoint_id", nullable = false)
+    private HospitalWebhookEndpoint endpoint;
+
+    @Column(length = 50, nullable = false)
+    private String eventType;
+
+    @Column(nullable = false, columnDefinition = "NVARCHAR(MAX)")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20, nullable = false)
+    private WebhookDeliveryStatus status;
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    // Thời điểm worker nhận delivery, dùng để thu hồi các delivery IN_FLIGHT bị treo khi node chết
+    private LocalDateTime claimedAt;
+
+    @Column(columnDefinition = "NVARCHAR(1000)")
+    private String lastError;
+
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+    private LocalDateTime deliveredAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+        if (this.status == null) this.status = WebhookDeliveryStatus.PENDING;
+        if (this.attempts == null) this.attempts = 0;
+        if (this.nextAttemptAt == null) this.nextAttemptAt = this.createdAt;
+    }
+}
@@ -0,0 +1,6 @@
+package com.hicode.backend.model.enums;
+
+public enum ExportFormat {
+    CSV,
+    NDJSON
+}
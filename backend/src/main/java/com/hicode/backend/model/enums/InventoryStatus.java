@@ -5,5 +5,9 @@ public enum InventoryStatus {
     RESERVED,
     USED,
     EXPIRED,
-    DISPOSED
+    DISPOSED,
+    // Đơn vị máu toàn phần đã được tách thành các chế phẩm
+    PROCESSED,
+    // Tạm ngừng sử dụng chờ kiểm tra (sự cố nhiệt độ, người hiến có kết quả dương tính sau này...)
+    QUARANTINED
 }
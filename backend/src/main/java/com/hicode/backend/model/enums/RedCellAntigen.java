@@ -0,0 +1,67 @@
+package com.hicode.backend.model.enums;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * Kháng nguyên hồng cầu mở rộng (ngoài ABO/Rh D) dùng cho người nhận đã có kháng thể bất thường.
+ * Thứ tự khai báo là vị trí bit trong DonorAntigenProfile: chỉ được thêm vào cuối, không đổi thứ tự.
+ */
+@Getter
+public enum RedCellAntigen {
+    RH_C("C"),
+    RH_SMALL_C("c"),
+    RH_E("E"),
+    RH_SMALL_E("e"),
+    KELL_K("K"),
+    KELL_SMALL_K("k"),
+    DUFFY_A("Fya"),
+    DUFFY_B("Fyb"),
+    KIDD_A("Jka"),
+    KIDD_B("Jkb"),
+    MNS_M("M"),
+    MNS_N("N"),
+    MNS_S("S"),
+    MNS_SMALL_S("s"),
+    LEWIS_A("Lea"),
+    LEWIS_B("Leb"),
+    P1("P1"),
+    LUTHERAN_A("Lua"),
+    LUTHERAN_B("Lub");
+
+    private final String symbol;
+
+    RedCellAntigen(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public long bit() {
+        return 1L << ordinal();
+    }
+
+    public static long mask(Iterable<RedCellAntigen> antigens) {
+        long mask = 0;
+        for (RedCellAntigen antigen : antigens) {
+            mask |= antigen.bit();
+        }
+        return mask;
+    }
+
+    @JsonValue
+    public String toJsonValue() {
+        return symbol;
+    }
+
+    // Ký hiệu phân biệt hoa/thường (K khác k), chấp nhận cả tên hằng số
+    @JsonCreator
+    public static RedCellAntigen forValue(String value) {
+        String trimmed = value == null ? "" : value.trim();
+        return Arrays.stream(values())
+                .filter(antigen -> antigen.symbol.equals(trimmed) || antigen.name().equalsIgnoreCase(trimmed))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown red cell antigen: '" + value + "'"));
+    }
+}
@@ -0,0 +1,13 @@
+package com.hicode.backend.model.enums;
+
+public enum ScanMatchType {
+    EXACT,
+    // Mã quét có thêm tiền tố (mã nhận dạng của máy quét, ký tự định danh ISBT...) trước mã đơn vị
+    PREFIXED,
+    // Mã quét chỉ là phần đầu của mã đơn vị
+    PARTIAL_PREFIX,
+    // Mã quét chỉ là phần cuối của mã đơn vị
+    PARTIAL_SUFFIX,
+    AMBIGUOUS,
+    NOT_FOUND
+}
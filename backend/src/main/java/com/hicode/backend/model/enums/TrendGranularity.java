@@ -0,0 +1,7 @@
+package com.hicode.backend.model.enums;
+
+public enum TrendGranularity {
+    DAY,
+    WEEK,
+    MONTH
+}
@@ -0,0 +1,7 @@
+package com.hicode.backend.model.enums;
+
+public enum WebhookDeliveryStatus {
+    PENDING,     // Đang chờ gửi (lần đầu hoặc chờ retry)
+    IN_FLIGHT,   // Đã được một worker nhận và đang gửi
+    DELIVERED    // Bệnh viện đã phản hồi 2xx
+}
@@ -11,7 +11,7 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface BloodRequestRepository extends JpaRepository<BloodRequest, Long> {
+public interface BloodRequestRepository extends JpaRepository<BloodRequest, Long>, BloodRequestSearchRepository {
 
     // Lấy tất cả yêu cầu với các thông tin liên quan (fetch join)
     @Query("SELECT br FROM BloodRequest br JOIN FETCH br.bloodType JOIN FETCH br.createdBy")
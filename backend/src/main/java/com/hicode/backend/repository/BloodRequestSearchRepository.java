@@ -0,0 +1,16 @@
+package com.hicode.backend.repository;
+
+import com.hicode.backend.dto.admin.BloodRequestSearchCriteria;
+import com.hicode.backend.model.entity.BloodRequest;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BloodRequestSearchRepository {
+
+    /**
+     * Tìm kiếm theo keyset (createdAt DESC, id DESC), không chạy COUNT(*).
+     * afterCreatedAt/afterId là khóa của phần tử cuối trang trước (null cho trang đầu).
+     */
+    List<BloodRequest> searchKeyset(BloodRequestSearchCriteria criteria,
+                                    LocalDateTime afterCreatedAt, Long afterId, int limit);
+}
@@ -0,0 +1,64 @@
+package com.hicode.backend.repository;
+
+import com.hicode.backend.dto.admin.BloodRequestSearchCriteria;
+import com.hicode.backend.model.entity.BloodRequest;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BloodRequestSearchRepositoryImpl implements BloodRequestSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BloodRequest> searchKeyset(BloodRequestSearchCriteria criteria,
+                                           LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BloodRequest> query = cb.createQuery(BloodRequest.class);
+        Root<BloodRequest> root = query.from(BloodRequest.class);
+        root.fetch("bloodType");
+        root.fetch("createdBy");
+
+        // Chỉ thêm các điều kiện thực sự được truyền vào, để SQL Server chọn đúng composite index
+        List<Predicate> predicates = new ArrayList<>();
+        if (criteria.getHospital() != null && !criteria.getHospital().isBlank()) {
+            predicates.add(cb.equal(root.get("hospital"), criteria.getHospital().trim()));
+        }
+        if (criteria.getBloodTypeId() != null) {
+            predicates.add(cb.equal(root.get("bloodType").get("id"), criteria.getBloodTypeId()));
+        }
+        if (criteria.getUrgency() != null) {
+            predicates.add(cb.equal(root.get("urgency"), criteria.getUrgency()));
+        }
+        if (criteria.getStatus() != null) {
+            predicates.add(cb.equal(root.get("status"), criteria.getStatus()));
+        }
+        if (criteria.getCreatedFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.<LocalDateTime>get("createdAt"), criteria.getCreatedFrom()));
+        }
+        if (criteria.getCreatedTo() != null) {
+            predicates.add(cb.lessThan(root.<LocalDateTime>get("createdAt"), criteria.getCreatedTo()));
+        }
+        if (afterCreatedAt != null && afterId != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(root.<LocalDateTime>get("createdAt"), afterCreatedAt),
+                    cb.and(cb.equal(root.get("createdAt"), afterCreatedAt), cb.lessThan(root.<Long>get("id"), afterId))));
+        }
+
+        query.select(root)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(root.get("createdAt")), cb.desc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -1,7 +1,9 @@
 package com.hicode.backend.repository;
 
+import com.hicode.backend.dto.admin.CompatibilityRuleEntry;
 import com.hicode.backend.model.entity.BloodTypeCompatibility;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
@@ -12,4 +14,16 @@ public interface BloodTypeCompatibilityRepository extends JpaRepository<BloodTyp
             Integer donorBloodTypeId, Integer recipientBloodTypeId
     );
     List<BloodTypeCompatibility> findByDonorBloodTypeIdOrRecipientBloodTypeId(Integer donorId, Integer recipientId);
-}
\ No newline at end of file
+
+    // [id người cho, id người nhận] của mọi quy tắc tương thích, dùng để dựng ma trận in-memory
+    @Query("SELECT c.donorBloodType.id, c.recipientBloodType.id FROM BloodTypeCompatibility c WHERE c.isCompatible = true")
+    List<Object[]> findCompatibleTypePairs();
+
+    // [id người cho, id người nhận] của mọi quy tắc, kể cả quy tắc không tương thích
+    @Query("SELECT c.donorBloodType.id, c.recipientBloodType.id FROM BloodTypeCompatibility c")
+    List<Object[]> findAllTypePairs();
+
+    @Query("SELECT new com.hicode.backend.dto.admin.CompatibilityRuleEntry(c.id, c.donorBloodType.id, c.recipientBloodType.id, " +
+            "c.isCompatible, c.notes) FROM BloodTypeCompatibility c ORDER BY c.id ASC")
+    List<CompatibilityRuleEntry> findAllRuleEntries();
+}
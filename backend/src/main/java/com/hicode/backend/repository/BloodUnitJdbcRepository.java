@@ -0,0 +1,60 @@
+package com.hicode.backend.repository;
+
+import com.hicode.backend.model.entity.BloodUnit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Ghi blood_units bằng JDBC: batch cho các thao tác hàng loạt, tránh một câu INSERT và một lần flush
+ * của Hibernate cho mỗi đơn vị; INSERT đơn lẻ cho nhập kho, tránh SELECT của merge với id tự gán.
+ * Các entity truyền vào không được quản lý bởi persistence context.
+ */
+@Repository
+public class BloodUnitJdbcRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO blood_units " +
+            "(id, process_id, blood_type_id, volume_ml, collection_date, expiry_date, status, storage_location, parent_unit_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${inventory.jdbc.batch-size:500}")
+    private int batchSize;
+
+    public void batchInsert(List<BloodUnit> units) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, units, batchSize, BloodUnitJdbcRepository::bind);
+    }
+
+    /**
+     * INSERT một đơn vị trong một round-trip, dựa vào khóa chính để chống trùng mã.
+     * Mã đã tồn tại sẽ ném DuplicateKeyException ngay tại câu lệnh, không đợi tới lúc flush/commit.
+     */
+    public void insert(BloodUnit unit) {
+        jdbcTemplate.update(INSERT_SQL, statement -> bind(statement, unit));
+    }
+
+    private static void bind(PreparedStatement statement, BloodUnit unit) throws SQLException {
+        statement.setString(1, unit.getId());
+        statement.setLong(2, unit.getDonationProcess().getId());
+        statement.setInt(3, unit.getBloodType().getId());
+        statement.setInt(4, unit.getVolumeMl());
+        statement.setDate(5, Date.valueOf(unit.getCollectionDate()));
+        statement.setDate(6, Date.valueOf(unit.getExpiryDate()));
+        statement.setString(7, unit.getStatus().name());
+        statement.setString(8, unit.getStorageLocation());
+        if (unit.getParentUnit() != null) {
+            statement.setString(9, unit.getParentUnit().getId());
+        } else {
+            statement.setNull(9, Types.VARCHAR);
+        }
+    }
+}
@@ -1,28 +1,239 @@
 package com.hicode.backend.repository;
 
-import com.hicode.backend.dto.admin.InventorySummary;
+import com.hicode.backend.dto.admin.BloodUnitSnapshot;
+import com.hicode.backend.dto.admin.TraceabilityRow;
+import com.hicode.backend.model.entity.BloodRequest;
 import com.hicode.backend.model.entity.BloodUnit;
+import com.hicode.backend.model.enums.InventoryStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface BloodUnitRepository extends JpaRepository<BloodUnit, String> {
+public interface BloodUnitRepository extends JpaRepository<BloodUnit, String>, BloodUnitSearchRepository {
     /**
-     * Thống kê số lượng đơn vị và tổng thể tích cho mỗi nhóm máu đang có sẵn.
-     * Sử dụng constructor của DTO để tạo đối tượng kết quả trực tiếp.
+     * Tổng theo kho và nhóm máu của các đơn vị AVAILABLE: mỗi phần tử là [storageLocation, bloodTypeId, số đơn vị, tổng thể tích].
+     * Không lọc theo hạn dùng, để khớp với bộ đếm theo event của InventorySummaryService: đơn vị quá hạn chỉ rời
+     * khỏi tổng khi job hết hạn đổi AVAILABLE -> EXPIRED.
      */
-    @Query("SELECT new com.hicode.backend.dto.admin.InventorySummary(bu.bloodType, COUNT(bu.id), SUM(bu.volumeMl)) " +
+    @Query("SELECT bu.storageLocation, bu.bloodType.id, COUNT(bu.id), SUM(bu.volumeMl) FROM BloodUnit bu " +
+            "WHERE bu.status = com.hicode.backend.model.enums.InventoryStatus.AVAILABLE " +
+            "GROUP BY bu.storageLocation, bu.bloodType.id")
+    List<Object[]> sumAvailableByLocationAndBloodTypeId();
+
+    /**
+     * Số liệu cho snapshot tồn kho trong một lần quét index (status, blood_type_id, expiry_date).
+     * Mỗi phần tử là [bloodTypeId, số AVAILABLE, thể tích AVAILABLE, số AVAILABLE hết hạn trước :soon, số RESERVED].
+     * Đơn vị AVAILABLE đã quá hạn nhưng chưa được job hết hạn quét qua không được tính là tồn kho.
+     */
+    @Query("SELECT bu.bloodType.id, " +
+            "SUM(CASE WHEN bu.status = com.hicode.backend.model.enums.InventoryStatus.AVAILABLE AND bu.expiryDate >= :today THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN bu.status = com.hicode.backend.model.enums.InventoryStatus.AVAILABLE AND bu.expiryDate >= :today THEN bu.volumeMl ELSE 0 END), " +
+            "SUM(CASE WHEN bu.status = com.hicode.backend.model.enums.InventoryStatus.AVAILABLE AND bu.expiryDate >= :today AND bu.expiryDate < :soon THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN bu.status = com.hicode.backend.model.enums.InventoryStatus.RESERVED THEN 1 ELSE 0 END) " +
             "FROM BloodUnit bu " +
+            "WHERE bu.status IN (com.hicode.backend.model.enums.InventoryStatus.AVAILABLE, com.hicode.backend.model.enums.InventoryStatus.RESERVED) " +
+            "GROUP BY bu.bloodType.id")
+    List<Object[]> aggregateStockByBloodTypeId(@Param("today") LocalDate today, @Param("soon") LocalDate soon);
+
+    @Query("SELECT bu.id FROM BloodUnit bu")
+    List<String> findAllIds();
+
+    @Query("SELECT bu.id FROM BloodUnit bu WHERE bu.id IN :ids")
+    List<String> findExistingIds(@Param("ids") Collection<String> ids);
+
+    /**
+     * Thông tin các túi máu nguồn cho việc tách chế phẩm. Mỗi phần tử là
+     * [id, bloodTypeId, bloodGroup, componentType, volumeMl, collectionDate, expiryDate, status, storageLocation, processId].
+     */
+    @Query("SELECT bu.id, bt.id, bt.bloodGroup, bt.componentType, bu.volumeMl, bu.collectionDate, bu.expiryDate, " +
+            "bu.status, bu.storageLocation, bu.donationProcess.id FROM BloodUnit bu JOIN bu.bloodType bt WHERE bu.id IN :ids")
+    List<Object[]> findSeparationSources(@Param("ids") Collection<String> ids);
+
+    /**
+     * Các đơn vị AVAILABLE còn hạn thuộc các nhóm máu cho trước, hết hạn sớm nhất trước (FEFO).
+     */
+    @Query("SELECT bu.id FROM BloodUnit bu " +
             "WHERE bu.status = com.hicode.backend.model.enums.InventoryStatus.AVAILABLE " +
-            "GROUP BY bu.bloodType")
-    List<InventorySummary> getInventorySummary();
+            "AND bu.bloodType.id IN :bloodTypeIds AND bu.expiryDate >= :today " +
+            "ORDER BY bu.expiryDate ASC, bu.id ASC")
+    List<String> findFefoCandidateIds(@Param("bloodTypeIds") Collection<Integer> bloodTypeIds,
+                                      @Param("today") LocalDate today,
+                                      Pageable pageable);
+
+    /**
+     * Giữ các đơn vị cho một yêu cầu. Điều kiện status = AVAILABLE đảm bảo không giữ trùng
+     * một đơn vị đã bị transaction khác lấy mất.
+     */
+    @Modifying
+    @Query("UPDATE BloodUnit bu SET bu.status = com.hicode.backend.model.enums.InventoryStatus.RESERVED, " +
+            "bu.allocatedRequest = :request, bu.reservedUntil = :until, bu.reservationOwner = :owner " +
+            "WHERE bu.id IN :ids AND bu.status = com.hicode.backend.model.enums.InventoryStatus.AVAILABLE")
+    int reserveForRequest(@Param("ids") Collection<String> ids,
+                          @Param("request") BloodRequest request,
+                          @Param("until") LocalDateTime until,
+                          @Param("owner") String owner);
+
+    /**
+     * Đặt lại hạn giữ chỗ cho mọi đơn vị đang giữ cho một yêu cầu (null = giữ không thời hạn).
+     */
+    @Modifying
+    @Query("UPDATE BloodUnit bu SET bu.reservedUntil = :until " +
+            "WHERE bu.allocatedRequest.id = :requestId AND bu.status = com.hicode.backend.model.enums.InventoryStatus.RESERVED")
+    int updateReservationDeadline(@Param("requestId") Long requestId, @Param("until") LocalDateTime until);
+
+    @Query("SELECT bu.id FROM BloodUnit bu WHERE bu.allocatedRequest.id = :requestId " +
+            "AND bu.status = com.hicode.backend.model.enums.InventoryStatus.RESERVED ORDER BY bu.expiryDate ASC")
+    List<String> findReservedIdsByRequestId(@Param("requestId") Long requestId);
+
+    @Query("SELECT new com.hicode.backend.dto.admin.BloodUnitSnapshot(bu.id, bu.bloodType.id, bu.volumeMl, " +
+            "bu.expiryDate, bu.status, bu.storageLocation) FROM BloodUnit bu WHERE bu.id IN :ids")
+    List<BloodUnitSnapshot> findSnapshotsByIdIn(@Param("ids") Collection<String> ids);
+
+    @Query("SELECT new com.hicode.backend.dto.admin.BloodUnitSnapshot(bu.id, bu.bloodType.id, bu.volumeMl, " +
+            "bu.expiryDate, bu.status, bu.storageLocation) FROM BloodUnit bu WHERE bu.status = :status")
+    List<BloodUnitSnapshot> findSnapshotsByStatus(@Param("status") InventoryStatus status);
+
+    @Modifying
+    @Query("UPDATE BloodUnit bu SET bu.status = com.hicode.backend.model.enums.InventoryStatus.AVAILABLE, " +
+            "bu.allocatedRequest = null, bu.reservedUntil = null, bu.reservationOwner = null " +
+            "WHERE bu.allocatedRequest.id = :requestId AND bu.status = com.hicode.backend.model.enums.InventoryStatus.RESERVED")
+    int releaseReservationsForRequest(@Param("requestId") Long requestId);
+
+    /**
+     * Một lô đơn vị theo trạng thái có hạn dùng trước ngày cho trước, hết hạn sớm nhất trước.
+     */
+    @Query("SELECT new com.hicode.backend.dto.admin.BloodUnitSnapshot(bu.id, bu.bloodType.id, bu.volumeMl, " +
+            "bu.expiryDate, bu.status, bu.storageLocation) FROM BloodUnit bu " +
+            "WHERE bu.status = :status AND bu.expiryDate < :date ORDER BY bu.expiryDate ASC, bu.id ASC")
+    List<BloodUnitSnapshot> findSnapshotsByStatusAndExpiryDateBefore(@Param("status") InventoryStatus status,
+                                                                     @Param("date") LocalDate date,
+                                                                     Pageable pageable);
+
+    /**
+     * Đổi trạng thái một tập đơn vị. Chỉ các đơn vị còn ở trạng thái from mới bị đổi.
+     */
+    @Modifying
+    @Query("UPDATE BloodUnit bu SET bu.status = :to WHERE bu.id IN :ids AND bu.status = :from")
+    int transitionStatus(@Param("ids") Collection<String> ids,
+                         @Param("from") InventoryStatus from,
+                         @Param("to") InventoryStatus to);
+
+    /**
+     * Chuyển một tập đơn vị từ kho from sang kho to. Chỉ đơn vị còn ở đúng trạng thái và kho đã đọc mới bị đổi;
+     * bên gọi so số dòng với số đơn vị mong đợi để hủy cả lô nếu có đơn vị vừa bị đổi trạng thái hoặc bị chuyển đi.
+     */
+    @Modifying
+    @Query("UPDATE BloodUnit bu SET bu.storageLocation = :to WHERE bu.id IN :ids AND bu.status = :status " +
+            "AND bu.storageLocation = :from")
+    int moveToLocation(@Param("ids") Collection<String> ids,
+                       @Param("status") InventoryStatus status,
+                       @Param("from") String from,
+                       @Param("to") String to);
+
+    // Như moveToLocation, cho các đơn vị chưa được gán kho
+    @Modifying
+    @Query("UPDATE BloodUnit bu SET bu.storageLocation = :to WHERE bu.id IN :ids AND bu.status = :status " +
+            "AND bu.storageLocation IS NULL")
+    int moveUnassignedToLocation(@Param("ids") Collection<String> ids,
+                                 @Param("status") InventoryStatus status,
+                                 @Param("to") String to);
+
+    // Hạn giữ chỗ của các đơn vị RESERVED: mỗi phần tử là [id, reservedUntil]
+    @Query("SELECT bu.id, bu.reservedUntil FROM BloodUnit bu " +
+            "WHERE bu.status = com.hicode.backend.model.enums.InventoryStatus.RESERVED AND bu.reservedUntil IS NOT NULL")
+    List<Object[]> findReservationDeadlines();
+
+    @Query("SELECT bu.id, bu.reservedUntil FROM BloodUnit bu WHERE bu.id IN :ids " +
+            "AND bu.status = com.hicode.backend.model.enums.InventoryStatus.RESERVED AND bu.reservedUntil IS NOT NULL")
+    List<Object[]> findReservationDeadlinesByIdIn(@Param("ids") Collection<String> ids);
+
+    @Query("SELECT bu.id FROM BloodUnit bu WHERE bu.status = com.hicode.backend.model.enums.InventoryStatus.RESERVED " +
+            "AND bu.reservedUntil <= :now ORDER BY bu.reservedUntil ASC")
+    List<String> findExpiredReservationIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Query("SELECT new com.hicode.backend.dto.admin.BloodUnitSnapshot(bu.id, bu.bloodType.id, bu.volumeMl, " +
+            "bu.expiryDate, bu.status, bu.storageLocation) FROM BloodUnit bu WHERE bu.id IN :ids " +
+            "AND bu.status = com.hicode.backend.model.enums.InventoryStatus.RESERVED AND bu.reservedUntil <= :now")
+    List<BloodUnitSnapshot> findExpiredReservationSnapshots(@Param("ids") Collection<String> ids, @Param("now") LocalDateTime now);
+
+    /**
+     * Trả các đơn vị hết hạn giữ chỗ về kho. Điều kiện reservedUntil <= :now bỏ qua các đơn vị vừa được gia hạn.
+     */
+    @Modifying
+    @Query("UPDATE BloodUnit bu SET bu.status = com.hicode.backend.model.enums.InventoryStatus.AVAILABLE, " +
+            "bu.allocatedRequest = null, bu.reservedUntil = null, bu.reservationOwner = null " +
+            "WHERE bu.id IN :ids AND bu.status = com.hicode.backend.model.enums.InventoryStatus.RESERVED " +
+            "AND bu.reservedUntil <= :now")
+    int releaseExpiredReservations(@Param("ids") Collection<String> ids, @Param("now") LocalDateTime now);
 
     /**
-     * Lấy danh sách các đơn vị máu mới được thêm vào kho, sắp xếp theo ngày lấy máu giảm dần.
+     * Gán hạn giữ chỗ cho các đơn vị đang giữ cho yêu cầu còn chờ nhưng chưa có hạn (dữ liệu trước khi có TTL).
      */
-    List<BloodUnit> findTop10ByOrderByCollectionDateDesc();
+    @Modifying
+    @Query("UPDATE BloodUnit bu SET bu.reservedUntil = :until " +
+            "WHERE bu.status = com.hicode.backend.model.enums.InventoryStatus.RESERVED AND bu.reservedUntil IS NULL " +
+            "AND bu.allocatedRequest.id IN (SELECT r.id FROM BloodRequest r " +
+            "WHERE r.status = com.hicode.backend.model.enums.RequestStatus.PENDING)")
+    int backfillReservationDeadlines(@Param("until") LocalDateTime until);
+
+    @Query("SELECT new com.hicode.backend.dto.admin.BloodUnitSnapshot(bu.id, bu.bloodType.id, bu.volumeMl, " +
+            "bu.expiryDate, bu.status, bu.storageLocation) FROM BloodUnit bu " +
+            "WHERE bu.storageLocation = :location AND bu.status = :status")
+    List<BloodUnitSnapshot> findSnapshotsByStorageLocationAndStatus(@Param("location") String location,
+                                                                    @Param("status") InventoryStatus status);
+
+    /**
+     * Đưa một tập đơn vị đang ở trạng thái from vào QUARANTINED; hạn giữ chỗ bị bỏ nhưng liên kết tới yêu cầu
+     * (allocated_request_id) được giữ lại để còn truy vết.
+     */
+    @Modifying
+    @Query("UPDATE BloodUnit bu SET bu.status = com.hicode.backend.model.enums.InventoryStatus.QUARANTINED, " +
+            "bu.quarantineReason = :reason, bu.reservedUntil = null, bu.reservationOwner = null " +
+            "WHERE bu.id IN :ids AND bu.status = :from")
+    int quarantine(@Param("ids") Collection<String> ids,
+                   @Param("from") InventoryStatus from,
+                   @Param("reason") String reason);
+
+    /**
+     * Trả đơn vị QUARANTINED về kho; đơn vị trở lại AVAILABLE nên liên kết tới yêu cầu cũ được xóa ở bước này.
+     */
+    @Modifying
+    @Query("UPDATE BloodUnit bu SET bu.status = com.hicode.backend.model.enums.InventoryStatus.AVAILABLE, bu.quarantineReason = null, " +
+            "bu.allocatedRequest = null " +
+            "WHERE bu.id IN :ids AND bu.status = com.hicode.backend.model.enums.InventoryStatus.QUARANTINED")
+    int releaseQuarantine(@Param("ids") Collection<String> ids);
+
+    String TRACE_SELECT = "SELECT new com.hicode.backend.dto.admin.TraceabilityRow(bu.id, pu.id, p.id, d.id, d.fullName, " +
+            "bt.bloodGroup, bt.componentType, bu.volumeMl, bu.collectionDate, bu.expiryDate, bu.status, bu.storageLocation, " +
+            "r.id, r.hospital, r.patientName, r.status) " +
+            "FROM BloodUnit bu JOIN bu.donationProcess p JOIN p.donor d JOIN bu.bloodType bt " +
+            "LEFT JOIN bu.parentUnit pu LEFT JOIN bu.allocatedRequest r ";
+
+    @Query(TRACE_SELECT + "WHERE d.id = :donorId ORDER BY bu.collectionDate ASC, bu.id ASC")
+    List<TraceabilityRow> traceByDonorId(@Param("donorId") Long donorId);
+
+    /**
+     * Mọi đơn vị cùng lần hiến với đơn vị đã cho (túi gốc và các chế phẩm tách từ nó).
+     */
+    @Query(TRACE_SELECT + "WHERE p.id = (SELECT u.donationProcess.id FROM BloodUnit u WHERE u.id = :unitId) " +
+            "ORDER BY bu.id ASC")
+    List<TraceabilityRow> traceByUnitId(@Param("unitId") String unitId);
+
+    @Query(TRACE_SELECT + "WHERE r.id = :requestId ORDER BY bu.id ASC")
+    List<TraceabilityRow> traceByRequestId(@Param("requestId") Long requestId);
 
-}
\ No newline at end of file
+    @Query("SELECT new com.hicode.backend.dto.admin.BloodUnitSnapshot(bu.id, bu.bloodType.id, bu.volumeMl, " +
+            "bu.expiryDate, bu.status, bu.storageLocation) FROM BloodUnit bu " +
+            "WHERE bu.donationProcess.donor.id = :donorId AND bu.status IN :statuses")
+    List<BloodUnitSnapshot> findSnapshotsByDonorIdAndStatusIn(@Param("donorId") Long donorId,
+                                                              @Param("statuses") Collection<InventoryStatus> statuses);
+}
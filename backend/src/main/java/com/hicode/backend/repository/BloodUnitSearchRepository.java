@@ -0,0 +1,17 @@
+package com.hicode.backend.repository;
+
+import com.hicode.backend.dto.admin.BloodUnitResponse;
+import com.hicode.backend.dto.admin.BloodUnitSearchCriteria;
+import org.springframework.data.domain.Pageable;
+import java.util.List;
+
+public interface BloodUnitSearchRepository {
+
+    /**
+     * Danh sách đơn vị dưới dạng projection (một câu SELECT có join BloodType và người hiến),
+     * mặc định sắp theo expiryDate ASC, id ASC. Pageable có thể là unpaged.
+     */
+    List<BloodUnitResponse> searchProjected(BloodUnitSearchCriteria criteria, Pageable pageable);
+
+    long countMatching(BloodUnitSearchCriteria criteria);
+}
@@ -0,0 +1,96 @@
+package com.hicode.backend.repository;
+
+import com.hicode.backend.dto.admin.BloodUnitResponse;
+import com.hicode.backend.dto.admin.BloodUnitSearchCriteria;
+import com.hicode.backend.model.entity.BloodType;
+import com.hicode.backend.model.entity.BloodUnit;
+import com.hicode.backend.model.entity.DonationProcess;
+import com.hicode.backend.model.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BloodUnitSearchRepositoryImpl implements BloodUnitSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BloodUnitResponse> searchProjected(BloodUnitSearchCriteria criteria, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BloodUnitResponse> query = cb.createQuery(BloodUnitResponse.class);
+        Root<BloodUnit> root = query.from(BloodUnit.class);
+        Join<BloodUnit, BloodType> bloodType = root.join("bloodType");
+        Join<DonationProcess, User> donor = root.join("donationProcess").join("donor");
+
+        query.select(cb.construct(BloodUnitResponse.class,
+                        root.get("id"), bloodType.get("id"), bloodType.get("bloodGroup"), bloodType.get("componentType"),
+                        bloodType.get("description"), bloodType.get("shelfLifeDays"), root.get("volumeMl"),
+                        root.get("collectionDate"), root.get("expiryDate"), root.get("status"),
+                        root.get("storageLocation"), donor.get("id"), donor.get("fullName")))
+                .where(buildPredicates(cb, root, criteria))
+                .orderBy(buildOrder(cb, root, pageable.getSort()));
+
+        TypedQuery<BloodUnitResponse> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        return typedQuery.getResultList();
+    }
+
+    @Override
+    public long countMatching(BloodUnitSearchCriteria criteria) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<BloodUnit> root = query.from(BloodUnit.class);
+        query.select(cb.count(root)).where(buildPredicates(cb, root, criteria));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    // Chỉ thêm các điều kiện thực sự được truyền vào, để SQL Server dùng được index (status, blood_type_id, expiry_date)
+    private Predicate[] buildPredicates(CriteriaBuilder cb, Root<BloodUnit> root, BloodUnitSearchCriteria criteria) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (criteria.getStatus() != null) {
+            predicates.add(cb.equal(root.get("status"), criteria.getStatus()));
+        }
+        if (criteria.getBloodTypeId() != null) {
+            predicates.add(cb.equal(root.get("bloodType").get("id"), criteria.getBloodTypeId()));
+        }
+        if (criteria.getExpiryFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.<LocalDate>get("expiryDate"), criteria.getExpiryFrom()));
+        }
+        if (criteria.getExpiryTo() != null) {
+            predicates.add(cb.lessThanOrEqualTo(root.<LocalDate>get("expiryDate"), criteria.getExpiryTo()));
+        }
+        if (criteria.getStorageLocation() != null && !criteria.getStorageLocation().isBlank()) {
+            predicates.add(cb.equal(root.get("storageLocation"), criteria.getStorageLocation().trim()));
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+
+    private List<Order> buildOrder(CriteriaBuilder cb, Root<BloodUnit> root, Sort sort) {
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            orders.add(order.isAscending() ? cb.asc(root.get(order.getProperty())) : cb.desc(root.get(order.getProperty())));
+        }
+        if (orders.isEmpty()) {
+            orders.add(cb.asc(root.get("expiryDate")));
+        }
+        // id luôn ở cuối để thứ tự ổn định giữa các trang
+        orders.add(cb.asc(root.get("id")));
+        return orders;
+    }
+}
@@ -1,9 +1,31 @@
 package com.hicode.backend.repository;
 
 import com.hicode.backend.model.entity.DonationPledge;
+import com.hicode.backend.model.enums.RequestStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 public interface DonationPledgeRepository extends JpaRepository<DonationPledge, Long> {
-}
\ No newline at end of file
+
+    // Đếm số pledge của từng yêu cầu theo trạng thái yêu cầu: mỗi phần tử là [requestId, count]
+    @Query("SELECT p.bloodRequest.id, COUNT(p) FROM DonationPledge p " +
+            "WHERE p.bloodRequest.status = :status GROUP BY p.bloodRequest.id")
+    List<Object[]> countByRequestStatus(@Param("status") RequestStatus status);
+
+    // Đếm số pledge cho một tập yêu cầu: mỗi phần tử là [requestId, count]
+    @Query("SELECT p.bloodRequest.id, COUNT(p) FROM DonationPledge p " +
+            "WHERE p.bloodRequest.id IN :requestIds GROUP BY p.bloodRequest.id")
+    List<Object[]> countByRequestIds(@Param("requestIds") Collection<Long> requestIds);
+
+    // Các pledge gần đây theo thứ tự thời gian: mỗi phần tử là [createdAt, bloodGroup, hospital]
+    @Query("SELECT p.createdAt, bt.bloodGroup, br.hospital FROM DonationPledge p " +
+            "JOIN p.bloodRequest br JOIN br.bloodType bt " +
+            "WHERE p.createdAt >= :since ORDER BY p.createdAt ASC")
+    List<Object[]> findPledgeArrivalsSince(@Param("since") LocalDateTime since);
+}
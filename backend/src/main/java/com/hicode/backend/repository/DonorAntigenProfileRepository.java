@@ -0,0 +1,16 @@
+package com.hicode.backend.repository;
+
+import com.hicode.backend.model.entity.DonorAntigenProfile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface DonorAntigenProfileRepository extends JpaRepository<DonorAntigenProfile, Long> {
+
+    // [donorId, testedMask, positiveMask, bloodTypeId của người hiến] để nạp chỉ mục in-memory
+    @Query("SELECT p.donorId, p.testedMask, p.positiveMask, bt.id FROM DonorAntigenProfile p " +
+            "JOIN User u ON u.id = p.donorId LEFT JOIN u.bloodType bt")
+    List<Object[]> findIndexRows();
+}
@@ -0,0 +1,11 @@
+package com.hicode.backend.repository;
+
+import com.hicode.backend.model.entity.HospitalWebhookEndpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface HospitalWebhookEndpointRepository extends JpaRepository<HospitalWebhookEndpoint, Long> {
+    List<HospitalWebhookEndpoint> findByHospitalAndActiveTrue(String hospital);
+}
@@ -0,0 +1,9 @@
+package com.hicode.backend.repository;
+
+import com.hicode.backend.model.entity.InventoryForecastState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface InventoryForecastStateRepository extends JpaRepository<InventoryForecastState, Integer> {
+}
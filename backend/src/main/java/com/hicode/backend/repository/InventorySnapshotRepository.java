@@ -0,0 +1,29 @@
+package com.hicode.backend.repository;
+
+import com.hicode.backend.model.entity.InventorySnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface InventorySnapshotRepository extends JpaRepository<InventorySnapshot, Long> {
+
+    @Query("SELECT s FROM InventorySnapshot s WHERE s.snapshotDate BETWEEN :from AND :to " +
+            "ORDER BY s.bloodType.id ASC, s.snapshotDate ASC")
+    List<InventorySnapshot> findInRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT s FROM InventorySnapshot s WHERE s.bloodType.id = :bloodTypeId " +
+            "AND s.snapshotDate BETWEEN :from AND :to ORDER BY s.snapshotDate ASC")
+    List<InventorySnapshot> findInRangeByBloodTypeId(@Param("bloodTypeId") Integer bloodTypeId,
+                                                     @Param("from") LocalDate from,
+                                                     @Param("to") LocalDate to);
+
+    @Modifying
+    @Query("DELETE FROM InventorySnapshot s WHERE s.snapshotDate = :date")
+    int deleteBySnapshotDate(@Param("date") LocalDate date);
+}
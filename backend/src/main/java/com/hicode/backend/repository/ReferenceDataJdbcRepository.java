@@ -0,0 +1,66 @@
+package com.hicode.backend.repository;
+
+import com.hicode.backend.converter.BloodComponentTypeConverter;
+import com.hicode.backend.model.entity.BloodType;
+import com.hicode.backend.model.entity.BloodTypeCompatibility;
+import com.hicode.backend.model.entity.Role;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Ghi dữ liệu tham chiếu (vai trò, nhóm máu, quy tắc tương thích) bằng JDBC batch khi khởi tạo.
+ * Các bảng này dùng khóa IDENTITY nên Hibernate không gộp được INSERT; ở đây mỗi bảng chỉ tốn một round-trip.
+ */
+@Repository
+public class ReferenceDataJdbcRepository {
+
+    private static final BloodComponentTypeConverter COMPONENT_CONVERTER = new BloodComponentTypeConverter();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public void batchInsertRoles(List<Role> roles) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate("INSERT INTO roles (name, permissions, description, created_at, updated_at) VALUES (?, ?, ?, ?, ?)",
+                roles, roles.size(), (statement, role) -> {
+                    statement.setString(1, role.getName());
+                    statement.setString(2, role.getPermissions());
+                    statement.setString(3, role.getDescription());
+                    statement.setTimestamp(4, now);
+                    statement.setTimestamp(5, now);
+                });
+    }
+
+    public void batchInsertBloodTypes(List<BloodType> bloodTypes) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate("INSERT INTO blood_types (blood_group, component_type, description, shelf_life_days, created_at, updated_at) " +
+                        "VALUES (?, ?, ?, ?, ?, ?)",
+                bloodTypes, bloodTypes.size(), (statement, bloodType) -> {
+                    statement.setString(1, bloodType.getBloodGroup());
+                    statement.setString(2, COMPONENT_CONVERTER.convertToDatabaseColumn(bloodType.getComponentType()));
+                    statement.setString(3, bloodType.getDescription());
+                    statement.setInt(4, bloodType.getShelfLifeDays());
+                    statement.setTimestamp(5, now);
+                    statement.setTimestamp(6, now);
+                });
+    }
+
+    public void batchInsertCompatibilities(List<BloodTypeCompatibility> rules) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate("INSERT INTO blood_type_compatibility " +
+                        "(donor_blood_type_id, recipient_blood_type_id, is_compatible, notes, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)",
+                rules, rules.size(), (statement, rule) -> {
+                    statement.setInt(1, rule.getDonorBloodType().getId());
+                    statement.setInt(2, rule.getRecipientBloodType().getId());
+                    statement.setBoolean(3, rule.getIsCompatible());
+                    statement.setString(4, rule.getNotes());
+                    statement.setTimestamp(5, now);
+                    statement.setTimestamp(6, now);
+                });
+    }
+}
@@ -0,0 +1,11 @@
+package com.hicode.backend.repository;
+
+import com.hicode.backend.model.entity.StorageLocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface StorageLocationRepository extends JpaRepository<StorageLocation, String> {
+    List<StorageLocation> findAllByOrderByCodeAsc();
+}
@@ -0,0 +1,20 @@
+package com.hicode.backend.repository;
+
+import com.hicode.backend.model.entity.TemperatureSample;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TemperatureSampleRepository extends JpaRepository<TemperatureSample, Long> {
+
+    @Query("SELECT s FROM TemperatureSample s WHERE s.sensorId = :sensorId " +
+            "AND s.bucketStart >= :from AND s.bucketStart < :to ORDER BY s.bucketStart ASC")
+    List<TemperatureSample> findInRange(@Param("sensorId") String sensorId,
+                                        @Param("from") LocalDateTime from,
+                                        @Param("to") LocalDateTime to);
+}
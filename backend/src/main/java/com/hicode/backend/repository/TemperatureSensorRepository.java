@@ -0,0 +1,11 @@
+package com.hicode.backend.repository;
+
+import com.hicode.backend.model.entity.TemperatureSensor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface TemperatureSensorRepository extends JpaRepository<TemperatureSensor, String> {
+    List<TemperatureSensor> findByActiveTrue();
+}
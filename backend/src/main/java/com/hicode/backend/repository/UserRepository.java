@@ -16,16 +16,21 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Boolean existsByUsername(String username);
     List<User> findByBloodTypeId(Integer bloodTypeId);
 
-    @Query(value = "SELECT * FROM users u WHERE " +
-            "u.is_ready_to_donate = 1 AND " +
-            "(:bloodTypeId IS NULL OR u.blood_type_id = :bloodTypeId) AND " +
-            "( 6371 * acos( cos( radians(:lat) ) * cos( radians( u.latitude ) ) * " +
-            "cos( radians( u.longitude ) - radians(:lon) ) + sin( radians(:lat) ) * " +
-            "sin( radians( u.latitude ) ) ) ) < :radius", nativeQuery = true)
-    List<User> findDonorsWithinRadius(
-            @Param("lat") double lat,
-            @Param("lon") double lon,
-            @Param("radius") double radius,
+    /**
+     * [id, latitude, longitude] của người sẵn sàng hiến trong một hình chữ nhật lat/lon (seek trên
+     * IX_users_ready_lat_lon). Khoảng kinh độ thứ hai dùng khi hình chữ nhật vắt qua kinh tuyến 180.
+     */
+    @Query("SELECT u.id, u.latitude, u.longitude FROM User u WHERE u.isReadyToDonate = true " +
+            "AND (:bloodTypeId IS NULL OR u.bloodType.id = :bloodTypeId) " +
+            "AND u.latitude BETWEEN :minLat AND :maxLat " +
+            "AND (u.longitude BETWEEN :minLon AND :maxLon OR u.longitude BETWEEN :minLon2 AND :maxLon2)")
+    List<Object[]> findReadyDonorLocationsInBox(
+            @Param("minLat") double minLat,
+            @Param("maxLat") double maxLat,
+            @Param("minLon") double minLon,
+            @Param("maxLon") double maxLon,
+            @Param("minLon2") double minLon2,
+            @Param("maxLon2") double maxLon2,
             @Param("bloodTypeId") Integer bloodTypeId
     );
 
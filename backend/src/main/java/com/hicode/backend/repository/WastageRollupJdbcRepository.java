@@ -0,0 +1,52 @@
+package com.hicode.backend.repository;
+
+import com.hicode.backend.model.entity.WastageRollup;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Cộng dồn wastage_rollups bằng MERGE của SQL Server. HOLDLOCK giữ khóa khoảng trên khóa rollup
+ * để hai transaction cùng tạo một dòng mới không vi phạm ràng buộc unique.
+ */
+@Repository
+public class WastageRollupJdbcRepository {
+
+    private static final String MERGE_SQL = "MERGE wastage_rollups WITH (HOLDLOCK) AS t " +
+            "USING (SELECT ? AS period_month, ? AS blood_type_id, ? AS storage_location, ? AS outcome) AS s " +
+            "ON t.period_month = s.period_month AND t.blood_type_id = s.blood_type_id " +
+            "AND t.storage_location = s.storage_location AND t.outcome = s.outcome " +
+            "WHEN MATCHED THEN UPDATE SET units = t.units + ?, volume_ml = t.volume_ml + ?, " +
+            "days_before_expiry_sum = t.days_before_expiry_sum + ?, updated_at = ? " +
+            "WHEN NOT MATCHED THEN INSERT (period_month, blood_type_id, storage_location, outcome, units, volume_ml, " +
+            "days_before_expiry_sum, updated_at) VALUES (s.period_month, s.blood_type_id, s.storage_location, s.outcome, ?, ?, ?, ?);";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Mỗi phần tử mang khóa rollup và phần tăng thêm (units, volumeMl, daysBeforeExpirySum).
+     */
+    public void addAll(List<WastageRollup> increments) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(MERGE_SQL, increments, increments.size(), (statement, delta) -> {
+            statement.setDate(1, Date.valueOf(delta.getPeriodMonth()));
+            statement.setInt(2, delta.getBloodType().getId());
+            statement.setString(3, delta.getStorageLocation());
+            statement.setString(4, delta.getOutcome().name());
+            statement.setInt(5, delta.getUnits());
+            statement.setLong(6, delta.getVolumeMl());
+            statement.setLong(7, delta.getDaysBeforeExpirySum());
+            statement.setTimestamp(8, now);
+            statement.setInt(9, delta.getUnits());
+            statement.setLong(10, delta.getVolumeMl());
+            statement.setLong(11, delta.getDaysBeforeExpirySum());
+            statement.setTimestamp(12, now);
+        });
+    }
+}
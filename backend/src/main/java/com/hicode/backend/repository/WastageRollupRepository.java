@@ -0,0 +1,29 @@
+package com.hicode.backend.repository;
+
+import com.hicode.backend.model.entity.WastageRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface WastageRollupRepository extends JpaRepository<WastageRollup, Long> {
+
+    /**
+     * Các dòng rollup trong khoảng tháng, kèm thông tin BloodType. Mỗi phần tử là
+     * [periodMonth, bloodTypeId, bloodGroup, componentType, storageLocation, outcome, units, volumeMl, daysBeforeExpirySum].
+     */
+    @Query("SELECT w.periodMonth, bt.id, bt.bloodGroup, bt.componentType, w.storageLocation, w.outcome, " +
+            "w.units, w.volumeMl, w.daysBeforeExpirySum FROM WastageRollup w JOIN w.bloodType bt " +
+            "WHERE w.periodMonth BETWEEN :from AND :to " +
+            "AND (:bloodTypeId IS NULL OR bt.id = :bloodTypeId) " +
+            "AND (:storageLocation IS NULL OR w.storageLocation = :storageLocation) " +
+            "ORDER BY w.periodMonth ASC, bt.id ASC, w.storageLocation ASC, w.outcome ASC")
+    List<Object[]> findReportRows(@Param("from") LocalDate from,
+                                  @Param("to") LocalDate to,
+                                  @Param("bloodTypeId") Integer bloodTypeId,
+                                  @Param("storageLocation") String storageLocation);
+}
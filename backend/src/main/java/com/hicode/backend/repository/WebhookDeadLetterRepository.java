@@ -0,0 +1,16 @@
+package com.hicode.backend.repository;
+
+import com.hicode.backend.model.entity.WebhookDeadLetter;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface WebhookDeadLetterRepository extends JpaRepository<WebhookDeadLetter, Long> {
+
+    @Override
+    @EntityGraph(attributePaths = "endpoint")
+    Page<WebhookDeadLetter> findAll(Pageable pageable);
+}
@@ -0,0 +1,61 @@
+package com.hicode.backend.repository;
+
+import com.hicode.backend.model.entity.WebhookDelivery;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface WebhookDeliveryRepository extends JpaRepository<WebhookDelivery, Long> {
+
+    // Các delivery đến hạn gửi, kèm endpoint để không phải tải lazy trong worker
+    @Query("SELECT d FROM WebhookDelivery d JOIN FETCH d.endpoint " +
+            "WHERE d.status = com.hicode.backend.model.enums.WebhookDeliveryStatus.PENDING " +
+            "AND d.nextAttemptAt <= :now ORDER BY d.nextAttemptAt ASC")
+    List<WebhookDelivery> findDue(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Nhận một delivery để gửi. Trả về 1 nếu thành công, 0 nếu node/worker khác đã nhận trước.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE WebhookDelivery d SET d.status = com.hicode.backend.model.enums.WebhookDeliveryStatus.IN_FLIGHT, " +
+            "d.claimedAt = :now WHERE d.id = :id AND d.status = com.hicode.backend.model.enums.WebhookDeliveryStatus.PENDING")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE WebhookDelivery d SET d.status = com.hicode.backend.model.enums.WebhookDeliveryStatus.PENDING " +
+            "WHERE d.status = com.hicode.backend.model.enums.WebhookDeliveryStatus.IN_FLIGHT AND d.claimedAt < :cutoff")
+    int releaseStuck(@Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Các bước kết thúc một lần gửi chỉ áp dụng khi delivery vẫn IN_FLIGHT (chưa bị recoverStuckDeliveries trả về
+     * hàng đợi và được worker khác nhận lại). Trả về 0 nếu delivery không còn thuộc về worker này.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE WebhookDelivery d SET d.status = com.hicode.backend.model.enums.WebhookDeliveryStatus.DELIVERED, " +
+            "d.attempts = d.attempts + 1, d.deliveredAt = :now, d.lastError = null " +
+            "WHERE d.id = :id AND d.status = com.hicode.backend.model.enums.WebhookDeliveryStatus.IN_FLIGHT")
+    int markDelivered(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE WebhookDelivery d SET d.status = com.hicode.backend.model.enums.WebhookDeliveryStatus.PENDING, " +
+            "d.attempts = d.attempts + 1, d.lastError = :error, d.nextAttemptAt = :nextAttemptAt " +
+            "WHERE d.id = :id AND d.status = com.hicode.backend.model.enums.WebhookDeliveryStatus.IN_FLIGHT")
+    int scheduleRetry(@Param("id") Long id, @Param("error") String error, @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM WebhookDelivery d " +
+            "WHERE d.id = :id AND d.status = com.hicode.backend.model.enums.WebhookDeliveryStatus.IN_FLIGHT")
+    int deleteInFlight(@Param("id") Long id);
+}
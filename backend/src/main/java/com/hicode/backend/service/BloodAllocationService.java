@@ -0,0 +1,192 @@
+package com.hicode.backend.service;
+
+import com.hicode.backend.dto.admin.BloodAllocationResponse;
+import com.hicode.backend.dto.admin.BloodUnitSnapshot;
+import com.hicode.backend.event.BloodRequestEvent;
+import com.hicode.backend.event.BloodUnitEvent;
+import com.hicode.backend.model.entity.BloodRequest;
+import com.hicode.backend.model.enums.InventoryStatus;
+import com.hicode.backend.model.enums.RequestStatus;
+import com.hicode.backend.repository.BloodRequestRepository;
+import com.hicode.backend.repository.BloodUnitRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Phân bổ đơn vị máu trong kho cho các yêu cầu theo nguyên tắc FEFO (hết hạn trước, xuất trước).
+ *
+ * Mỗi nhóm máu người cho có một khóa riêng (lock striping): hai yêu cầu chỉ chờ nhau khi cùng cần
+ * một nhóm máu. Các khóa luôn được lấy theo thứ tự id tăng dần để tránh deadlock. Câu UPDATE có điều kiện
+ * status = AVAILABLE là lớp bảo vệ cuối cùng khi nhiều node cùng phân bổ.
+ */
+@Service
+public class BloodAllocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BloodAllocationService.class);
+    private static final int MAX_RESERVE_ATTEMPTS = 3;
+
+    @Autowired
+    private BloodRequestRepository bloodRequestRepository;
+    @Autowired
+    private BloodUnitRepository bloodUnitRepository;
+    @Autowired
+    private CompatibilityMatrixService compatibilityMatrixService;
+    @Autowired
+    private BloodRequestTriageService triageService;
+    @Autowired
+    private InventoryService inventoryService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${reservation.ttl-minutes:240}")
+    private long reservationTtlMinutes;
+
+    private final Map<Integer, ReentrantLock> bloodTypeLocks = new ConcurrentHashMap<>();
+
+    /**
+     * Giữ (RESERVED) các đơn vị phù hợp cho một yêu cầu cho đến khi đủ số lượng hoặc hết hàng.
+     * Mỗi lần gọi cũng gia hạn giữ chỗ cho các đơn vị yêu cầu đang giữ.
+     */
+    public BloodAllocationResponse allocate(Long requestId) {
+        BloodRequest request = bloodRequestRepository.findById(requestId)
+                .orElseThrow(() -> new EntityNotFoundException("Blood request not found with id: " + requestId));
+        if (request.getStatus() != RequestStatus.PENDING) {
+            throw new IllegalStateException("Only pending blood requests can be allocated.");
+        }
+
+        TreeSet<Integer> donorTypeIds = new TreeSet<>(
+                compatibilityMatrixService.getCompatibleDonorTypeIds(request.getBloodType().getId()));
+
+        List<ReentrantLock> acquired = new ArrayList<>(donorTypeIds.size());
+        try {
+            for (Integer bloodTypeId : donorTypeIds) {
+                ReentrantLock lock = bloodTypeLocks.computeIfAbsent(bloodTypeId, id -> new ReentrantLock());
+                lock.lock();
+                acquired.add(lock);
+            }
+            return transactionTemplate.execute(status -> reserveUnits(requestId, donorTypeIds));
+        } finally {
+            for (int i = acquired.size() - 1; i >= 0; i--) {
+                acquired.get(i).unlock();
+            }
+        }
+    }
+
+    /**
+     * Phân bổ lại cho toàn bộ yêu cầu đang mở, theo thứ tự của hàng đợi triage.
+     */
+    public List<BloodAllocationResponse> rebalanceOpenRequests() {
+        List<BloodAllocationResponse> results = new ArrayList<>();
+        for (Long requestId : triageService.getOrderedRequestIds()) {
+            try {
+                results.add(allocate(requestId));
+            } catch (EntityNotFoundException | IllegalStateException e) {
+                // Yêu cầu đã được xử lý xong trong lúc chạy lô
+                logger.debug("Skipping request {} during rebalance: {}", requestId, e.getMessage());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Trả các đơn vị đang giữ về kho khi yêu cầu bị hủy; ghi nhận đã dùng (USED) khi yêu cầu đã hoàn thành.
+     * Chạy trong cùng transaction với việc đổi trạng thái.
+     */
+    @EventListener
+    public void onBloodRequestEvent(BloodRequestEvent event) {
+        // Theo chuyển trạng thái chứ không theo loại event: yêu cầu có thể hoàn thành qua cam kết hiến (PLEDGED)
+        if (event.getStatus() == event.getPreviousStatus()) {
+            return;
+        }
+        if (event.getStatus() == RequestStatus.FULFILLED) {
+            List<String> reservedIds = bloodUnitRepository.findReservedIdsByRequestId(event.getRequestId());
+            if (reservedIds.isEmpty()) {
+                return;
+            }
+            // Đơn vị đã giao cho yêu cầu hoàn thành: bỏ hạn giữ chỗ rồi chuyển RESERVED -> USED, giữ liên kết tới yêu cầu
+            bloodUnitRepository.updateReservationDeadline(event.getRequestId(), null);
+            List<BloodUnitSnapshot> used = inventoryService.transitionUnits(
+                    bloodUnitRepository.findSnapshotsByIdIn(reservedIds), InventoryStatus.RESERVED, InventoryStatus.USED);
+            logger.info("Marked {} reserved units of fulfilled request {} as used.", used.size(), event.getRequestId());
+            return;
+        }
+        if (event.getStatus() == RequestStatus.CANCELLED) {
+            List<String> reservedIds = bloodUnitRepository.findReservedIdsByRequestId(event.getRequestId());
+            if (reservedIds.isEmpty()) {
+                return;
+            }
+            List<BloodUnitSnapshot> units = bloodUnitRepository.findSnapshotsByIdIn(reservedIds);
+            int released = bloodUnitRepository.releaseReservationsForRequest(event.getRequestId());
+            for (BloodUnitSnapshot unit : units) {
+                eventPublisher.publishEvent(BloodUnitEvent.transition(unit, InventoryStatus.RESERVED, InventoryStatus.AVAILABLE));
+            }
+            logger.info("Released {} reserved units from cancelled request {}.", released, event.getRequestId());
+        }
+    }
+
+    private BloodAllocationResponse reserveUnits(Long requestId, TreeSet<Integer> donorTypeIds) {
+        BloodRequest request = bloodRequestRepository.findById(requestId)
+                .orElseThrow(() -> new EntityNotFoundException("Blood request not found with id: " + requestId));
+        int requested = request.getQuantityInUnits();
+        List<String> reservedIds = bloodUnitRepository.findReservedIdsByRequestId(requestId);
+        Set<String> previouslyReserved = new HashSet<>(reservedIds);
+
+        LocalDateTime reservedUntil = null;
+        if (request.getStatus() == RequestStatus.PENDING && !donorTypeIds.isEmpty()) {
+            reservedUntil = LocalDateTime.now().plusMinutes(reservationTtlMinutes);
+            if (!reservedIds.isEmpty()) {
+                bloodUnitRepository.updateReservationDeadline(requestId, reservedUntil);
+            }
+            LocalDate today = LocalDate.now();
+            for (int attempt = 0; attempt < MAX_RESERVE_ATTEMPTS && reservedIds.size() < requested; attempt++) {
+                int needed = requested - reservedIds.size();
+                List<String> candidates = bloodUnitRepository.findFefoCandidateIds(donorTypeIds, today, PageRequest.of(0, needed));
+                if (candidates.isEmpty()) {
+                    break;
+                }
+                int reserved = bloodUnitRepository.reserveForRequest(candidates, request, reservedUntil, request.getHospital());
+                reservedIds = bloodUnitRepository.findReservedIdsByRequestId(requestId);
+                if (reserved == candidates.size()) {
+                    break;
+                }
+            }
+
+            List<String> newlyReserved = reservedIds.stream().filter(id -> !previouslyReserved.contains(id)).toList();
+            if (!newlyReserved.isEmpty()) {
+                for (BloodUnitSnapshot unit : bloodUnitRepository.findSnapshotsByIdIn(newlyReserved)) {
+                    eventPublisher.publishEvent(BloodUnitEvent.transition(unit, InventoryStatus.AVAILABLE, InventoryStatus.RESERVED));
+                }
+            }
+        }
+
+        BloodAllocationResponse response = new BloodAllocationResponse();
+        response.setRequestId(requestId);
+        response.setRequestedUnits(requested);
+        response.setAllocatedUnits(reservedIds.size());
+        response.setShortfall(Math.max(0, requested - reservedIds.size()));
+        response.setUnitIds(reservedIds);
+        response.setReservedUntil(reservedIds.isEmpty() ? null : reservedUntil);
+        return response;
+    }
+}
@@ -2,6 +2,7 @@ package com.hicode.backend.service;
 
 import com.hicode.backend.dto.*;
 import com.hicode.backend.dto.admin.*;
+import com.hicode.backend.event.ReferenceDataChangedEvent;
 import com.hicode.backend.model.entity.BloodType;
 import com.hicode.backend.model.entity.BloodTypeCompatibility;
 import com.hicode.backend.model.entity.User;
@@ -11,6 +12,7 @@ import com.hicode.backend.repository.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -30,6 +32,8 @@ public class BloodManagementService {
     private UserRepository userRepository;
     @Autowired
     private UserService userService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     public List<BloodTypeResponse> getAllBloodTypes() {
         return bloodTypeRepository.findAll().stream()
@@ -53,6 +57,7 @@ public class BloodManagementService {
         BloodType bloodType = new BloodType();
         BeanUtils.copyProperties(request, bloodType);
         BloodType savedBloodType = bloodTypeRepository.save(bloodType);
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(ReferenceDataChangedEvent.Type.BLOOD_TYPES));
         return mapToBloodTypeResponse(savedBloodType);
     }
 
@@ -66,6 +71,7 @@ public class BloodManagementService {
         }
 
         BloodType updatedBloodType = bloodTypeRepository.save(bloodType);
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(ReferenceDataChangedEvent.Type.BLOOD_TYPES));
         return mapToBloodTypeResponse(updatedBloodType);
     }
 
@@ -79,6 +85,7 @@ public class BloodManagementService {
             bloodCompatibilityRepository.deleteAllInBatch(relatedCompatibilities);
         }
         bloodTypeRepository.deleteById(id);
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(ReferenceDataChangedEvent.Type.BLOOD_TYPES));
     }
 
     @Transactional(readOnly = true)
@@ -117,7 +124,9 @@ public class BloodManagementService {
         rule.setDonorBloodType(donor);
         rule.setRecipientBloodType(recipient);
 
-        return mapToBloodCompatibilityDetailResponse(bloodCompatibilityRepository.save(rule));
+        BloodCompatibilityDetailResponse response = mapToBloodCompatibilityDetailResponse(bloodCompatibilityRepository.save(rule));
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(ReferenceDataChangedEvent.Type.COMPATIBILITY_RULES));
+        return response;
     }
 
     @Transactional
@@ -128,7 +137,9 @@ public class BloodManagementService {
         if (request.getIsCompatible() != null) rule.setIsCompatible(request.getIsCompatible());
         if (request.getNotes() != null) rule.setNotes(request.getNotes());
 
-        return mapToBloodCompatibilityDetailResponse(bloodCompatibilityRepository.save(rule));
+        BloodCompatibilityDetailResponse response = mapToBloodCompatibilityDetailResponse(bloodCompatibilityRepository.save(rule));
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(ReferenceDataChangedEvent.Type.COMPATIBILITY_RULES));
+        return response;
     }
 
     @Transactional
@@ -137,6 +148,7 @@ public class BloodManagementService {
             throw new EntityNotFoundException("Compatibility Rule not found with id: " + id);
         }
         bloodCompatibilityRepository.deleteById(id);
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(ReferenceDataChangedEvent.Type.COMPATIBILITY_RULES));
     }
 
     private BloodTypeResponse mapToBloodTypeResponse(BloodType bloodType) {
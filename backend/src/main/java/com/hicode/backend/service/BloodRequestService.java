@@ -1,8 +1,11 @@
 package com.hicode.backend.service;
 
 import com.hicode.backend.dto.admin.BloodRequestResponse;
+import com.hicode.backend.dto.admin.BloodRequestSearchCriteria;
+import com.hicode.backend.dto.admin.BloodRequestSearchResponse;
 import com.hicode.backend.dto.admin.BloodTypeResponse;
 import com.hicode.backend.dto.admin.CreateBloodRequestRequest;
+import com.hicode.backend.event.BloodRequestEvent;
 import com.hicode.backend.model.entity.*;
 import com.hicode.backend.model.enums.*;
 import com.hicode.backend.repository.BloodRequestRepository;
@@ -12,13 +15,19 @@ import com.hicode.backend.repository.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,6 +39,9 @@ public class BloodRequestService {
     @Autowired private UserService userService;
     @Autowired private UserRepository userRepository;
     @Autowired private EmailService emailService;
+    @Autowired private ApplicationEventPublisher eventPublisher;
+    @Autowired private FulfillmentEtaService fulfillmentEtaService;
+    @Autowired private CompatibilityMatrixService compatibilityMatrixService;
 
     /**
      * Staff/Admin tạo một yêu cầu cần máu mới.
@@ -51,6 +63,7 @@ public class BloodRequestService {
         newRequest.setStatus(RequestStatus.PENDING);
 
         BloodRequest savedRequest = bloodRequestRepository.save(newRequest);
+        publishEvent(BloodRequestEvent.Type.CREATED, savedRequest, null);
         sendNotificationToAvailableDonors(savedRequest);
 
         return mapToResponse(savedRequest);
@@ -84,6 +97,49 @@ public class BloodRequestService {
         return requestPage.map(this::mapToResponse);
     }
 
+    /**
+     * Tìm kiếm yêu cầu máu theo bộ lọc với phân trang keyset (createdAt DESC, id DESC).
+     * Không chạy COUNT(*): lấy thêm một bản ghi để biết còn trang sau hay không.
+     */
+    @Transactional(readOnly = true)
+    public BloodRequestSearchResponse searchRequests(BloodRequestSearchCriteria criteria, String cursor, int size) {
+        LocalDateTime afterCreatedAt = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+                afterCreatedAt = LocalDateTime.parse(parts[0]);
+                afterId = Long.parseLong(parts[1]);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid search cursor.");
+            }
+        }
+
+        List<BloodRequest> rows = bloodRequestRepository.searchKeyset(criteria, afterCreatedAt, afterId, size + 1);
+        boolean hasMore = rows.size() > size;
+        List<BloodRequest> page = hasMore ? rows.subList(0, size) : rows;
+
+        Map<Long, Integer> pledgeCounts = new HashMap<>();
+        if (!page.isEmpty()) {
+            List<Long> ids = page.stream().map(BloodRequest::getId).collect(Collectors.toList());
+            for (Object[] row : pledgeRepository.countByRequestIds(ids)) {
+                pledgeCounts.put((Long) row[0], ((Long) row[1]).intValue());
+            }
+        }
+
+        BloodRequestSearchResponse response = new BloodRequestSearchResponse();
+        response.setItems(page.stream()
+                .map(r -> mapToResponse(r, pledgeCounts.getOrDefault(r.getId(), 0)))
+                .collect(Collectors.toList()));
+        response.setHasMore(hasMore);
+        if (hasMore) {
+            BloodRequest last = page.get(page.size() - 1);
+            String key = last.getCreatedAt() + "|" + last.getId();
+            response.setNextCursor(Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8)));
+        }
+        return response;
+    }
+
     /**
      * Lấy danh sách các yêu cầu đã hoàn thành (FULFILLED) có phân trang cho Staff/Admin.
      */
@@ -118,9 +174,10 @@ public class BloodRequestService {
 
         DonationPledge savedPledge = pledgeRepository.save(pledge);
 
-        // Tải lại đối tượng cha để cập nhật danh sách pledge trong bộ nhớ
-        BloodRequest updatedRequest = bloodRequestRepository.findById(requestId).get();
-        checkAndUpdateRequestStatus(updatedRequest);
+        // findById trong cùng transaction trả về cùng instance nên phải tự thêm pledge mới vào danh sách trong bộ nhớ
+        bloodRequest.getPledges().add(savedPledge);
+        checkAndUpdateRequestStatus(bloodRequest);
+        publishEvent(BloodRequestEvent.Type.PLEDGED, bloodRequest, RequestStatus.PENDING);
 
         return savedPledge;
     }
@@ -132,8 +189,11 @@ public class BloodRequestService {
     public BloodRequestResponse updateStatus(Long requestId, RequestStatus newStatus) {
         BloodRequest request = bloodRequestRepository.findById(requestId)
                 .orElseThrow(() -> new EntityNotFoundException("Blood request not found with id: " + requestId));
+        RequestStatus previousStatus = request.getStatus();
         request.setStatus(newStatus);
-        return mapToResponse(bloodRequestRepository.save(request));
+        BloodRequest savedRequest = bloodRequestRepository.save(request);
+        publishEvent(BloodRequestEvent.Type.STATUS_CHANGED, savedRequest, previousStatus);
+        return mapToResponse(savedRequest);
     }
 
     /**
@@ -150,6 +210,27 @@ public class BloodRequestService {
         }
     }
 
+    /**
+     * Phát snapshot của yêu cầu cho các thành phần in-memory (triage, ETA) và hàng đợi webhook.
+     */
+    private void publishEvent(BloodRequestEvent.Type type, BloodRequest request, RequestStatus previousStatus) {
+        BloodType bloodType = request.getBloodType();
+        eventPublisher.publishEvent(new BloodRequestEvent(
+                type,
+                request.getId(),
+                request.getPatientName(),
+                request.getHospital(),
+                bloodType.getId(),
+                bloodType.getBloodGroup(),
+                bloodType.getComponentType(),
+                request.getQuantityInUnits(),
+                request.getPledges() != null ? request.getPledges().size() : 0,
+                request.getUrgency(),
+                request.getStatus(),
+                previousStatus,
+                request.getCreatedAt()));
+    }
+
     /**
      * Gửi email thông báo bất đồng bộ đến các người hiến máu phù hợp.
      */
@@ -169,7 +250,13 @@ public class BloodRequestService {
                 bloodRequest.getQuantityInUnits()
         );
 
+        int recipientTypeId = bloodRequest.getBloodType().getId();
         for (User donor : availableDonors) {
+            // Người hiến chưa khai nhóm máu vẫn được thông báo
+            if (donor.getBloodType() != null
+                    && !compatibilityMatrixService.canDonorSupply(donor.getBloodType().getId(), recipientTypeId)) {
+                continue;
+            }
             emailService.sendEmail(donor.getEmail(), subject, text);
         }
     }
@@ -178,6 +265,10 @@ public class BloodRequestService {
      * Hàm helper để chuyển đổi BloodRequest Entity sang BloodRequestResponse DTO.
      */
     private BloodRequestResponse mapToResponse(BloodRequest entity) {
+        return mapToResponse(entity, entity.getPledges() != null ? entity.getPledges().size() : 0);
+    }
+
+    private BloodRequestResponse mapToResponse(BloodRequest entity, int pledgeCount) {
         BloodRequestResponse response = new BloodRequestResponse();
         BeanUtils.copyProperties(entity, response, "bloodType", "createdBy", "pledges");
 
@@ -191,11 +282,8 @@ public class BloodRequestService {
             response.setCreatedBy(userService.mapToUserResponse(entity.getCreatedBy()));
         }
 
-        if (entity.getPledges() != null) {
-            response.setPledgeCount(entity.getPledges().size());
-        } else {
-            response.setPledgeCount(0);
-        }
+        response.setPledgeCount(pledgeCount);
+        fulfillmentEtaService.applyEstimate(response);
         return response;
     }
 }
\ No newline at end of file
@@ -0,0 +1,228 @@
+package com.hicode.backend.service;
+
+import com.hicode.backend.dto.admin.BloodRequestTriageResponse;
+import com.hicode.backend.dto.admin.BloodTypeResponse;
+import com.hicode.backend.event.BloodRequestEvent;
+import com.hicode.backend.model.entity.BloodRequest;
+import com.hicode.backend.model.enums.BloodComponentType;
+import com.hicode.backend.model.enums.RequestStatus;
+import com.hicode.backend.model.enums.UrgencyLevel;
+import com.hicode.backend.repository.BloodRequestRepository;
+import com.hicode.backend.repository.DonationPledgeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Hàng đợi phân loại (triage) in-memory cho các yêu cầu máu đang PENDING.
+ *
+ * Thứ tự ưu tiên dùng "thời điểm tạo ảo": createdAt - urgency * agingHoursPerLevel.
+ * Vì độ ưu tiên tăng tuyến tính theo thời gian chờ như nhau cho mọi yêu cầu, khóa sắp xếp này
+ * không đổi theo thời gian, nên một yêu cầu NORMAL chờ đủ lâu sẽ tự vượt lên trên yêu cầu URGENT mới
+ * mà không phải sắp xếp lại hàng đợi.
+ */
+@Service
+public class BloodRequestTriageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BloodRequestTriageService.class);
+
+    private static final Comparator<TriageEntry> TRIAGE_ORDER = Comparator
+            .comparingLong((TriageEntry e) -> e.rankKey)
+            .thenComparing(Comparator.comparingInt((TriageEntry e) -> e.deficit).reversed())
+            .thenComparingLong(e -> e.requestId);
+
+    @Autowired
+    private BloodRequestRepository bloodRequestRepository;
+    @Autowired
+    private DonationPledgeRepository pledgeRepository;
+
+    @Value("${triage.aging-hours-per-level:12}")
+    private long agingHoursPerLevel;
+
+    private final Map<Long, TriageEntry> entriesById = new ConcurrentHashMap<>();
+    private final NavigableSet<TriageEntry> queue = new ConcurrentSkipListSet<>(TRIAGE_ORDER);
+
+    /**
+     * Nạp lại toàn bộ yêu cầu PENDING từ DB khi khởi động và định kỳ để tự sửa các sai lệch
+     * (ví dụ event đến không theo thứ tự giữa các transaction song song).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${triage.resync-interval-ms:600000}", initialDelayString = "${triage.resync-interval-ms:600000}")
+    public void reloadOpenRequests() {
+        List<BloodRequest> openRequests = bloodRequestRepository.findByStatusWithDetails(RequestStatus.PENDING);
+        Map<Long, Integer> pledgeCounts = new HashMap<>();
+        for (Object[] row : pledgeRepository.countByRequestStatus(RequestStatus.PENDING)) {
+            pledgeCounts.put((Long) row[0], ((Long) row[1]).intValue());
+        }
+
+        Map<Long, TriageEntry> fresh = new HashMap<>();
+        for (BloodRequest request : openRequests) {
+            TriageEntry entry = new TriageEntry(
+                    request.getId(),
+                    request.getPatientName(),
+                    request.getHospital(),
+                    request.getBloodType().getId(),
+                    request.getBloodType().getBloodGroup(),
+                    request.getBloodType().getComponentType(),
+                    request.getQuantityInUnits(),
+                    pledgeCounts.getOrDefault(request.getId(), 0),
+                    request.getUrgency(),
+                    request.getCreatedAt());
+            fresh.put(entry.requestId, entry);
+        }
+
+        synchronized (this) {
+            entriesById.keySet().retainAll(fresh.keySet());
+            queue.removeIf(e -> !fresh.containsKey(e.requestId));
+            fresh.values().forEach(this::upsert);
+        }
+        logger.info("Triage queue loaded with {} open blood requests.", fresh.size());
+    }
+
+    @TransactionalEventListener
+    public void onBloodRequestEvent(BloodRequestEvent event) {
+        synchronized (this) {
+            if (event.getStatus() != RequestStatus.PENDING) {
+                TriageEntry removed = entriesById.remove(event.getRequestId());
+                if (removed != null) {
+                    queue.remove(removed);
+                }
+                return;
+            }
+            upsert(new TriageEntry(
+                    event.getRequestId(),
+                    event.getPatientName(),
+                    event.getHospital(),
+                    event.getBloodTypeId(),
+                    event.getBloodGroup(),
+                    event.getComponentType(),
+                    event.getQuantityInUnits(),
+                    event.getPledgeCount(),
+                    event.getUrgency(),
+                    event.getCreatedAt()));
+        }
+    }
+
+    /**
+     * Danh sách yêu cầu đã xếp hạng, nhu cầu nguy cấp nhất đứng đầu.
+     */
+    public Page<BloodRequestTriageResponse> getTriageQueue(Pageable pageable) {
+        LocalDateTime now = LocalDateTime.now();
+        List<BloodRequestTriageResponse> content = new ArrayList<>(pageable.getPageSize());
+        Iterator<TriageEntry> it = queue.iterator();
+        int rank = 0;
+        while (it.hasNext() && content.size() < pageable.getPageSize()) {
+            TriageEntry entry = it.next();
+            if (rank++ < pageable.getOffset()) {
+                continue;
+            }
+            content.add(toResponse(entry, rank, now));
+        }
+        return new PageImpl<>(content, pageable, entriesById.size());
+    }
+
+    /**
+     * Các yêu cầu mở theo thứ tự triage, dùng cho các tác vụ nền (ví dụ phân bổ theo lô).
+     */
+    public List<Long> getOrderedRequestIds() {
+        List<Long> ids = new ArrayList<>(entriesById.size());
+        for (TriageEntry entry : queue) {
+            ids.add(entry.requestId);
+        }
+        return ids;
+    }
+
+    private void upsert(TriageEntry entry) {
+        TriageEntry previous = entriesById.put(entry.requestId, entry);
+        if (previous != null) {
+            queue.remove(previous);
+        }
+        queue.add(entry);
+    }
+
+    private BloodRequestTriageResponse toResponse(TriageEntry entry, int rank, LocalDateTime now) {
+        BloodRequestTriageResponse response = new BloodRequestTriageResponse();
+        response.setRank(rank);
+        response.setRequestId(entry.requestId);
+        response.setPatientName(entry.patientName);
+        response.setHospital(entry.hospital);
+
+        BloodTypeResponse btResponse = new BloodTypeResponse();
+        btResponse.setId(entry.bloodTypeId);
+        btResponse.setBloodGroup(entry.bloodGroup);
+        btResponse.setComponentType(entry.componentType);
+        response.setBloodType(btResponse);
+
+        response.setQuantityInUnits(entry.quantityInUnits);
+        response.setPledgeCount(entry.pledgeCount);
+        response.setDeficit(entry.deficit);
+        response.setUrgency(entry.urgency);
+        response.setCreatedAt(entry.createdAt);
+
+        long waitingMinutes = Math.max(0, Duration.between(entry.createdAt, now).toMinutes());
+        response.setWaitingMinutes(waitingMinutes);
+        response.setEffectiveUrgency(effectiveUrgency(entry.urgency, waitingMinutes));
+        return response;
+    }
+
+    private UrgencyLevel effectiveUrgency(UrgencyLevel urgency, long waitingMinutes) {
+        UrgencyLevel[] levels = UrgencyLevel.values();
+        long escalations = waitingMinutes / (agingHoursPerLevel * 60);
+        return levels[(int) Math.min(levels.length - 1, urgency.ordinal() + escalations)];
+    }
+
+    private final class TriageEntry {
+        private final Long requestId;
+        private final String patientName;
+        private final String hospital;
+        private final Integer bloodTypeId;
+        private final String bloodGroup;
+        private final BloodComponentType componentType;
+        private final int quantityInUnits;
+        private final int pledgeCount;
+        private final int deficit;
+        private final UrgencyLevel urgency;
+        private final LocalDateTime createdAt;
+        private final long rankKey;
+
+        private TriageEntry(Long requestId, String patientName, String hospital, Integer bloodTypeId,
+                            String bloodGroup, BloodComponentType componentType, int quantityInUnits,
+                            int pledgeCount, UrgencyLevel urgency, LocalDateTime createdAt) {
+            this.requestId = requestId;
+            this.patientName = patientName;
+            this.hospital = hospital;
+            this.bloodTypeId = bloodTypeId;
+            this.bloodGroup = bloodGroup;
+            this.componentType = componentType;
+            this.quantityInUnits = quantityInUnits;
+            this.pledgeCount = pledgeCount;
+            this.deficit = Math.max(0, quantityInUnits - pledgeCount);
+            this.urgency = urgency;
+            this.createdAt = createdAt != null ? createdAt : LocalDateTime.now();
+            long createdEpochSeconds = this.createdAt.atZone(ZoneId.systemDefault()).toEpochSecond();
+            this.rankKey = createdEpochSeconds - urgency.ordinal() * agingHoursPerLevel * 3600;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.hicode.backend.service;
+
+import com.hicode.backend.event.ReferenceDataChangedEvent;
+import com.hicode.backend.model.entity.BloodType;
+import com.hicode.backend.repository.BloodTypeCompatibilityRepository;
+import com.hicode.backend.repository.BloodTypeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Ma trận tương thích nhóm máu dựng sẵn trong bộ nhớ.
+ *
+ * Mỗi BloodType được gán một chỉ số liên tiếp; mỗi hàng của ma trận là một bitset long[] (người cho -> người nhận
+ * và người nhận -> người cho). Ma trận bất biến và được thay nguyên khối qua một tham chiếu volatile mỗi khi
+ * nhóm máu hoặc quy tắc tương thích thay đổi, nên việc kiểm tra là O(1) và không cấp phát bộ nhớ.
+ */
+@Service
+public class CompatibilityMatrixService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompatibilityMatrixService.class);
+
+    @Autowired
+    private BloodTypeRepository bloodTypeRepository;
+    @Autowired
+    private BloodTypeCompatibilityRepository compatibilityRepository;
+
+    private volatile Matrix matrix = Matrix.EMPTY;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReferenceDataChanged(ReferenceDataChangedEvent event) {
+        rebuild();
+    }
+
+    /**
+     * Quy tắc tương thích trực tiếp giữa hai BloodType.
+     */
+    public boolean isCompatible(int donorBloodTypeId, int recipientBloodTypeId) {
+        return matrix.isCompatible(donorBloodTypeId, recipientBloodTypeId);
+    }
+
+    /**
+     * Người hiến có nhóm máu của donorBloodTypeId có cung cấp được cho recipientBloodTypeId hay không, qua bất kỳ
+     * chế phẩm nào cùng nhóm (ví dụ người hiến máu toàn phần O- cho yêu cầu hồng cầu A+).
+     */
+    public boolean canDonorSupply(int donorBloodTypeId, int recipientBloodTypeId) {
+        return matrix.canDonorSupply(donorBloodTypeId, recipientBloodTypeId);
+    }
+
+    /**
+     * Các BloodType người cho tương thích với một BloodType người nhận, tăng dần theo id. Danh sách bất biến.
+     */
+    public List<Integer> getCompatibleDonorTypeIds(int recipientBloodTypeId) {
+        return matrix.donorTypeIds(recipientBloodTypeId);
+    }
+
+    private synchronized void rebuild() {
+        List<BloodType> types = new ArrayList<>(bloodTypeRepository.findAll());
+        types.sort(Comparator.comparing(BloodType::getId));
+        List<Object[]> pairs = compatibilityRepository.findCompatibleTypePairs();
+        matrix = Matrix.build(types, pairs);
+        logger.info("Compatibility matrix rebuilt: {} blood types, {} compatible pairs.", types.size(), pairs.size());
+    }
+
+    private static final class Matrix {
+        private static final Matrix EMPTY = build(List.of(), List.of());
+
+        // id BloodType -> chỉ số trong ma trận, -1 nếu không có
+        private final int[] indexById;
+        private final long[][] recipientsOf;
+        private final long[][] donorsOf;
+        // Với mỗi người nhận: mọi type có cùng nhóm máu với một type người cho tương thích
+        private final long[][] supplyingGroupsOf;
+        private final List<List<Integer>> donorTypeIds;
+
+        private Matrix(int[] indexById, long[][] recipientsOf, long[][] donorsOf,
+                       long[][] supplyingGroupsOf, List<List<Integer>> donorTypeIds) {
+            this.indexById = indexById;
+            this.recipientsOf = recipientsOf;
+            this.donorsOf = donorsOf;
+            this.supplyingGroupsOf = supplyingGroupsOf;
+            this.donorTypeIds = donorTypeIds;
+        }
+
+        static Matrix build(List<BloodType> types, List<Object[]> pairs) {
+            int size = types.size();
+            int words = Math.max(1, (size + 63) >>> 6);
+            int maxId = types.stream().mapToInt(BloodType::getId).max().orElse(-1);
+            int[] indexById = new int[maxId + 1];
+            Arrays.fill(indexById, -1);
+            int[] idByIndex = new int[size];
+            String[] groups = new String[size];
+            for (int i = 0; i < size; i++) {
+                BloodType type = types.get(i);
+                indexById[type.getId()] = i;
+                idByIndex[i] = type.getId();
+                groups[i] = type.getBloodGroup();
+            }
+
+            long[][] recipientsOf = new long[size][words];
+            long[][] donorsOf = new long[size][words];
+            for (Object[] pair : pairs) {
+                int donor = lookup(indexById, (Integer) pair[0]);
+                int recipient = lookup(indexById, (Integer) pair[1]);
+                if (donor < 0 || recipient < 0) {
+                    continue;
+                }
+                recipientsOf[donor][recipient >>> 6] |= 1L << recipient;
+                donorsOf[recipient][donor >>> 6] |= 1L << donor;
+            }
+
+            long[][] supplyingGroupsOf = new long[size][words];
+            List<List<Integer>> donorTypeIds = new ArrayList<>(size);
+            for (int recipient = 0; recipient < size; recipient++) {
+                List<Integer> ids = new ArrayList<>();
+                for (int donor = 0; donor < size; donor++) {
+                    if ((donorsOf[recipient][donor >>> 6] & (1L << donor)) == 0) {
+                        continue;
+                    }
+                    ids.add(idByIndex[donor]);
+                    for (int other = 0; other < size; other++) {
+                        if (groups[other].equals(groups[donor])) {
+                            supplyingGroupsOf[recipient][other >>> 6] |= 1L << other;
+                        }
+                    }
+                }
+                donorTypeIds.add(List.copyOf(ids));
+            }
+            return new Matrix(indexById, recipientsOf, donorsOf, supplyingGroupsOf, donorTypeIds);
+        }
+
+        boolean isCompatible(int donorId, int recipientId) {
+            int donor = lookup(indexById, donorId);
+            int recipient = lookup(indexById, recipientId);
+            return donor >= 0 && recipient >= 0 && (recipientsOf[donor][recipient >>> 6] & (1L << recipient)) != 0;
+        }
+
+        boolean canDonorSupply(int donorId, int recipientId) {
+            int donor = lookup(indexById, donorId);
+            int recipient = lookup(indexById, recipientId);
+            return donor >= 0 && recipient >= 0 && (supplyingGroupsOf[recipient][donor >>> 6] & (1L << donor)) != 0;
+        }
+
+        List<Integer> donorTypeIds(int recipientId) {
+            int recipient = lookup(indexById, recipientId);
+            return recipient < 0 ? List.of() : donorTypeIds.get(recipient);
+        }
+
+        private static int lookup(int[] indexById, int id) {
+            return id >= 0 && id < indexById.length ? indexById[id] : -1;
+        }
+    }
+}
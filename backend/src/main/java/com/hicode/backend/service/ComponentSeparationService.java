@@ -0,0 +1,202 @@
+package com.hicode.backend.service;
+
+import com.hicode.backend.dto.admin.BloodUnitSnapshot;
+import com.hicode.backend.dto.admin.ComponentOutputRequest;
+import com.hicode.backend.dto.admin.ComponentSeparationRequest;
+import com.hicode.backend.dto.admin.ComponentSeparationResponse;
+import com.hicode.backend.dto.admin.UnitSeparationRequest;
+import com.hicode.backend.event.BloodUnitEvent;
+import com.hicode.backend.model.entity.BloodType;
+import com.hicode.backend.model.entity.BloodUnit;
+import com.hicode.backend.model.entity.DonationProcess;
+import com.hicode.backend.model.enums.BloodComponentType;
+import com.hicode.backend.model.enums.InventoryStatus;
+import com.hicode.backend.repository.BloodTypeRepository;
+import com.hicode.backend.repository.BloodUnitJdbcRepository;
+import com.hicode.backend.repository.BloodUnitRepository;
+import com.hicode.backend.repository.DonationProcessRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tách túi máu toàn phần thành các chế phẩm (hồng cầu, huyết tương, tiểu cầu) theo từng lượt xử lý.
+ *
+ * Cả lượt được kiểm tra trước rồi ghi trong một transaction: các chế phẩm được INSERT bằng JDBC batch,
+ * các túi gốc chuyển sang PROCESSED bằng một câu UPDATE có điều kiện. Hạn dùng của chế phẩm tính từ ngày
+ * lấy máu của túi gốc cộng với shelfLifeDays của BloodType tương ứng.
+ */
+@Service
+public class ComponentSeparationService {
+
+    // SQL Server giới hạn 2100 tham số mỗi câu lệnh
+    private static final int IN_CLAUSE_CHUNK = 1000;
+
+    @Autowired
+    private BloodUnitRepository bloodUnitRepository;
+    @Autowired
+    private BloodUnitJdbcRepository bloodUnitJdbcRepository;
+    @Autowired
+    private BloodTypeRepository bloodTypeRepository;
+    @Autowired
+    private DonationProcessRepository donationProcessRepository;
+    @Autowired
+    private InventoryService inventoryService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public ComponentSeparationResponse separate(ComponentSeparationRequest request) {
+        Set<String> parentIds = new LinkedHashSet<>();
+        Set<String> newIds = new HashSet<>();
+        for (UnitSeparationRequest separation : request.getUnits()) {
+            if (!parentIds.add(separation.getParentUnitId())) {
+                throw new IllegalArgumentException("Blood unit " + separation.getParentUnitId() + " appears more than once in this run.");
+            }
+            Set<BloodComponentType> components = EnumSet.noneOf(BloodComponentType.class);
+            for (ComponentOutputRequest output : separation.getComponents()) {
+                if (output.getComponentType() == BloodComponentType.WHOLE_BLOOD) {
+                    throw new IllegalArgumentException("Whole blood is not a separable component.");
+                }
+                if (!components.add(output.getComponentType())) {
+                    throw new IllegalArgumentException("Blood unit " + separation.getParentUnitId() + " lists "
+                            + output.getComponentType().getDisplayName() + " more than once.");
+                }
+                if (!newIds.add(output.getUnitId())) {
+                    throw new IllegalArgumentException("Component unit ID " + output.getUnitId() + " is used more than once.");
+                }
+            }
+        }
+        for (String id : parentIds) {
+            if (newIds.contains(id)) {
+                throw new IllegalArgumentException("Component unit ID " + id + " is the ID of a parent unit.");
+            }
+        }
+        List<String> existing = findExistingIds(newIds);
+        if (!existing.isEmpty()) {
+            throw new IllegalArgumentException("Blood unit IDs already exist: " + String.join(", ", existing));
+        }
+
+        Map<String, Object[]> sources = new HashMap<>();
+        for (List<String> chunk : chunks(new ArrayList<>(parentIds))) {
+            for (Object[] row : bloodUnitRepository.findSeparationSources(chunk)) {
+                sources.put((String) row[0], row);
+            }
+        }
+        Map<String, BloodType> bloodTypes = new HashMap<>();
+        for (BloodType bloodType : bloodTypeRepository.findAll()) {
+            bloodTypes.put(typeKey(bloodType.getBloodGroup(), bloodType.getComponentType()), bloodType);
+        }
+
+        LocalDate today = LocalDate.now();
+        List<BloodUnitSnapshot> parents = new ArrayList<>(parentIds.size());
+        List<BloodUnit> children = new ArrayList<>(newIds.size());
+        for (UnitSeparationRequest separation : request.getUnits()) {
+            Object[] source = sources.get(separation.getParentUnitId());
+            if (source == null) {
+                throw new EntityNotFoundException("Blood unit not found with id: " + separation.getParentUnitId());
+            }
+            String parentId = (String) source[0];
+            String bloodGroup = (String) source[2];
+            LocalDate collectionDate = (LocalDate) source[5];
+            LocalDate expiryDate = (LocalDate) source[6];
+            InventoryStatus status = (InventoryStatus) source[7];
+            String storageLocation = (String) source[8];
+            if (source[3] != BloodComponentType.WHOLE_BLOOD) {
+                throw new IllegalStateException("Blood unit " + parentId + " is not a whole blood unit.");
+            }
+            if (status != InventoryStatus.AVAILABLE || expiryDate.isBefore(today)) {
+                throw new IllegalStateException("Blood unit " + parentId + " is not available for separation.");
+            }
+            parents.add(new BloodUnitSnapshot(parentId, (Integer) source[1], (Integer) source[4], expiryDate, status, storageLocation));
+
+            DonationProcess process = donationProcessRepository.getReferenceById((Long) source[9]);
+            BloodUnit parent = bloodUnitRepository.getReferenceById(parentId);
+            int totalVolume = 0;
+            for (ComponentOutputRequest output : separation.getComponents()) {
+                BloodType bloodType = bloodTypes.get(typeKey(bloodGroup, output.getComponentType()));
+                if (bloodType == null) {
+                    throw new IllegalStateException("Blood type " + bloodGroup + " "
+                            + output.getComponentType().getDisplayName() + " is not configured.");
+                }
+                LocalDate childExpiry = collectionDate.plusDays(bloodType.getShelfLifeDays());
+                if (childExpiry.isBefore(today)) {
+                    throw new IllegalStateException("Blood unit " + parentId + " is too old to produce "
+                            + output.getComponentType().getDisplayName() + ".");
+                }
+                totalVolume += output.getVolumeMl();
+                BloodUnit child = new BloodUnit();
+                child.setId(output.getUnitId());
+                child.setDonationProcess(process);
+                child.setParentUnit(parent);
+                child.setBloodType(bloodType);
+                child.setVolumeMl(output.getVolumeMl());
+                child.setCollectionDate(collectionDate);
+                child.setExpiryDate(childExpiry);
+                child.setStatus(InventoryStatus.AVAILABLE);
+                child.setStorageLocation(storageLocation);
+                children.add(child);
+            }
+            if (totalVolume > (Integer) source[4]) {
+                throw new IllegalArgumentException("Component volumes of blood unit " + parentId + " exceed its collected volume.");
+            }
+        }
+
+        // Túi gốc có thể vừa bị giữ cho một yêu cầu khác: hủy cả lượt nếu không chuyển được hết
+        if (inventoryService.transitionUnits(parents, InventoryStatus.AVAILABLE, InventoryStatus.PROCESSED).size() != parents.size()) {
+            throw new IllegalStateException("Some blood units changed status during separation. Please retry the run.");
+        }
+        try {
+            bloodUnitJdbcRepository.batchInsert(children);
+        } catch (DuplicateKeyException e) {
+            // Mã vừa được người khác nhập kho sau bước kiểm tra ở trên
+            throw new IllegalStateException("Some component unit IDs were recorded concurrently. Please retry the run.");
+        }
+
+        List<String> createdIds = new ArrayList<>(children.size());
+        for (BloodUnit child : children) {
+            createdIds.add(child.getId());
+            eventPublisher.publishEvent(new BloodUnitEvent(child.getId(), child.getBloodType().getId(), child.getVolumeMl(),
+                    child.getExpiryDate(), child.getStorageLocation(), null, null, InventoryStatus.AVAILABLE));
+        }
+
+        ComponentSeparationResponse response = new ComponentSeparationResponse();
+        response.setProcessedParents(parents.size());
+        response.setCreatedUnits(children.size());
+        response.setCreatedUnitIds(createdIds);
+        return response;
+    }
+
+    private List<String> findExistingIds(Set<String> ids) {
+        List<String> existing = new ArrayList<>();
+        for (List<String> chunk : chunks(new ArrayList<>(ids))) {
+            existing.addAll(bloodUnitRepository.findExistingIds(chunk));
+        }
+        return existing;
+    }
+
+    private static List<List<String>> chunks(List<String> ids) {
+        List<List<String>> chunks = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += IN_CLAUSE_CHUNK) {
+            chunks.add(ids.subList(i, Math.min(ids.size(), i + IN_CLAUSE_CHUNK)));
+        }
+        return chunks;
+    }
+
+    private static String typeKey(String bloodGroup, BloodComponentType componentType) {
+        return bloodGroup + "|" + componentType.name();
+    }
+}
@@ -0,0 +1,280 @@
+package com.hicode.backend.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hicode.backend.dto.admin.BloodRequestSearchCriteria;
+import com.hicode.backend.dto.admin.BloodUnitSearchCriteria;
+import com.hicode.backend.model.enums.DonationStatus;
+import com.hicode.backend.model.enums.ExportFormat;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Xuất dữ liệu dạng CSV hoặc NDJSON, ghi thẳng từng dòng ra OutputStream.
+ *
+ * Dùng JDBC cursor forward-only, read-only với fetch size cố định: driver chỉ giữ một lô dòng trong bộ nhớ,
+ * nên bộ nhớ dùng không phụ thuộc số dòng được xuất. Không đi qua JPA để tránh persistence context phình to.
+ */
+@Service
+public class ExportService {
+
+    private static final int WRITE_BUFFER_CHARS = 64 * 1024;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${export.fetch-size:1000}")
+    private int fetchSize;
+
+    public void exportBloodUnits(BloodUnitSearchCriteria criteria, ExportFormat format, OutputStream out) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT bu.id, bt.blood_group, bt.component_type, bu.volume_ml, bu.collection_date, bu.expiry_date, " +
+                "bu.status, bu.storage_location, bu.process_id, u.id AS donor_id, u.full_name AS donor_name, " +
+                "bu.allocated_request_id " +
+                "FROM blood_units bu " +
+                "JOIN blood_types bt ON bt.id = bu.blood_type_id " +
+                "JOIN donation_processes dp ON dp.id = bu.process_id " +
+                "JOIN users u ON u.id = dp.donor_id WHERE 1 = 1");
+        List<Object> params = new ArrayList<>();
+        if (criteria.getStatus() != null) {
+            appendFilter(sql, params, "bu.status = ?", criteria.getStatus().name());
+        }
+        if (criteria.getBloodTypeId() != null) {
+            appendFilter(sql, params, "bu.blood_type_id = ?", criteria.getBloodTypeId());
+        }
+        if (criteria.getExpiryFrom() != null) {
+            appendFilter(sql, params, "bu.expiry_date >= ?", Date.valueOf(criteria.getExpiryFrom()));
+        }
+        if (criteria.getExpiryTo() != null) {
+            appendFilter(sql, params, "bu.expiry_date <= ?", Date.valueOf(criteria.getExpiryTo()));
+        }
+        if (criteria.getStorageLocation() != null && !criteria.getStorageLocation().isBlank()) {
+            appendFilter(sql, params, "bu.storage_location = ?", criteria.getStorageLocation().trim());
+        }
+        sql.append(" ORDER BY bu.id");
+        stream(sql.toString(), params, format, out);
+    }
+
+    public void exportDonations(DonationStatus status, LocalDateTime createdFrom, LocalDateTime createdTo,
+                                ExportFormat format, OutputStream out) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT dp.id, dp.status, dp.collected_volume_ml, dp.note, dp.created_at, dp.updated_at, " +
+                "u.id AS donor_id, u.full_name AS donor_name, bt.blood_group, bt.component_type " +
+                "FROM donation_processes dp " +
+                "JOIN users u ON u.id = dp.donor_id " +
+                "LEFT JOIN blood_types bt ON bt.id = u.blood_type_id WHERE 1 = 1");
+        List<Object> params = new ArrayList<>();
+        if (status != null) {
+            appendFilter(sql, params, "dp.status = ?", status.name());
+        }
+        if (createdFrom != null) {
+            appendFilter(sql, params, "dp.created_at >= ?", Timestamp.valueOf(createdFrom));
+        }
+        if (createdTo != null) {
+            appendFilter(sql, params, "dp.created_at < ?", Timestamp.valueOf(createdTo));
+        }
+        sql.append(" ORDER BY dp.id");
+        stream(sql.toString(), params, format, out);
+    }
+
+    public void exportBloodRequests(BloodRequestSearchCriteria criteria, ExportFormat format, OutputStream out) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT br.id, br.patient_name, br.hospital, bt.blood_group, bt.component_type, br.quantity_in_units, " +
+                "br.urgency, br.status, br.created_by_staff_id, br.created_at, br.updated_at " +
+                "FROM blood_requests br " +
+                "JOIN blood_types bt ON bt.id = br.blood_type_id WHERE 1 = 1");
+        List<Object> params = new ArrayList<>();
+        if (criteria.getHospital() != null && !criteria.getHospital().isBlank()) {
+            appendFilter(sql, params, "br.hospital = ?", criteria.getHospital().trim());
+        }
+        if (criteria.getBloodTypeId() != null) {
+            appendFilter(sql, params, "br.blood_type_id = ?", criteria.getBloodTypeId());
+        }
+        if (criteria.getUrgency() != null) {
+            appendFilter(sql, params, "br.urgency = ?", criteria.getUrgency().name());
+        }
+        if (criteria.getStatus() != null) {
+            appendFilter(sql, params, "br.status = ?", criteria.getStatus().name());
+        }
+        if (criteria.getCreatedFrom() != null) {
+            appendFilter(sql, params, "br.created_at >= ?", Timestamp.valueOf(criteria.getCreatedFrom()));
+        }
+        if (criteria.getCreatedTo() != null) {
+            appendFilter(sql, params, "br.created_at < ?", Timestamp.valueOf(criteria.getCreatedTo()));
+        }
+        sql.append(" ORDER BY br.id");
+        stream(sql.toString(), params, format, out);
+    }
+
+    private static void appendFilter(StringBuilder sql, List<Object> params, String condition, Object value) {
+        sql.append(" AND ").append(condition);
+        params.add(value);
+    }
+
+    private void stream(String sql, List<Object> params, ExportFormat format, OutputStream out) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_CHARS);
+        RowWriter rowWriter = format == ExportFormat.NDJSON ? new NdjsonRowWriter(writer) : new CsvRowWriter(writer);
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < params.size(); i++) {
+                statement.setObject(i + 1, params.get(i));
+            }
+            return statement;
+        }, (ResultSet rs) -> {
+            ResultSetMetaData metaData = rs.getMetaData();
+            int columnCount = metaData.getColumnCount();
+            String[] columns = new String[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                columns[i] = metaData.getColumnLabel(i + 1);
+            }
+            Object[] values = new Object[columnCount];
+            try {
+                rowWriter.start(columns);
+                while (rs.next()) {
+                    for (int i = 0; i < columnCount; i++) {
+                        values[i] = normalize(rs.getObject(i + 1));
+                    }
+                    rowWriter.write(values);
+                }
+                rowWriter.finish();
+            } catch (IOException e) {
+                // Thường là client đóng kết nối giữa chừng; ném ra để đóng cursor ngay
+                throw new UncheckedIOException(e);
+            }
+            return null;
+        });
+    }
+
+    private static Object normalize(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toString();
+        }
+        if (value instanceof Date date) {
+            return date.toLocalDate().toString();
+        }
+        if (value instanceof LocalDateTime || value instanceof LocalDate) {
+            return value.toString();
+        }
+        return value;
+    }
+
+    private interface RowWriter {
+        void start(String[] columns) throws IOException;
+
+        void write(Object[] values) throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        private CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void start(String[] columns) throws IOException {
+            write(columns);
+        }
+
+        @Override
+        public void write(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeField(values[i]);
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+
+        // RFC 4180: bọc trong dấu nháy kép khi có dấu phẩy, nháy kép hoặc xuống dòng
+        private void writeField(Object value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            String text = value.toString();
+            // Chống CSV injection: văn bản do người dùng nhập bắt đầu bằng ký tự công thức sẽ bị Excel thực thi
+            if (value instanceof String && !text.isEmpty() && isFormulaStart(text.charAt(0))) {
+                text = "'" + text;
+            }
+            boolean quote = text.indexOf(',') >= 0 || text.indexOf('"') >= 0
+                    || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0;
+            if (!quote) {
+                writer.write(text);
+                return;
+            }
+            writer.write('"');
+            writer.write(text.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        private static boolean isFormulaStart(char c) {
+            return c == '=' || c == '+' || c == '-' || c == '@' || c == '\t' || c == '\r';
+        }
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+        private final Writer writer;
+        private JsonGenerator generator;
+        private String[] columns;
+
+        private NdjsonRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void start(String[] columns) throws IOException {
+            this.columns = columns;
+            this.generator = objectMapper.getFactory().createGenerator(writer);
+            // Không đóng writer khi đóng generator, luồng ra do controller quản lý
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(Object[] values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < values.length; i++) {
+                generator.writeObjectField(columns[i], values[i]);
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.close();
+            writer.flush();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.hicode.backend.service;
+
+import com.hicode.backend.dto.admin.BloodRequestResponse;
+import com.hicode.backend.event.BloodRequestEvent;
+import com.hicode.backend.model.enums.RequestStatus;
+import com.hicode.backend.model.enums.UrgencyLevel;
+import com.hicode.backend.repository.DonationPledgeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ước tính thời điểm một yêu cầu máu nhận đủ pledge.
+ *
+ * Tốc độ pledge (pledge/giờ) được giữ trong bộ nhớ theo từng cặp (nhóm máu, bệnh viện) và theo nhóm máu,
+ * dưới dạng trung bình trượt mũ liên tục theo thời gian: mỗi pledge cộng 1/tau, giá trị giảm theo exp(-dt/tau).
+ * Cập nhật và đọc đều O(1), đủ rẻ để tính cho mọi yêu cầu mỗi lần tải danh sách.
+ */
+@Service
+public class FulfillmentEtaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FulfillmentEtaService.class);
+    private static final String ANY_SITE = "*";
+    private static final double MIN_RATE_PER_HOUR = 1e-3;
+
+    @Autowired
+    private DonationPledgeRepository pledgeRepository;
+
+    @Value("${eta.rate-half-life-hours:72}")
+    private double rateHalfLifeHours;
+    @Value("${eta.warmup-days:14}")
+    private int warmupDays;
+    @Value("${eta.target-hours.critical:6}")
+    private long criticalTargetHours;
+    @Value("${eta.target-hours.urgent:24}")
+    private long urgentTargetHours;
+    @Value("${eta.target-hours.normal:72}")
+    private long normalTargetHours;
+
+    private final Map<String, RateState> rates = new ConcurrentHashMap<>();
+
+    /**
+     * Khởi tạo tốc độ từ các pledge trong cửa sổ gần đây để ETA có ý nghĩa ngay sau khi khởi động.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        List<Object[]> arrivals = pledgeRepository.findPledgeArrivalsSince(LocalDateTime.now().minusDays(warmupDays));
+        for (Object[] row : arrivals) {
+            recordPledge((String) row[1], (String) row[2], toEpochMillis((LocalDateTime) row[0]));
+        }
+        logger.info("Pledge rate estimator warmed up with {} pledges over {} site keys.", arrivals.size(), rates.size());
+    }
+
+    @TransactionalEventListener
+    public void onBloodRequestEvent(BloodRequestEvent event) {
+        if (event.getType() == BloodRequestEvent.Type.PLEDGED) {
+            recordPledge(event.getBloodGroup(), event.getHospital(), System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Gắn ETA và cờ "có khả năng trễ hạn" vào một yêu cầu đang PENDING.
+     */
+    public void applyEstimate(BloodRequestResponse response) {
+        if (response.getStatus() != RequestStatus.PENDING || response.getBloodType() == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        // Quy tắc N+1: cần quantity + 1 pledge để yêu cầu được đánh dấu FULFILLED
+        int remaining = response.getQuantityInUnits() + 1 - response.getPledgeCount();
+        LocalDateTime deadline = response.getCreatedAt() != null
+                ? response.getCreatedAt().plusHours(targetHours(response.getUrgency()))
+                : null;
+
+        if (remaining <= 0) {
+            response.setEstimatedFulfillmentAt(LocalDateTime.now());
+            response.setLikelyToMiss(false);
+            return;
+        }
+
+        String bloodGroup = response.getBloodType().getBloodGroup();
+        double rate = currentRate(key(bloodGroup, response.getHospital()), now);
+        if (rate < MIN_RATE_PER_HOUR) {
+            rate = currentRate(key(bloodGroup, ANY_SITE), now);
+        }
+        if (rate < MIN_RATE_PER_HOUR) {
+            response.setEstimatedFulfillmentAt(null);
+            response.setLikelyToMiss(true);
+            return;
+        }
+
+        long etaMinutes = (long) Math.ceil(remaining / rate * 60);
+        LocalDateTime eta = LocalDateTime.now().plusMinutes(etaMinutes);
+        response.setEstimatedFulfillmentAt(eta);
+        response.setLikelyToMiss(deadline != null && eta.isAfter(deadline));
+    }
+
+    private void recordPledge(String bloodGroup, String hospital, long epochMillis) {
+        double tauHours = rateHalfLifeHours / Math.log(2);
+        rates.computeIfAbsent(key(bloodGroup, hospital), k -> new RateState()).add(epochMillis, tauHours);
+        rates.computeIfAbsent(key(bloodGroup, ANY_SITE), k -> new RateState()).add(epochMillis, tauHours);
+    }
+
+    private double currentRate(String key, long epochMillis) {
+        RateState state = rates.get(key);
+        return state == null ? 0 : state.rateAt(epochMillis, rateHalfLifeHours / Math.log(2));
+    }
+
+    private long targetHours(UrgencyLevel urgency) {
+        if (urgency == UrgencyLevel.CRITICAL) return criticalTargetHours;
+        if (urgency == UrgencyLevel.URGENT) return urgentTargetHours;
+        return normalTargetHours;
+    }
+
+    private static String key(String bloodGroup, String site) {
+        return bloodGroup + "|" + (site == null ? "" : site.trim().toLowerCase());
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static final class RateState {
+        private double ratePerHour;
+        private long lastEventMillis;
+
+        synchronized void add(long epochMillis, double tauHours) {
+            ratePerHour = decayed(epochMillis, tauHours) + 1.0 / tauHours;
+            lastEventMillis = Math.max(lastEventMillis, epochMillis);
+        }
+
+        synchronized double rateAt(long epochMillis, double tauHours) {
+            return decayed(epochMillis, tauHours);
+        }
+
+        private double decayed(long epochMillis, double tauHours) {
+            if (lastEventMillis == 0) {
+                return ratePerHour;
+            }
+            double elapsedHours = Math.max(0, epochMillis - lastEventMillis) / 3_600_000.0;
+            return ratePerHour * Math.exp(-elapsedHours / tauHours);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.hicode.backend.service;
+
+import com.hicode.backend.dto.admin.BloodTypeAvailabilityResponse;
+import com.hicode.backend.dto.admin.BloodUnitSnapshot;
+import com.hicode.backend.dto.admin.ExpirySweepResponse;
+import com.hicode.backend.dto.admin.NearExpiryWarning;
+import com.hicode.backend.model.entity.BloodType;
+import com.hicode.backend.model.enums.BloodComponentType;
+import com.hicode.backend.model.enums.InventoryStatus;
+import com.hicode.backend.repository.BloodTypeRepository;
+import com.hicode.backend.repository.BloodUnitRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Chuyển các đơn vị AVAILABLE đã quá hạn sang EXPIRED và theo dõi các đơn vị sắp hết hạn.
+ *
+ * Việc quét dùng câu UPDATE theo tập id, mỗi lô tối đa chunkSize đơn vị trong một transaction riêng,
+ * nên không giữ khóa lâu và không bị SQL Server leo thang thành khóa cả bảng. Truy vấn chọn lô chỉ đọc
+ * các đơn vị AVAILABLE nhờ index (status, expiry_date), chi phí không phụ thuộc số đơn vị lịch sử.
+ */
+@Service
+public class InventoryExpiryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryExpiryService.class);
+
+    @Autowired
+    private BloodUnitRepository bloodUnitRepository;
+    @Autowired
+    private BloodTypeRepository bloodTypeRepository;
+    @Autowired
+    private InventoryService inventoryService;
+    @Autowired
+    private InventoryIndexService inventoryIndexService;
+
+    @Value("${inventory.expiry.chunk-size:500}")
+    private int chunkSize;
+    @Value("${inventory.expiry.warning-hours.platelets:24}")
+    private int plateletWarningHours;
+    @Value("${inventory.expiry.warning-hours.default:72}")
+    private int defaultWarningHours;
+
+    private final AtomicBoolean sweeping = new AtomicBoolean(false);
+    private volatile List<NearExpiryWarning> nearExpiryWarnings = List.of();
+
+    @Scheduled(cron = "${inventory.expiry.sweep-cron:0 5 0 * * ?}")
+    public void scheduledSweep() {
+        try {
+            sweepExpiredUnits();
+        } catch (IllegalStateException e) {
+            logger.info("Skipping scheduled expiry sweep: {}", e.getMessage());
+        }
+        refreshNearExpiryWarnings();
+    }
+
+    public ExpirySweepResponse sweepExpiredUnits() {
+        if (!sweeping.compareAndSet(false, true)) {
+            throw new IllegalStateException("Expiry sweep is already running.");
+        }
+        long startedAt = System.currentTimeMillis();
+        LocalDate today = LocalDate.now();
+        Map<Integer, Integer> expiredByBloodType = new TreeMap<>();
+        int totalExpired = 0;
+        int chunks = 0;
+        try {
+            while (true) {
+                List<BloodUnitSnapshot> chunk = bloodUnitRepository.findSnapshotsByStatusAndExpiryDateBefore(
+                        InventoryStatus.AVAILABLE, today, PageRequest.of(0, chunkSize));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                chunks++;
+                for (BloodUnitSnapshot unit : inventoryService.transitionUnits(chunk, InventoryStatus.AVAILABLE, InventoryStatus.EXPIRED)) {
+                    expiredByBloodType.merge(unit.getBloodTypeId(), 1, Integer::sum);
+                    totalExpired++;
+                }
+                if (chunk.size() < chunkSize) {
+                    break;
+                }
+            }
+        } finally {
+            sweeping.set(false);
+        }
+
+        ExpirySweepResponse response = new ExpirySweepResponse();
+        response.setTotalExpired(totalExpired);
+        response.setChunks(chunks);
+        response.setExpiredByBloodType(expiredByBloodType);
+        response.setSweptAt(LocalDateTime.now());
+        response.setDurationMs(System.currentTimeMillis() - startedAt);
+        if (totalExpired > 0) {
+            logger.info("Expired {} blood units in {} chunks ({} ms), by blood type: {}",
+                    totalExpired, chunks, response.getDurationMs(), expiredByBloodType);
+        }
+        return response;
+    }
+
+    /**
+     * Tính lại cảnh báo sắp hết hạn từ chỉ mục in-memory, không truy vấn bảng blood_units.
+     */
+    @Scheduled(fixedDelayString = "${inventory.expiry.warning-interval-ms:3600000}", initialDelayString = "${inventory.expiry.warning-interval-ms:3600000}")
+    public void refreshNearExpiryWarnings() {
+        List<NearExpiryWarning> warnings = new ArrayList<>();
+        for (BloodType bloodType : bloodTypeRepository.findAll()) {
+            int warningHours = bloodType.getComponentType() == BloodComponentType.PLATELETS
+                    ? plateletWarningHours
+                    : defaultWarningHours;
+            // Hạn dùng tính theo ngày: đơn vị hết hạn vào cuối ngày expiryDate
+            int withinDays = Math.max(0, warningHours / 24 - 1);
+            BloodTypeAvailabilityResponse availability = inventoryIndexService.getAvailability(bloodType.getId(), withinDays);
+            if (availability.getExpiringSoonUnits() == 0) {
+                continue;
+            }
+            NearExpiryWarning warning = new NearExpiryWarning();
+            warning.setBloodTypeId(bloodType.getId());
+            warning.setBloodGroup(bloodType.getBloodGroup());
+            warning.setComponentType(bloodType.getComponentType());
+            warning.setWarningHours(warningHours);
+            warning.setExpiringUnits(availability.getExpiringSoonUnits());
+            warning.setOldestUnitId(availability.getOldestUnitId());
+            warning.setOldestExpiryDate(availability.getOldestExpiryDate());
+            warnings.add(warning);
+            logger.warn("{} unit(s) of {} {} expire within {}h (oldest {} on {}).", warning.getExpiringUnits(),
+                    warning.getBloodGroup(), warning.getComponentType(), warningHours,
+                    warning.getOldestUnitId(), warning.getOldestExpiryDate());
+        }
+        nearExpiryWarnings = List.copyOf(warnings);
+    }
+
+    public List<NearExpiryWarning> getNearExpiryWarnings() {
+        return nearExpiryWarnings;
+    }
+}
@@ -0,0 +1,199 @@
+package com.hicode.backend.service;
+
+import com.hicode.backend.dto.admin.BloodTypeAvailabilityResponse;
+import com.hicode.backend.dto.admin.BloodUnitSnapshot;
+import com.hicode.backend.event.BloodUnitEvent;
+import com.hicode.backend.model.enums.InventoryStatus;
+import com.hicode.backend.repository.BloodUnitRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Chỉ mục in-memory các đơn vị AVAILABLE, chia theo BloodType và sắp theo ngày hết hạn.
+ *
+ * - Giữ/trả (AVAILABLE -> khác / -> AVAILABLE) là thao tác O(log n) trên skip list của nhóm máu đó.
+ * - Đếm theo nhóm máu là O(1), đọc không cần khóa. Số đơn vị sắp hết hạn lấy từ bộ đếm theo ngày hết hạn,
+ *   nên chi phí tỉ lệ với số ngày trong cửa sổ chứ không với số đơn vị.
+ * - Nạp khi khởi động và đối soát định kỳ với DB; các event đến trong lúc nạp được ghi lại và áp dụng lại
+ *   sau khi hoán đổi (các thao tác là idempotent nên áp dụng lặp cũng an toàn).
+ */
+@Service
+public class InventoryIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryIndexService.class);
+
+    private static final Comparator<UnitEntry> EXPIRY_ORDER = Comparator
+            .comparing((UnitEntry e) -> e.expiryDate)
+            .thenComparing(e -> e.id);
+
+    @Autowired
+    private BloodUnitRepository bloodUnitRepository;
+
+    private volatile IndexState state = new IndexState();
+    private boolean rebuilding;
+    private final List<BloodUnitEvent> journal = new ArrayList<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${inventory.index.reconcile-interval-ms:900000}", initialDelayString = "${inventory.index.reconcile-interval-ms:900000}")
+    public void reload() {
+        synchronized (this) {
+            rebuilding = true;
+            journal.clear();
+        }
+        IndexState fresh = new IndexState();
+        try {
+            for (BloodUnitSnapshot unit : bloodUnitRepository.findSnapshotsByStatus(InventoryStatus.AVAILABLE)) {
+                fresh.add(new UnitEntry(unit.getId(), unit.getBloodTypeId(), unit.getExpiryDate()));
+            }
+        } finally {
+            synchronized (this) {
+                for (BloodUnitEvent event : journal) {
+                    apply(fresh, event);
+                }
+                journal.clear();
+                rebuilding = false;
+            }
+        }
+        int drift;
+        synchronized (this) {
+            drift = Math.abs(fresh.byId.size() - state.byId.size());
+            state = fresh;
+        }
+        logger.info("Inventory index loaded with {} available units (drift {}).", fresh.byId.size(), drift);
+    }
+
+    @TransactionalEventListener
+    public void onBloodUnitEvent(BloodUnitEvent event) {
+        synchronized (this) {
+            apply(state, event);
+            if (rebuilding) {
+                journal.add(event);
+            }
+        }
+    }
+
+    public int countAvailable(Integer bloodTypeId) {
+        TypeIndex index = state.byType.get(bloodTypeId);
+        return index == null ? 0 : index.count.get();
+    }
+
+    /**
+     * Số đơn vị AVAILABLE hết hạn trước ngày cho trước (không gồm ngày đó).
+     */
+    public int countExpiringBefore(Integer bloodTypeId, LocalDate date) {
+        TypeIndex index = state.byType.get(bloodTypeId);
+        if (index == null) {
+            return 0;
+        }
+        int count = 0;
+        for (Integer units : index.countByExpiry.headMap(date).values()) {
+            count += units;
+        }
+        return count;
+    }
+
+    public BloodTypeAvailabilityResponse getAvailability(Integer bloodTypeId, int expiringWithinDays) {
+        BloodTypeAvailabilityResponse response = new BloodTypeAvailabilityResponse();
+        response.setBloodTypeId(bloodTypeId);
+        TypeIndex index = state.byType.get(bloodTypeId);
+        if (index == null) {
+            return response;
+        }
+        response.setAvailableUnits(index.count.get());
+        UnitEntry oldest = firstOrNull(index);
+        if (oldest != null) {
+            response.setOldestUnitId(oldest.id);
+            response.setOldestExpiryDate(oldest.expiryDate);
+        }
+        response.setExpiringSoonUnits(countExpiringBefore(bloodTypeId, LocalDate.now().plusDays(expiringWithinDays + 1L)));
+        return response;
+    }
+
+    public List<BloodTypeAvailabilityResponse> getAllAvailability(int expiringWithinDays) {
+        List<BloodTypeAvailabilityResponse> result = new ArrayList<>();
+        for (Integer bloodTypeId : state.byType.keySet()) {
+            result.add(getAvailability(bloodTypeId, expiringWithinDays));
+        }
+        result.sort(Comparator.comparing(BloodTypeAvailabilityResponse::getBloodTypeId));
+        return result;
+    }
+
+    private static UnitEntry firstOrNull(TypeIndex index) {
+        try {
+            return index.byExpiry.first();
+        } catch (NoSuchElementException e) {
+            return null;
+        }
+    }
+
+    private static void apply(IndexState target, BloodUnitEvent event) {
+        if (event.getStatus() == InventoryStatus.AVAILABLE) {
+            target.add(new UnitEntry(event.getUnitId(), event.getBloodTypeId(), event.getExpiryDate()));
+        } else {
+            target.remove(event.getUnitId());
+        }
+    }
+
+    private static final class IndexState {
+        private final Map<String, UnitEntry> byId = new ConcurrentHashMap<>();
+        private final Map<Integer, TypeIndex> byType = new ConcurrentHashMap<>();
+
+        // Trả đơn vị về kho: O(log n)
+        void add(UnitEntry entry) {
+            if (byId.putIfAbsent(entry.id, entry) == null) {
+                TypeIndex index = byType.computeIfAbsent(entry.bloodTypeId, id -> new TypeIndex());
+                index.byExpiry.add(entry);
+                index.countByExpiry.merge(entry.expiryDate, 1, Integer::sum);
+                index.count.incrementAndGet();
+            }
+        }
+
+        // Giữ/lấy đơn vị khỏi kho: O(log n)
+        void remove(String unitId) {
+            UnitEntry entry = byId.remove(unitId);
+            if (entry != null) {
+                TypeIndex index = byType.get(entry.bloodTypeId);
+                if (index != null && index.byExpiry.remove(entry)) {
+                    index.countByExpiry.computeIfPresent(entry.expiryDate, (date, units) -> units == 1 ? null : units - 1);
+                    index.count.decrementAndGet();
+                }
+            }
+        }
+    }
+
+    private static final class TypeIndex {
+        private final ConcurrentSkipListSet<UnitEntry> byExpiry = new ConcurrentSkipListSet<>(EXPIRY_ORDER);
+        // Số đơn vị theo ngày hết hạn; chỉ được ghi khi giữ khóa của service (hoặc trên chỉ mục đang nạp)
+        private final ConcurrentSkipListMap<LocalDate, Integer> countByExpiry = new ConcurrentSkipListMap<>();
+        private final AtomicInteger count = new AtomicInteger();
+    }
+
+    private static final class UnitEntry {
+        private final String id;
+        private final Integer bloodTypeId;
+        private final LocalDate expiryDate;
+
+        private UnitEntry(String id, Integer bloodTypeId, LocalDate expiryDate) {
+            this.id = id;
+            this.bloodTypeId = bloodTypeId;
+            this.expiryDate = expiryDate;
+        }
+    }
+}
@@ -1,42 +1,84 @@
 package com.hicode.backend.service;
 
-import com.hicode.backend.dto.admin.BloodTypeResponse;
 import com.hicode.backend.dto.admin.BloodUnitResponse;
+import com.hicode.backend.dto.admin.BloodUnitSearchCriteria;
+import com.hicode.backend.dto.admin.BloodUnitSnapshot;
 import com.hicode.backend.dto.admin.InventorySummary;
+import com.hicode.backend.dto.admin.UnitStatusUpdateRequest;
+import com.hicode.backend.dto.admin.UnitStatusUpdateResponse;
+import com.hicode.backend.event.BloodUnitEvent;
 import com.hicode.backend.model.entity.BloodType;
 import com.hicode.backend.model.entity.BloodUnit;
 import com.hicode.backend.model.entity.DonationProcess;
+import com.hicode.backend.model.enums.BloodComponentType;
 import com.hicode.backend.model.enums.InventoryStatus;
+import com.hicode.backend.repository.BloodTypeRepository;
+import com.hicode.backend.repository.BloodUnitJdbcRepository;
 import com.hicode.backend.repository.BloodUnitRepository;
-import org.springframework.beans.BeanUtils;
+import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class InventoryService {
 
+    // SQL Server giới hạn 2100 tham số mỗi câu lệnh
+    private static final int IN_CLAUSE_CHUNK = 1000;
+
     @Autowired
     private BloodUnitRepository bloodUnitRepository;
+    @Autowired
+    private BloodUnitJdbcRepository bloodUnitJdbcRepository;
+    @Autowired
+    private BloodTypeRepository bloodTypeRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private InventorySummaryService inventorySummaryService;
+
+    @Value("${inventory.default-location:Main Storage}")
+    private String defaultLocation;
 
+    /**
+     * Nhập một đơn vị vào kho bằng một câu INSERT duy nhất. Khóa chính quyết định ai thắng khi hai người
+     * cùng ghi nhận một mã túi máu: bên thua nhận IllegalStateException (409).
+     */
     @Transactional
     public BloodUnit addUnitToInventory(DonationProcess process, String bloodUnitId) {
-        if (bloodUnitRepository.existsById(bloodUnitId)) {
-            throw new IllegalArgumentException("Blood unit with ID " + bloodUnitId + " already exists.");
-        }
-
         BloodUnit newUnit = new BloodUnit();
         newUnit.setId(bloodUnitId);
         newUnit.setDonationProcess(process);
 
-        BloodType bloodType = process.getDonor().getBloodType();
-        if (bloodType == null) {
+        BloodType donorType = process.getDonor().getBloodType();
+        if (donorType == null) {
             throw new IllegalStateException("Donor's blood type is not set.");
         }
+        // Túi lấy từ người hiến luôn là máu toàn phần, dù hồ sơ người hiến trỏ tới BloodType của chế phẩm nào;
+        // chỉ túi WHOLE_BLOOD mới tách được thành chế phẩm
+        BloodType bloodType = donorType.getComponentType() == BloodComponentType.WHOLE_BLOOD
+                ? donorType
+                : bloodTypeRepository.findByBloodGroupAndComponentType(donorType.getBloodGroup(), BloodComponentType.WHOLE_BLOOD)
+                        .orElseThrow(() -> new IllegalStateException(
+                                "Whole blood type is not configured for blood group " + donorType.getBloodGroup() + "."));
         newUnit.setBloodType(bloodType);
 
         if (process.getCollectedVolumeMl() == null) {
@@ -49,43 +91,167 @@ public class InventoryService {
         newUnit.setExpiryDate(LocalDate.now().plusDays(shelfLife));
 
         newUnit.setStatus(InventoryStatus.AVAILABLE);
-        newUnit.setStorageLocation("Main Storage");
+        newUnit.setStorageLocation(defaultLocation);
 
-        return bloodUnitRepository.save(newUnit);
+        try {
+            bloodUnitJdbcRepository.insert(newUnit);
+        } catch (DuplicateKeyException e) {
+            throw new IllegalStateException("Blood unit with ID " + bloodUnitId + " already exists.");
+        }
+        eventPublisher.publishEvent(new BloodUnitEvent(newUnit.getId(), bloodType.getId(), newUnit.getVolumeMl(),
+                newUnit.getExpiryDate(), newUnit.getStorageLocation(), null, null, newUnit.getStatus()));
+        return newUnit;
     }
 
-    public List<BloodUnitResponse> getAllInventory() {
-        return bloodUnitRepository.findAll().stream()
-                .map(this::mapToBloodUnitResponse)
-                .collect(Collectors.toList());
+    /**
+     * Đổi trạng thái hàng loạt bằng một câu UPDATE có điều kiện, rồi phát BloodUnitEvent cho các đơn vị
+     * thực sự được đổi. Trả về danh sách các đơn vị đó.
+     */
+    @Transactional
+    public List<BloodUnitSnapshot> transitionUnits(List<BloodUnitSnapshot> units, InventoryStatus from, InventoryStatus to) {
+        if (units.isEmpty()) {
+            return units;
+        }
+        List<String> ids = units.stream().map(BloodUnitSnapshot::getId).collect(Collectors.toList());
+        int updated = bloodUnitRepository.transitionStatus(ids, from, to);
+
+        List<BloodUnitSnapshot> transitioned = units;
+        if (updated != units.size()) {
+            // Một số đơn vị vừa bị transaction khác đổi trạng thái, đọc lại để chỉ phát event cho phần đã đổi
+            transitioned = bloodUnitRepository.findSnapshotsByIdIn(ids).stream()
+                    .filter(unit -> unit.getStatus() == to)
+                    .collect(Collectors.toList());
+        }
+        for (BloodUnitSnapshot unit : transitioned) {
+            eventPublisher.publishEvent(BloodUnitEvent.transition(unit, from, to));
+        }
+        return transitioned;
     }
 
-    // --- CÁC PHƯƠNG THỨC MỚI ---
+    /**
+     * Ghi nhận một lô đơn vị đã dùng (USED) hoặc đã hủy (DISPOSED). Cả lô bị hủy nếu có đơn vị
+     * không ở trạng thái cho phép hoặc vừa bị đổi trạng thái bởi transaction khác.
+     */
+    @Transactional
+    public UnitStatusUpdateResponse updateUnitStatus(UnitStatusUpdateRequest request) {
+        InventoryStatus target = request.getStatus();
+        if (target != InventoryStatus.USED && target != InventoryStatus.DISPOSED) {
+            throw new IllegalArgumentException("Only USED or DISPOSED can be recorded manually.");
+        }
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(request.getUnitIds()));
+        Map<String, BloodUnitSnapshot> units = bloodUnitRepository.findSnapshotsByIdIn(ids).stream()
+                .collect(Collectors.toMap(BloodUnitSnapshot::getId, Function.identity()));
 
-    public List<InventorySummary> getInventorySummary() {
-        return bloodUnitRepository.getInventorySummary();
+        Map<InventoryStatus, List<BloodUnitSnapshot>> byStatus = new EnumMap<>(InventoryStatus.class);
+        for (String id : ids) {
+            BloodUnitSnapshot unit = units.get(id);
+            if (unit == null) {
+                throw new EntityNotFoundException("Blood unit not found with id: " + id);
+            }
+            boolean allowed = unit.getStatus() == InventoryStatus.AVAILABLE || unit.getStatus() == InventoryStatus.RESERVED
+                    || (target == InventoryStatus.DISPOSED
+                    && (unit.getStatus() == InventoryStatus.EXPIRED || unit.getStatus() == InventoryStatus.QUARANTINED));
+            if (!allowed) {
+                throw new IllegalStateException("Blood unit " + id + " is " + unit.getStatus() + " and cannot be marked " + target + ".");
+            }
+            byStatus.computeIfAbsent(unit.getStatus(), status -> new ArrayList<>()).add(unit);
+        }
+
+        int updated = 0;
+        for (Map.Entry<InventoryStatus, List<BloodUnitSnapshot>> group : byStatus.entrySet()) {
+            updated += transitionUnits(group.getValue(), group.getKey(), target).size();
+        }
+        if (updated != ids.size()) {
+            throw new IllegalStateException("Some blood units changed status during the update. Please retry.");
+        }
+
+        UnitStatusUpdateResponse response = new UnitStatusUpdateResponse();
+        response.setStatus(target);
+        response.setUpdatedUnits(updated);
+        response.setUnitIds(ids);
+        return response;
     }
 
-    public List<BloodUnitResponse> getRecentAdditions() {
-        return bloodUnitRepository.findTop10ByOrderByCollectionDateDesc().stream()
-                .map(this::mapToBloodUnitResponse)
-                .collect(Collectors.toList());
+    /**
+     * Đưa các đơn vị AVAILABLE/RESERVED trong danh sách vào QUARANTINED (theo lô, mỗi câu UPDATE có điều kiện
+     * theo trạng thái đã đọc). Đơn vị ở trạng thái khác được bỏ qua. Trả về các đơn vị thực sự bị cách ly.
+     */
+    @Transactional
+    public List<BloodUnitSnapshot> quarantineUnits(List<BloodUnitSnapshot> units, String reason) {
+        List<BloodUnitSnapshot> quarantined = new ArrayList<>();
+        for (InventoryStatus from : List.of(InventoryStatus.AVAILABLE, InventoryStatus.RESERVED)) {
+            List<BloodUnitSnapshot> group = units.stream().filter(unit -> unit.getStatus() == from).collect(Collectors.toList());
+            for (int i = 0; i < group.size(); i += IN_CLAUSE_CHUNK) {
+                List<BloodUnitSnapshot> chunk = group.subList(i, Math.min(group.size(), i + IN_CLAUSE_CHUNK));
+                List<String> ids = chunk.stream().map(BloodUnitSnapshot::getId).collect(Collectors.toList());
+                int updated = bloodUnitRepository.quarantine(ids, from, reason);
+                List<BloodUnitSnapshot> changed = chunk;
+                if (updated != chunk.size()) {
+                    changed = bloodUnitRepository.findSnapshotsByIdIn(ids).stream()
+                            .filter(unit -> unit.getStatus() == InventoryStatus.QUARANTINED)
+                            .collect(Collectors.toList());
+                }
+                for (BloodUnitSnapshot unit : changed) {
+                    eventPublisher.publishEvent(BloodUnitEvent.transition(unit, from, InventoryStatus.QUARANTINED));
+                }
+                quarantined.addAll(changed);
+            }
+        }
+        return quarantined;
     }
 
-    // --- HÀM HELPER ---
-    private BloodUnitResponse mapToBloodUnitResponse(BloodUnit entity) {
-        BloodUnitResponse response = new BloodUnitResponse();
-        BeanUtils.copyProperties(entity, response, "bloodType", "donationProcess");
+    /**
+     * Trả các đơn vị QUARANTINED đã được kiểm tra đạt về AVAILABLE. Cả lô bị hủy nếu có đơn vị không ở QUARANTINED.
+     */
+    @Transactional
+    public UnitStatusUpdateResponse releaseQuarantine(List<String> unitIds) {
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(unitIds));
+        List<BloodUnitSnapshot> units = bloodUnitRepository.findSnapshotsByIdIn(ids);
+        if (units.size() != ids.size()) {
+            Set<String> found = units.stream().map(BloodUnitSnapshot::getId).collect(Collectors.toSet());
+            String missing = ids.stream().filter(id -> !found.contains(id)).findFirst().orElse("");
+            throw new EntityNotFoundException("Blood unit not found with id: " + missing);
+        }
+        for (BloodUnitSnapshot unit : units) {
+            if (unit.getStatus() != InventoryStatus.QUARANTINED) {
+                throw new IllegalStateException("Blood unit " + unit.getId() + " is not quarantined.");
+            }
+        }
+        if (bloodUnitRepository.releaseQuarantine(ids) != ids.size()) {
+            throw new IllegalStateException("Some blood units changed status during the release. Please retry.");
+        }
+        for (BloodUnitSnapshot unit : units) {
+            eventPublisher.publishEvent(BloodUnitEvent.transition(unit, InventoryStatus.QUARANTINED, InventoryStatus.AVAILABLE));
+        }
 
-        // Map BloodType
-        BloodTypeResponse btResponse = new BloodTypeResponse();
-        BeanUtils.copyProperties(entity.getBloodType(), btResponse);
-        response.setBloodType(btResponse);
+        UnitStatusUpdateResponse response = new UnitStatusUpdateResponse();
+        response.setStatus(InventoryStatus.AVAILABLE);
+        response.setUpdatedUnits(ids.size());
+        response.setUnitIds(ids);
+        return response;
+    }
 
-        // Map Donor Info
-        response.setDonorId(entity.getDonationProcess().getDonor().getId());
-        response.setDonorName(entity.getDonationProcess().getDonor().getFullName());
+    public List<BloodUnitResponse> getAllInventory() {
+        return bloodUnitRepository.searchProjected(new BloodUnitSearchCriteria(), Pageable.unpaged());
+    }
 
-        return response;
+    /**
+     * Danh sách kho có phân trang và bộ lọc, lấy bằng một câu projection (không tải entity người hiến).
+     * COUNT chỉ chạy khi không suy ra được tổng từ trang hiện tại.
+     */
+    public Page<BloodUnitResponse> searchInventory(BloodUnitSearchCriteria criteria, Pageable pageable) {
+        List<BloodUnitResponse> content = bloodUnitRepository.searchProjected(criteria, pageable);
+        return PageableExecutionUtils.getPage(content, pageable, () -> bloodUnitRepository.countMatching(criteria));
+    }
+
+    // --- CÁC PHƯƠNG THỨC MỚI ---
+
+    public List<InventorySummary> getInventorySummary() {
+        return inventorySummaryService.getSnapshot().getItems();
+    }
+
+    public List<BloodUnitResponse> getRecentAdditions() {
+        return bloodUnitRepository.searchProjected(new BloodUnitSearchCriteria(),
+                PageRequest.of(0, 10, Sort.by("collectionDate").descending()));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,160 @@
+package com.hicode.backend.service;
+
+import com.hicode.backend.dto.admin.InventoryTrendPoint;
+import com.hicode.backend.model.entity.BloodType;
+import com.hicode.backend.model.entity.InventorySnapshot;
+import com.hicode.backend.model.enums.TrendGranularity;
+import com.hicode.backend.repository.BloodTypeRepository;
+import com.hicode.backend.repository.BloodUnitRepository;
+import com.hicode.backend.repository.InventorySnapshotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ghi snapshot tồn kho mỗi ngày (một dòng cho mỗi BloodType) và phục vụ biểu đồ xu hướng từ các snapshot này,
+ * không tổng hợp lại lịch sử blood_units.
+ */
+@Service
+public class InventorySnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventorySnapshotService.class);
+    private static final long MAX_TREND_DAYS = 3 * 366;
+
+    @Autowired
+    private InventorySnapshotRepository snapshotRepository;
+    @Autowired
+    private BloodUnitRepository bloodUnitRepository;
+    @Autowired
+    private BloodTypeRepository bloodTypeRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${inventory.snapshot.expiring-soon-days:3}")
+    private int expiringSoonDays;
+
+    @Scheduled(cron = "${inventory.snapshot.cron:0 30 0 * * ?}")
+    public void scheduledSnapshot() {
+        // Gọi nội bộ không đi qua proxy @Transactional, nên mở giao dịch tường minh cho deleteBySnapshotDate
+        transactionTemplate.execute(status -> takeSnapshot());
+    }
+
+    /**
+     * Chụp tồn kho hiện tại cho ngày hôm nay. Chạy lại trong cùng ngày sẽ ghi đè snapshot cũ.
+     */
+    @Transactional
+    public int takeSnapshot() {
+        LocalDate today = LocalDate.now();
+        Map<Integer, Object[]> stockByType = new HashMap<>();
+        for (Object[] row : bloodUnitRepository.aggregateStockByBloodTypeId(today, today.plusDays(expiringSoonDays + 1L))) {
+            stockByType.put((Integer) row[0], row);
+        }
+
+        snapshotRepository.deleteBySnapshotDate(today);
+        List<InventorySnapshot> snapshots = new ArrayList<>();
+        // Ghi cả nhóm máu hết hàng để biểu đồ không bị đứt đoạn
+        for (BloodType bloodType : bloodTypeRepository.findAll()) {
+            Object[] row = stockByType.get(bloodType.getId());
+            InventorySnapshot snapshot = new InventorySnapshot();
+            snapshot.setSnapshotDate(today);
+            snapshot.setBloodType(bloodType);
+            snapshot.setAvailableUnits(row == null ? 0 : toInt(row[1]));
+            snapshot.setAvailableVolumeMl(row == null ? 0L : toLong(row[2]));
+            snapshot.setExpiringSoonUnits(row == null ? 0 : toInt(row[3]));
+            snapshot.setReservedUnits(row == null ? 0 : toInt(row[4]));
+            snapshots.add(snapshot);
+        }
+        snapshotRepository.saveAll(snapshots);
+        logger.info("Recorded inventory snapshot for {} with {} blood types.", today, snapshots.size());
+        return snapshots.size();
+    }
+
+    @Transactional(readOnly = true)
+    public List<InventoryTrendPoint> getTrend(LocalDate from, LocalDate to, Integer bloodTypeId, TrendGranularity granularity) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'.");
+        }
+        if (ChronoUnit.DAYS.between(from, to) > MAX_TREND_DAYS) {
+            throw new IllegalArgumentException("Trend range must not exceed " + MAX_TREND_DAYS + " days.");
+        }
+        List<InventorySnapshot> snapshots = bloodTypeId != null
+                ? snapshotRepository.findInRangeByBloodTypeId(bloodTypeId, from, to)
+                : snapshotRepository.findInRange(from, to);
+
+        // Các snapshot đã được sắp theo (bloodTypeId, snapshotDate), nên mỗi kỳ là một đoạn liên tiếp
+        List<InventoryTrendPoint> points = new ArrayList<>();
+        InventoryTrendPoint current = null;
+        long expiringSum = 0;
+        long reservedSum = 0;
+        long availableSum = 0;
+        for (InventorySnapshot snapshot : snapshots) {
+            Integer typeId = snapshot.getBloodType().getId();
+            LocalDate periodStart = periodStart(snapshot.getSnapshotDate(), granularity);
+            if (current == null || !current.getBloodTypeId().equals(typeId) || !current.getPeriodStart().equals(periodStart)) {
+                if (current != null) {
+                    finishPoint(current, availableSum, expiringSum, reservedSum);
+                    points.add(current);
+                }
+                current = new InventoryTrendPoint();
+                current.setBloodTypeId(typeId);
+                current.setPeriodStart(periodStart);
+                current.setMinAvailableUnits(Integer.MAX_VALUE);
+                availableSum = 0;
+                expiringSum = 0;
+                reservedSum = 0;
+            }
+            int available = snapshot.getAvailableUnits();
+            current.setDays(current.getDays() + 1);
+            current.setMinAvailableUnits(Math.min(current.getMinAvailableUnits(), available));
+            current.setMaxAvailableUnits(Math.max(current.getMaxAvailableUnits(), available));
+            current.setClosingAvailableUnits(available);
+            current.setClosingAvailableVolumeMl(snapshot.getAvailableVolumeMl());
+            availableSum += available;
+            expiringSum += snapshot.getExpiringSoonUnits();
+            reservedSum += snapshot.getReservedUnits();
+        }
+        if (current != null) {
+            finishPoint(current, availableSum, expiringSum, reservedSum);
+            points.add(current);
+        }
+        return points;
+    }
+
+    private static void finishPoint(InventoryTrendPoint point, long availableSum, long expiringSum, long reservedSum) {
+        point.setAvgAvailableUnits((double) availableSum / point.getDays());
+        point.setAvgExpiringSoonUnits((double) expiringSum / point.getDays());
+        point.setAvgReservedUnits((double) reservedSum / point.getDays());
+    }
+
+    private static LocalDate periodStart(LocalDate date, TrendGranularity granularity) {
+        if (granularity == TrendGranularity.WEEK) {
+            return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        }
+        if (granularity == TrendGranularity.MONTH) {
+            return date.withDayOfMonth(1);
+        }
+        return date;
+    }
+
+    private static int toInt(Object value) {
+        return value == null ? 0 : ((Number) value).intValue();
+    }
+
+    private static long toLong(Object value) {
+        return value == null ? 0L : ((Number) value).longValue();
+    }
+}
@@ -0,0 +1,253 @@
+package com.hicode.backend.service;
+
+import com.hicode.backend.dto.admin.BloodTypeResponse;
+import com.hicode.backend.dto.admin.InventorySummary;
+import com.hicode.backend.event.BloodUnitEvent;
+import com.hicode.backend.model.entity.BloodType;
+import com.hicode.backend.model.enums.InventoryStatus;
+import com.hicode.backend.repository.BloodTypeRepository;
+import com.hicode.backend.repository.BloodUnitRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bảng tổng hợp tồn kho (số đơn vị và tổng thể tích AVAILABLE theo BloodType) giữ trong bộ nhớ,
+ * chia theo kho lưu trữ.
+ *
+ * - Cộng/trừ theo từng BloodUnitEvent sau khi commit, mỗi thay đổi tăng version của kho bị ảnh hưởng.
+ * - Đọc không chạm DB: trả về snapshot bất biến (toàn hệ thống hoặc một kho), chỉ dựng lại khi version đã đổi.
+ * - Đối soát định kỳ với câu GROUP BY; nếu có event xen vào trong lúc truy vấn thì thử lại,
+ *   vì bộ đếm không idempotent như chỉ mục nên không thể áp dụng lại event như InventoryIndexService.
+ */
+@Service
+public class InventorySummaryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventorySummaryService.class);
+    private static final int MAX_RECONCILE_ATTEMPTS = 3;
+
+    @Autowired
+    private BloodUnitRepository bloodUnitRepository;
+    @Autowired
+    private BloodTypeRepository bloodTypeRepository;
+
+    // Đơn vị cũ chưa có storage_location được tính vào kho mặc định
+    @Value("${inventory.default-location:Main Storage}")
+    private String defaultLocation;
+
+    private final Map<Integer, BloodTypeResponse> bloodTypes = new HashMap<>();
+    // kho -> BloodType -> [số đơn vị, tổng thể tích]
+    private final Map<String, Map<Integer, long[]>> totals = new HashMap<>();
+    private final Map<String, Long> locationVersions = new ConcurrentHashMap<>();
+    private final Map<String, Snapshot> locationSnapshots = new ConcurrentHashMap<>();
+    // Bắt đầu từ thời điểm khởi động để ETag không trùng với ETag cấp trước khi restart
+    private volatile long version = System.currentTimeMillis();
+    // Version của lần đối soát gần nhất, dùng cho kho chưa có thay đổi nào kể từ đó
+    private volatile long baseVersion = version;
+    private volatile Snapshot snapshot = new Snapshot(-1, List.of());
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${inventory.summary.reconcile-interval-ms:600000}", initialDelayString = "${inventory.summary.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        Map<Integer, BloodTypeResponse> types = new HashMap<>();
+        for (BloodType bloodType : bloodTypeRepository.findAll()) {
+            types.put(bloodType.getId(), toResponse(bloodType));
+        }
+
+        for (int attempt = 0; attempt < MAX_RECONCILE_ATTEMPTS; attempt++) {
+            long startVersion;
+            synchronized (this) {
+                startVersion = version;
+            }
+            Map<String, Map<Integer, long[]>> fresh = new HashMap<>();
+            for (Object[] row : bloodUnitRepository.sumAvailableByLocationAndBloodTypeId()) {
+                long volume = row[3] == null ? 0L : ((Number) row[3]).longValue();
+                fresh.computeIfAbsent(location((String) row[0]), key -> new HashMap<>())
+                        .put((Integer) row[1], new long[]{((Number) row[2]).longValue(), volume});
+            }
+
+            synchronized (this) {
+                if (version != startVersion) {
+                    continue;
+                }
+                long drift = 0;
+                for (String location : union(fresh, totals)) {
+                    Map<Integer, long[]> expected = fresh.getOrDefault(location, Map.of());
+                    Map<Integer, long[]> actual = totals.getOrDefault(location, Map.of());
+                    for (Integer id : union(expected, actual)) {
+                        drift += Math.abs(expected.getOrDefault(id, new long[2])[0] - actual.getOrDefault(id, new long[2])[0]);
+                    }
+                }
+                bloodTypes.putAll(types);
+                totals.clear();
+                totals.putAll(fresh);
+                version++;
+                baseVersion = version;
+                locationVersions.clear();
+                locationSnapshots.clear();
+                if (drift > 0) {
+                    logger.warn("Inventory summary reconciled with a drift of {} units.", drift);
+                }
+                return;
+            }
+        }
+        logger.info("Inventory summary reconciliation skipped: inventory kept changing during the aggregate query.");
+    }
+
+    @TransactionalEventListener
+    public void onBloodUnitEvent(BloodUnitEvent event) {
+        boolean wasAvailable = event.getPreviousStatus() == InventoryStatus.AVAILABLE;
+        boolean isAvailable = event.getStatus() == InventoryStatus.AVAILABLE;
+        if (wasAvailable == isAvailable && !(isAvailable && event.isTransfer())) {
+            return;
+        }
+        boolean knownType;
+        synchronized (this) {
+            knownType = bloodTypes.containsKey(event.getBloodTypeId());
+        }
+        BloodTypeResponse type = knownType ? null
+                : bloodTypeRepository.findById(event.getBloodTypeId()).map(this::toResponse).orElse(null);
+        long volume = event.getVolumeMl() == null ? 0 : event.getVolumeMl();
+        synchronized (this) {
+            if (type != null) {
+                bloodTypes.putIfAbsent(type.getId(), type);
+            }
+            version++;
+            if (wasAvailable) {
+                add(location(event.getPreviousStorageLocation() != null ? event.getPreviousStorageLocation() : event.getStorageLocation()),
+                        event.getBloodTypeId(), -1, -volume);
+            }
+            if (isAvailable) {
+                add(location(event.getStorageLocation()), event.getBloodTypeId(), 1, volume);
+            }
+        }
+    }
+
+    /**
+     * Snapshot toàn hệ thống. Chỉ dựng lại danh sách khi có thay đổi kể từ lần đọc trước.
+     */
+    public Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (current.version == version) {
+            return current;
+        }
+        synchronized (this) {
+            Map<Integer, long[]> merged = new HashMap<>();
+            for (Map<Integer, long[]> byType : totals.values()) {
+                for (Map.Entry<Integer, long[]> entry : byType.entrySet()) {
+                    long[] total = merged.computeIfAbsent(entry.getKey(), id -> new long[2]);
+                    total[0] += entry.getValue()[0];
+                    total[1] += entry.getValue()[1];
+                }
+            }
+            current = new Snapshot(version, toItems(merged));
+            snapshot = current;
+            return current;
+        }
+    }
+
+    /**
+     * Snapshot của một kho; version chỉ đổi khi chính kho đó có thay đổi.
+     */
+    public Snapshot getSnapshot(String location) {
+        long locationVersion = locationVersions.getOrDefault(location, baseVersion);
+        Snapshot current = locationSnapshots.get(location);
+        if (current != null && current.version == locationVersion) {
+            return current;
+        }
+        synchronized (this) {
+            locationVersion = locationVersions.getOrDefault(location, baseVersion);
+            current = new Snapshot(locationVersion, toItems(totals.getOrDefault(location, Map.of())));
+            locationSnapshots.put(location, current);
+            return current;
+        }
+    }
+
+    /**
+     * Tổng [số đơn vị, tổng thể tích] AVAILABLE của từng kho.
+     */
+    public synchronized Map<String, long[]> getLocationTotals() {
+        Map<String, long[]> result = new HashMap<>();
+        for (Map.Entry<String, Map<Integer, long[]>> entry : totals.entrySet()) {
+            long[] total = new long[2];
+            for (long[] value : entry.getValue().values()) {
+                total[0] += value[0];
+                total[1] += value[1];
+            }
+            result.put(entry.getKey(), total);
+        }
+        return result;
+    }
+
+    private void add(String location, Integer bloodTypeId, long units, long volume) {
+        long[] total = totals.computeIfAbsent(location, key -> new HashMap<>())
+                .computeIfAbsent(bloodTypeId, id -> new long[2]);
+        total[0] += units;
+        total[1] += volume;
+        locationVersions.put(location, version);
+    }
+
+    private List<InventorySummary> toItems(Map<Integer, long[]> byType) {
+        List<InventorySummary> items = new ArrayList<>();
+        for (Map.Entry<Integer, long[]> entry : byType.entrySet()) {
+            BloodTypeResponse type = bloodTypes.get(entry.getKey());
+            if (type != null && entry.getValue()[0] > 0) {
+                items.add(new InventorySummary(type, entry.getValue()[0], entry.getValue()[1]));
+            }
+        }
+        items.sort(Comparator.comparing(item -> item.getBloodType().getId()));
+        return List.copyOf(items);
+    }
+
+    private String location(String storageLocation) {
+        return storageLocation == null ? defaultLocation : storageLocation;
+    }
+
+    private static <K> List<K> union(Map<K, ?> a, Map<K, ?> b) {
+        List<K> ids = new ArrayList<>(a.keySet());
+        for (K id : b.keySet()) {
+            if (!a.containsKey(id)) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    private BloodTypeResponse toResponse(BloodType bloodType) {
+        BloodTypeResponse response = new BloodTypeResponse();
+        BeanUtils.copyProperties(bloodType, response);
+        return response;
+    }
+
+    public static final class Snapshot {
+        private final long version;
+        private final List<InventorySummary> items;
+
+        private Snapshot(long version, List<InventorySummary> items) {
+            this.version = version;
+            this.items = items;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public List<InventorySummary> getItems() {
+            return items;
+        }
+    }
+}
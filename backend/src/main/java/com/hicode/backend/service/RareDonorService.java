@@ -0,0 +1,261 @@
+package com.hicode.backend.service;
+
+import com.hicode.backend.dto.admin.AntigenProfileRequest;
+import com.hicode.backend.dto.admin.AntigenProfileResponse;
+import com.hicode.backend.dto.admin.RareDonorMatch;
+import com.hicode.backend.dto.admin.RareDonorSearchRequest;
+import com.hicode.backend.model.entity.DonorAntigenProfile;
+import com.hicode.backend.model.entity.User;
+import com.hicode.backend.model.enums.RedCellAntigen;
+import com.hicode.backend.model.enums.UserStatus;
+import com.hicode.backend.repository.DonorAntigenProfileRepository;
+import com.hicode.backend.repository.UserRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Tìm người hiến hiếm: âm tính với một tập kháng nguyên hồng cầu và tương thích ABO/Rh với người nhận.
+ *
+ * Hồ sơ kháng nguyên được giữ trong một chỉ mục dạng cột (mảng donorId, testedMask, positiveMask, bloodTypeId
+ * song song, sắp theo donorId). Một lượt tìm là một vòng quét tuyến tính chỉ gồm phép AND trên long, sau đó
+ * chỉ vài người khớp mới được nạp từ DB để lọc trạng thái sẵn sàng hiến.
+ */
+@Service
+public class RareDonorService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RareDonorService.class);
+    private static final int HYDRATE_CHUNK = 1000;
+
+    @Autowired
+    private DonorAntigenProfileRepository profileRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CompatibilityMatrixService compatibilityMatrixService;
+
+    @Value("${rare-donor.default-limit:50}")
+    private int defaultLimit;
+
+    private volatile AntigenIndex index = AntigenIndex.EMPTY;
+
+    /**
+     * Nạp lại toàn bộ chỉ mục; chạy định kỳ để cập nhật nhóm máu người hiến thay đổi ngoài luồng hồ sơ kháng nguyên.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${rare-donor.reload-interval-ms:600000}", initialDelayString = "${rare-donor.reload-interval-ms:600000}")
+    public synchronized void reload() {
+        List<Object[]> rows = profileRepository.findIndexRows();
+        rows.sort(Comparator.comparing(row -> (Long) row[0]));
+        int size = rows.size();
+        long[] donorIds = new long[size];
+        long[] tested = new long[size];
+        long[] positive = new long[size];
+        int[] bloodTypeIds = new int[size];
+        for (int i = 0; i < size; i++) {
+            Object[] row = rows.get(i);
+            donorIds[i] = (Long) row[0];
+            tested[i] = (Long) row[1];
+            positive[i] = (Long) row[2];
+            bloodTypeIds[i] = row[3] == null ? -1 : (Integer) row[3];
+        }
+        index = new AntigenIndex(donorIds, tested, positive, bloodTypeIds);
+        logger.info("Rare donor antigen index loaded with {} profiles.", size);
+    }
+
+    @Transactional
+    public AntigenProfileResponse updateProfile(Long donorId, AntigenProfileRequest request) {
+        User donor = userRepository.findById(donorId)
+                .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + donorId));
+        Set<RedCellAntigen> overlap = EnumSet.noneOf(RedCellAntigen.class);
+        overlap.addAll(request.getPositive());
+        overlap.retainAll(request.getNegative());
+        if (!overlap.isEmpty()) {
+            throw new IllegalArgumentException("Antigens cannot be both positive and negative: " + overlap);
+        }
+
+        DonorAntigenProfile profile = profileRepository.findById(donorId).orElseGet(() -> {
+            DonorAntigenProfile fresh = new DonorAntigenProfile();
+            fresh.setDonorId(donorId);
+            return fresh;
+        });
+        long positiveMask = RedCellAntigen.mask(request.getPositive());
+        profile.setPositiveMask(positiveMask);
+        profile.setTestedMask(positiveMask | RedCellAntigen.mask(request.getNegative()));
+        DonorAntigenProfile saved = profileRepository.save(profile);
+
+        int bloodTypeId = donor.getBloodType() == null ? -1 : donor.getBloodType().getId();
+        long tested = saved.getTestedMask();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                upsert(donorId, tested, positiveMask, bloodTypeId);
+            }
+        });
+        return toResponse(saved);
+    }
+
+    public AntigenProfileResponse getProfile(Long donorId) {
+        DonorAntigenProfile profile = profileRepository.findById(donorId)
+                .orElseThrow(() -> new EntityNotFoundException("Antigen profile not found for user id: " + donorId));
+        return toResponse(profile);
+    }
+
+    /**
+     * Người hiến âm tính với mọi kháng nguyên yêu cầu, theo thứ tự donorId. Mặc định chỉ lấy người đang
+     * hoạt động và sẵn sàng hiến.
+     */
+    @Transactional(readOnly = true)
+    public List<RareDonorMatch> search(RareDonorSearchRequest request) {
+        long mask = RedCellAntigen.mask(request.getAntigenNegative());
+        Integer recipientTypeId = request.getRecipientBloodTypeId();
+        int limit = request.getLimit() != null ? request.getLimit() : defaultLimit;
+
+        AntigenIndex current = index;
+        List<Long> candidates = new ArrayList<>();
+        for (int i = 0; i < current.donorIds.length; i++) {
+            if ((current.tested[i] & mask) != mask || (current.positive[i] & mask) != 0) {
+                continue;
+            }
+            if (recipientTypeId != null && (current.bloodTypeIds[i] < 0
+                    || !compatibilityMatrixService.canDonorSupply(current.bloodTypeIds[i], recipientTypeId))) {
+                continue;
+            }
+            candidates.add(current.donorIds[i]);
+        }
+
+        List<RareDonorMatch> matches = new ArrayList<>();
+        for (int i = 0; i < candidates.size() && matches.size() < limit; i += HYDRATE_CHUNK) {
+            List<Long> chunk = candidates.subList(i, Math.min(candidates.size(), i + HYDRATE_CHUNK));
+            Map<Long, User> users = userRepository.findAllById(chunk).stream()
+                    .collect(Collectors.toMap(User::getId, Function.identity()));
+            for (Long donorId : chunk) {
+                User user = users.get(donorId);
+                if (user == null || (!request.isIncludeNotReady()
+                        && (user.getStatus() != UserStatus.ACTIVE || !Boolean.TRUE.equals(user.getIsReadyToDonate())))) {
+                    continue;
+                }
+                int position = current.positionOf(donorId);
+                matches.add(toMatch(user, current.tested[position], current.positive[position]));
+                if (matches.size() >= limit) {
+                    break;
+                }
+            }
+        }
+        return matches;
+    }
+
+    private synchronized void upsert(long donorId, long tested, long positive, int bloodTypeId) {
+        index = index.with(donorId, tested, positive, bloodTypeId);
+    }
+
+    private RareDonorMatch toMatch(User user, long testedMask, long positiveMask) {
+        RareDonorMatch match = new RareDonorMatch();
+        match.setDonorId(user.getId());
+        match.setFullName(user.getFullName());
+        match.setPhone(user.getPhone());
+        match.setEmail(user.getEmail());
+        match.setBloodGroup(user.getBloodType() != null ? user.getBloodType().getBloodGroup() : null);
+        match.setIsReadyToDonate(user.getIsReadyToDonate());
+        match.setLastDonationDate(user.getLastDonationDate());
+        match.setPositive(antigens(positiveMask));
+        match.setNegative(antigens(testedMask & ~positiveMask));
+        return match;
+    }
+
+    private static AntigenProfileResponse toResponse(DonorAntigenProfile profile) {
+        AntigenProfileResponse response = new AntigenProfileResponse();
+        response.setDonorId(profile.getDonorId());
+        response.setPositive(antigens(profile.getPositiveMask()));
+        response.setNegative(antigens(profile.getTestedMask() & ~profile.getPositiveMask()));
+        response.setUpdatedAt(profile.getUpdatedAt());
+        return response;
+    }
+
+    private static List<RedCellAntigen> antigens(long mask) {
+        List<RedCellAntigen> antigens = new ArrayList<>();
+        for (RedCellAntigen antigen : RedCellAntigen.values()) {
+            if ((mask & antigen.bit()) != 0) {
+                antigens.add(antigen);
+            }
+        }
+        return antigens;
+    }
+
+    /**
+     * Chỉ mục bất biến; cập nhật tạo bản sao mới (copy-on-write) vì hồ sơ kháng nguyên hiếm khi thay đổi.
+     */
+    private static final class AntigenIndex {
+        private static final AntigenIndex EMPTY = new AntigenIndex(new long[0], new long[0], new long[0], new int[0]);
+
+        private final long[] donorIds;
+        private final long[] tested;
+        private final long[] positive;
+        private final int[] bloodTypeIds;
+
+        private AntigenIndex(long[] donorIds, long[] tested, long[] positive, int[] bloodTypeIds) {
+            this.donorIds = donorIds;
+            this.tested = tested;
+            this.positive = positive;
+            this.bloodTypeIds = bloodTypeIds;
+        }
+
+        AntigenIndex with(long donorId, long testedMask, long positiveMask, int bloodTypeId) {
+            int position = Arrays.binarySearch(donorIds, donorId);
+            if (position >= 0) {
+                long[] newTested = tested.clone();
+                long[] newPositive = positive.clone();
+                int[] newTypes = bloodTypeIds.clone();
+                newTested[position] = testedMask;
+                newPositive[position] = positiveMask;
+                newTypes[position] = bloodTypeId;
+                return new AntigenIndex(donorIds, newTested, newPositive, newTypes);
+            }
+            int insertAt = -position - 1;
+            return new AntigenIndex(
+                    insert(donorIds, insertAt, donorId),
+                    insert(tested, insertAt, testedMask),
+                    insert(positive, insertAt, positiveMask),
+                    insert(bloodTypeIds, insertAt, bloodTypeId));
+        }
+
+        int positionOf(long donorId) {
+            return Arrays.binarySearch(donorIds, donorId);
+        }
+
+        private static long[] insert(long[] source, int at, long value) {
+            long[] target = new long[source.length + 1];
+            System.arraycopy(source, 0, target, 0, at);
+            target[at] = value;
+            System.arraycopy(source, at, target, at + 1, source.length - at);
+            return target;
+        }
+
+        private static int[] insert(int[] source, int at, int value) {
+            int[] target = new int[source.length + 1];
+            System.arraycopy(source, 0, target, 0, at);
+            target[at] = value;
+            System.arraycopy(source, at, target, at + 1, source.length - at);
+            return target;
+        }
+    }
+}
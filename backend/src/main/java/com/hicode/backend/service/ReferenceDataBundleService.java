@@ -0,0 +1,116 @@
+package com.hicode.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hicode.backend.dto.admin.BloodTypeResponse;
+import com.hicode.backend.dto.admin.ReferenceDataBundle;
+import com.hicode.backend.event.ReferenceDataChangedEvent;
+import com.hicode.backend.repository.BloodTypeCompatibilityRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gói dữ liệu tham chiếu (mọi nhóm máu và toàn bộ quy tắc tương thích) dựng sẵn trong bộ nhớ.
+ *
+ * Gói được serialize sẵn thành JSON và bản gzip; phiên bản là SHA-256 của JSON nên cùng nội dung luôn cho
+ * cùng URL và có thể cache vĩnh viễn ở trình duyệt/CDN. Chỉ dựng lại khi BloodManagementService thay đổi dữ liệu.
+ */
+@Service
+public class ReferenceDataBundleService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceDataBundleService.class);
+
+    @Autowired
+    private BloodManagementService bloodManagementService;
+    @Autowired
+    private BloodTypeCompatibilityRepository compatibilityRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private volatile Bundle bundle;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReferenceDataChanged(ReferenceDataChangedEvent event) {
+        rebuild();
+    }
+
+    public Bundle getBundle() {
+        Bundle current = bundle;
+        return current != null ? current : rebuild();
+    }
+
+    private synchronized Bundle rebuild() {
+        // Sắp theo id để cùng một dữ liệu luôn cho cùng một chuỗi JSON, tức cùng một mã băm phiên bản
+        List<BloodTypeResponse> bloodTypes = bloodManagementService.getAllBloodTypes().stream()
+                .sorted(Comparator.comparing(BloodTypeResponse::getId))
+                .collect(Collectors.toList());
+        ReferenceDataBundle content = new ReferenceDataBundle(bloodTypes, compatibilityRepository.findAllRuleEntries());
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(content);
+            Bundle fresh = new Bundle(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json)), json, gzip(json));
+            bundle = fresh;
+            logger.info("Reference data bundle {} built: {} bytes ({} gzipped).",
+                    fresh.getVersion(), json.length, fresh.getGzipped().length);
+            return fresh;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize the reference data bundle.", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available.", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    public static final class Bundle {
+        private final String version;
+        private final byte[] json;
+        private final byte[] gzipped;
+
+        private Bundle(String version, byte[] json, byte[] gzipped) {
+            this.version = version;
+            this.json = json;
+            this.gzipped = gzipped;
+        }
+
+        public String getVersion() {
+            return version;
+        }
+
+        public byte[] getJson() {
+            return json;
+        }
+
+        public byte[] getGzipped() {
+            return gzipped;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.hicode.backend.service;
+
+import com.hicode.backend.dto.admin.BloodUnitSnapshot;
+import com.hicode.backend.event.BloodUnitEvent;
+import com.hicode.backend.model.enums.InventoryStatus;
+import com.hicode.backend.repository.BloodUnitRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Tự động trả các đơn vị RESERVED quá hạn giữ chỗ về AVAILABLE.
+ *
+ * - Hạn giữ chỗ lưu ở blood_units.reserved_until; DB là nguồn sự thật và được nạp lại khi khởi động.
+ * - Trong bộ nhớ dùng một timing wheel: lên lịch/hủy là O(1), mỗi tick chỉ xét một ô của bánh xe.
+ * - Đơn vị đến hạn được trả theo lô bằng câu UPDATE có điều kiện reserved_until <= now, nên đơn vị vừa được
+ *   gia hạn sẽ không bị trả nhầm mà được lên lịch lại theo hạn mới.
+ * - Một lượt quét DB định kỳ bắt các hạn giữ chỗ do node khác tạo hoặc bị sót.
+ */
+@Service
+public class ReservationExpiryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationExpiryService.class);
+    private static final int WHEEL_SLOTS = 512;
+
+    @Autowired
+    private BloodUnitRepository bloodUnitRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${reservation.ttl-minutes:240}")
+    private long ttlMinutes;
+    @Value("${reservation.wheel.tick-ms:60000}")
+    private long tickMs;
+    @Value("${reservation.release-batch-size:500}")
+    private int batchSize;
+
+    private TimingWheel wheel;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        Integer backfilled = transactionTemplate.execute(status ->
+                bloodUnitRepository.backfillReservationDeadlines(LocalDateTime.now().plusMinutes(ttlMinutes)));
+        List<Object[]> deadlines = bloodUnitRepository.findReservationDeadlines();
+        synchronized (this) {
+            if (wheel == null) {
+                wheel = new TimingWheel(tickMs, WHEEL_SLOTS, System.currentTimeMillis());
+            }
+            for (Object[] row : deadlines) {
+                wheel.schedule((String) row[0], toMillis((LocalDateTime) row[1]));
+            }
+        }
+        logger.info("Reservation expiry wheel loaded with {} holds ({} legacy holds given a deadline).",
+                deadlines.size(), backfilled);
+    }
+
+    @TransactionalEventListener
+    public void onBloodUnitEvent(BloodUnitEvent event) {
+        if (event.getPreviousStatus() == event.getStatus()) {
+            return;
+        }
+        synchronized (this) {
+            if (wheel == null) {
+                return;
+            }
+            if (event.getStatus() == InventoryStatus.RESERVED) {
+                // Hạn thực tế trong DB được kiểm tra lại khi đến hạn
+                wheel.schedule(event.getUnitId(), System.currentTimeMillis() + ttlMinutes * 60_000L);
+            } else if (event.getPreviousStatus() == InventoryStatus.RESERVED) {
+                wheel.cancel(event.getUnitId());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${reservation.wheel.tick-ms:60000}", initialDelayString = "${reservation.wheel.tick-ms:60000}")
+    public void tick() {
+        List<String> due;
+        synchronized (this) {
+            if (wheel == null) {
+                return;
+            }
+            due = wheel.advance(System.currentTimeMillis());
+        }
+        if (!due.isEmpty()) {
+            release(due);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${reservation.sweep-interval-ms:900000}", initialDelayString = "${reservation.sweep-interval-ms:900000}")
+    public void sweep() {
+        int released = 0;
+        while (true) {
+            List<String> ids = bloodUnitRepository.findExpiredReservationIds(LocalDateTime.now(), PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            int count = release(ids);
+            released += count;
+            if (count == 0) {
+                break;
+            }
+        }
+        if (released > 0) {
+            logger.info("Reservation sweep released {} holds missed by the expiry wheel.", released);
+        }
+    }
+
+    /**
+     * Trả về kho các đơn vị đã quá hạn trong danh sách; các đơn vị vừa được gia hạn được lên lịch lại.
+     */
+    private int release(List<String> ids) {
+        int released = 0;
+        for (int i = 0; i < ids.size(); i += batchSize) {
+            List<String> chunk = ids.subList(i, Math.min(ids.size(), i + batchSize));
+            Integer count = transactionTemplate.execute(status -> releaseChunk(chunk));
+            released += count == null ? 0 : count;
+        }
+        return released;
+    }
+
+    private int releaseChunk(List<String> ids) {
+        LocalDateTime now = LocalDateTime.now();
+        List<BloodUnitSnapshot> expired = bloodUnitRepository.findExpiredReservationSnapshots(ids, now);
+        List<BloodUnitSnapshot> released = expired;
+        if (!expired.isEmpty()) {
+            List<String> expiredIds = expired.stream().map(BloodUnitSnapshot::getId).collect(Collectors.toList());
+            int updated = bloodUnitRepository.releaseExpiredReservations(expiredIds, now);
+            if (updated != expired.size()) {
+                // Một số đơn vị vừa được gia hạn hoặc cấp phát, đọc lại để chỉ phát event cho phần đã trả
+                released = bloodUnitRepository.findSnapshotsByIdIn(expiredIds).stream()
+                        .filter(unit -> unit.getStatus() == InventoryStatus.AVAILABLE)
+                        .collect(Collectors.toList());
+            }
+            for (BloodUnitSnapshot unit : released) {
+                eventPublisher.publishEvent(BloodUnitEvent.transition(unit, InventoryStatus.RESERVED, InventoryStatus.AVAILABLE));
+            }
+        }
+
+        Set<String> releasedIds = released.stream().map(BloodUnitSnapshot::getId).collect(Collectors.toSet());
+        List<String> remaining = ids.stream().filter(id -> !releasedIds.contains(id)).collect(Collectors.toList());
+        if (!remaining.isEmpty()) {
+            List<Object[]> deadlines = bloodUnitRepository.findReservationDeadlinesByIdIn(remaining);
+            synchronized (this) {
+                for (Object[] row : wheel == null ? List.<Object[]>of() : deadlines) {
+                    wheel.schedule((String) row[0], toMillis((LocalDateTime) row[1]));
+                }
+            }
+        }
+        if (!released.isEmpty()) {
+            logger.info("Released {} expired reservations back to available stock.", released.size());
+        }
+        return released.size();
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Hashed timing wheel: mỗi ô chứa các đơn vị có hạn rơi vào tick đó (modulo số ô); đơn vị có hạn xa hơn
+     * một vòng nằm lại trong ô cho tới vòng của nó. Không thread-safe, bên gọi phải đồng bộ.
+     */
+    static final class TimingWheel {
+        private final long tickMs;
+        private final List<Set<String>> slots;
+        // unitId -> [hạn (ms), ô đang chứa]
+        private final Map<String, long[]> entries = new HashMap<>();
+        private long lastTick;
+
+        TimingWheel(long tickMs, int slotCount, long now) {
+            this.tickMs = tickMs;
+            this.slots = new ArrayList<>(slotCount);
+            for (int i = 0; i < slotCount; i++) {
+                slots.add(new HashSet<>());
+            }
+            this.lastTick = now / tickMs;
+        }
+
+        void schedule(String unitId, long deadline) {
+            cancel(unitId);
+            // Làm tròn lên: khi tới tick của ô thì hạn chắc chắn đã qua, nên ô không giữ lại đơn vị chưa tới hạn
+            // của vòng hiện tại. Hạn đã qua được đặt vào tick kế tiếp.
+            int slot = slotOf(Math.max((deadline + tickMs - 1) / tickMs, lastTick + 1));
+            entries.put(unitId, new long[]{deadline, slot});
+            slots.get(slot).add(unitId);
+        }
+
+        void cancel(String unitId) {
+            long[] entry = entries.remove(unitId);
+            if (entry != null) {
+                slots.get((int) entry[1]).remove(unitId);
+            }
+        }
+
+        List<String> advance(long now) {
+            long currentTick = now / tickMs;
+            List<String> due = new ArrayList<>();
+            // Nếu bị trễ hơn một vòng thì chỉ cần quét mỗi ô một lần
+            long from = Math.max(lastTick + 1, currentTick - slots.size() + 1);
+            for (long tick = from; tick <= currentTick; tick++) {
+                Set<String> slot = slots.get(slotOf(tick));
+                slot.removeIf(unitId -> {
+                    long[] entry = entries.get(unitId);
+                    if (entry == null) {
+                        return true;
+                    }
+                    if (entry[0] <= now) {
+                        entries.remove(unitId);
+                        due.add(unitId);
+                        return true;
+                    }
+                    return false;
+                });
+            }
+            lastTick = Math.max(lastTick, currentTick);
+            return due;
+        }
+
+        private int slotOf(long tick) {
+            return (int) (tick % slots.size());
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package com.hicode.backend.service;
+
+import com.hicode.backend.dto.admin.ShortageForecastResponse;
+import com.hicode.backend.event.BloodUnitEvent;
+import com.hicode.backend.model.entity.BloodType;
+import com.hicode.backend.model.entity.InventoryForecastState;
+import com.hicode.backend.model.enums.InventoryStatus;
+import com.hicode.backend.model.enums.ShortageAlertLevel;
+import com.hicode.backend.repository.BloodTypeRepository;
+import com.hicode.backend.repository.InventoryForecastStateRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Dự báo tồn kho theo BloodType bằng làm trơn mũ có hệ số mùa theo tuần (Holt-Winters cộng, không có trend).
+ *
+ * Hai chuỗi được theo dõi cho mỗi nhóm máu: số đơn vị nhập kho mỗi ngày (mỗi DonationProcess hoàn tất tạo
+ * một đơn vị) và số đơn vị rời trạng thái AVAILABLE (giữ, sử dụng, hết hạn, hủy). Các BloodUnitEvent chỉ tăng
+ * bộ đếm của ngày hiện tại; khi sang ngày mới, bộ đếm được gộp vào mô hình bằng một phép cập nhật O(1).
+ * Dự báo chỉ cộng dồn level + hệ số mùa trên vài chục ngày nên tính lại trong vài micro giây.
+ */
+@Service
+public class ShortageForecastService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShortageForecastService.class);
+    private static final int SEASON_LENGTH = 7;
+
+    @Autowired
+    private InventoryForecastStateRepository stateRepository;
+    @Autowired
+    private BloodTypeRepository bloodTypeRepository;
+    @Autowired
+    private InventoryIndexService inventoryIndexService;
+
+    @Value("${forecast.level-smoothing:0.3}")
+    private double alpha;
+    @Value("${forecast.seasonal-smoothing:0.2}")
+    private double gamma;
+    @Value("${forecast.horizon-days:28}")
+    private int horizonDays;
+    @Value("${forecast.warning-days:7}")
+    private double warningDays;
+    @Value("${forecast.critical-days:3}")
+    private double criticalDays;
+
+    private final Map<Integer, SeriesState> states = new ConcurrentHashMap<>();
+    private final Map<Integer, BloodType> bloodTypes = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        for (InventoryForecastState saved : stateRepository.findAll()) {
+            states.put(saved.getBloodTypeId(), SeriesState.fromEntity(saved));
+        }
+        rollOver();
+        logger.info("Shortage forecast loaded state for {} blood types.", states.size());
+    }
+
+    @TransactionalEventListener
+    public void onBloodUnitEvent(BloodUnitEvent event) {
+        boolean wasAvailable = event.getPreviousStatus() == InventoryStatus.AVAILABLE;
+        boolean isAvailable = event.getStatus() == InventoryStatus.AVAILABLE;
+        int inflow = 0;
+        int outflow = 0;
+        if (event.getPreviousStatus() == null && isAvailable) {
+            inflow = 1;
+        } else if (wasAvailable && !isAvailable) {
+            outflow = 1;
+        } else if (!wasAvailable && isAvailable) {
+            // Đơn vị được trả về kho (hủy giữ chỗ): bù lại lượt ra đã tính
+            outflow = -1;
+        }
+        if (inflow == 0 && outflow == 0) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        states.computeIfAbsent(event.getBloodTypeId(), id -> new SeriesState(today))
+                .record(today, inflow, outflow, alpha, gamma);
+    }
+
+    /**
+     * Gộp ngày đã qua vào mô hình cho mọi nhóm máu và lưu trạng thái.
+     */
+    @Scheduled(cron = "${forecast.rollover-cron:0 1 0 * * ?}")
+    public void rollOver() {
+        for (BloodType bloodType : bloodTypeRepository.findAll()) {
+            bloodTypes.put(bloodType.getId(), bloodType);
+        }
+        LocalDate today = LocalDate.now();
+        for (SeriesState state : states.values()) {
+            state.advanceTo(today, alpha, gamma);
+        }
+        persist();
+        for (ShortageForecastResponse forecast : getForecasts()) {
+            if (forecast.getAlertLevel() == ShortageAlertLevel.CRITICAL) {
+                logger.warn("Critical shortage forecast for {} {}: {} units, {} days of supply.",
+                        forecast.getBloodGroup(), forecast.getComponentType(), forecast.getCurrentUnits(), forecast.getDaysOfSupply());
+            }
+        }
+    }
+
+    /**
+     * Lưu bộ đếm của ngày hiện tại để không mất khi ứng dụng khởi động lại.
+     */
+    @Scheduled(fixedDelayString = "${forecast.persist-interval-ms:300000}", initialDelayString = "${forecast.persist-interval-ms:300000}")
+    public void persist() {
+        List<InventoryForecastState> entities = new ArrayList<>();
+        states.forEach((bloodTypeId, state) -> entities.add(state.toEntity(bloodTypeId)));
+        stateRepository.saveAll(entities);
+    }
+
+    public List<ShortageForecastResponse> getForecasts() {
+        List<ShortageForecastResponse> forecasts = new ArrayList<>();
+        for (Integer bloodTypeId : bloodTypes.keySet()) {
+            forecasts.add(getForecast(bloodTypeId));
+        }
+        forecasts.sort(Comparator.comparing(ShortageForecastResponse::getBloodTypeId));
+        return forecasts;
+    }
+
+    public ShortageForecastResponse getForecast(Integer bloodTypeId) {
+        ShortageForecastResponse response = new ShortageForecastResponse();
+        response.setBloodTypeId(bloodTypeId);
+        BloodType bloodType = bloodTypes.get(bloodTypeId);
+        if (bloodType != null) {
+            response.setBloodGroup(bloodType.getBloodGroup());
+            response.setComponentType(bloodType.getComponentType());
+        }
+        int currentUnits = inventoryIndexService.countAvailable(bloodTypeId);
+        response.setCurrentUnits(currentUnits);
+
+        SeriesState state = states.get(bloodTypeId);
+        if (state == null) {
+            response.setAlertLevel(ShortageAlertLevel.NONE);
+            response.setProjectedUnits(List.of());
+            return response;
+        }
+
+        double[][] daily = state.forecast(LocalDate.now(), horizonDays);
+        double stock = currentUnits;
+        Double daysOfSupply = null;
+        double inflowWeek = 0;
+        double outflowWeek = 0;
+        List<Integer> projected = new ArrayList<>(horizonDays);
+        for (int day = 0; day < horizonDays; day++) {
+            double net = daily[0][day] - daily[1][day];
+            if (day < SEASON_LENGTH) {
+                inflowWeek += daily[0][day];
+                outflowWeek += daily[1][day];
+            }
+            double next = stock + net;
+            if (daysOfSupply == null && next <= 0 && net < 0) {
+                // Nội suy tuyến tính trong ngày tồn kho về 0
+                daysOfSupply = day + stock / -net;
+            }
+            stock = Math.max(0, next);
+            projected.add((int) Math.round(stock));
+        }
+        response.setExpectedDailyInflow(inflowWeek / SEASON_LENGTH);
+        response.setExpectedDailyOutflow(outflowWeek / SEASON_LENGTH);
+        response.setDaysOfSupply(daysOfSupply);
+        response.setObservedDays(state.observedDays());
+        response.setProjectedUnits(projected);
+        if (daysOfSupply != null && daysOfSupply < criticalDays) {
+            response.setAlertLevel(ShortageAlertLevel.CRITICAL);
+        } else if (daysOfSupply != null && daysOfSupply < warningDays) {
+            response.setAlertLevel(ShortageAlertLevel.WARNING);
+        } else {
+            response.setAlertLevel(ShortageAlertLevel.NONE);
+        }
+        return response;
+    }
+
+    private static final class SeriesState {
+        private double inflowLevel;
+        private final double[] inflowSeasonal;
+        private double outflowLevel;
+        private final double[] outflowSeasonal;
+        private int observedDays;
+        private LocalDate currentDate;
+        private int currentInflow;
+        private int currentOutflow;
+
+        private SeriesState(LocalDate currentDate) {
+            this.inflowSeasonal = new double[SEASON_LENGTH];
+            this.outflowSeasonal = new double[SEASON_LENGTH];
+            this.currentDate = currentDate;
+        }
+
+        static SeriesState fromEntity(InventoryForecastState entity) {
+            SeriesState state = new SeriesState(entity.getCurrentDate());
+            state.inflowLevel = entity.getInflowLevel();
+            state.outflowLevel = entity.getOutflowLevel();
+            parseSeasonal(entity.getInflowSeasonal(), state.inflowSeasonal);
+            parseSeasonal(entity.getOutflowSeasonal(), state.outflowSeasonal);
+            state.observedDays = entity.getObservedDays();
+            state.currentInflow = entity.getCurrentInflow();
+            state.currentOutflow = entity.getCurrentOutflow();
+            return state;
+        }
+
+        synchronized InventoryForecastState toEntity(Integer bloodTypeId) {
+            InventoryForecastState entity = new InventoryForecastState();
+            entity.setBloodTypeId(bloodTypeId);
+            entity.setInflowLevel(inflowLevel);
+            entity.setInflowSeasonal(formatSeasonal(inflowSeasonal));
+            entity.setOutflowLevel(outflowLevel);
+            entity.setOutflowSeasonal(formatSeasonal(outflowSeasonal));
+            entity.setObservedDays(observedDays);
+            entity.setCurrentDate(currentDate);
+            entity.setCurrentInflow(currentInflow);
+            entity.setCurrentOutflow(currentOutflow);
+            return entity;
+        }
+
+        synchronized void record(LocalDate date, int inflow, int outflow, double alpha, double gamma) {
+            advanceTo(date, alpha, gamma);
+            currentInflow += inflow;
+            currentOutflow += outflow;
+        }
+
+        /**
+         * Gộp các ngày từ currentDate đến trước date vào mô hình; các ngày không có event được tính là 0.
+         */
+        synchronized void advanceTo(LocalDate date, double alpha, double gamma) {
+            while (currentDate.isBefore(date)) {
+                int season = seasonIndex(currentDate);
+                if (observedDays == 0) {
+                    inflowLevel = currentInflow;
+                    outflowLevel = Math.max(0, currentOutflow);
+                } else {
+                    inflowLevel = smooth(currentInflow, inflowLevel, inflowSeasonal, season, alpha, gamma);
+                    outflowLevel = smooth(Math.max(0, currentOutflow), outflowLevel, outflowSeasonal, season, alpha, gamma);
+                }
+                observedDays++;
+                currentInflow = 0;
+                currentOutflow = 0;
+                currentDate = currentDate.plusDays(1);
+            }
+        }
+
+        synchronized int observedDays() {
+            return observedDays;
+        }
+
+        /**
+         * Dự báo [inflow, outflow] cho horizon ngày tính từ from (gồm cả from).
+         */
+        synchronized double[][] forecast(LocalDate from, int horizon) {
+            double[][] result = new double[2][horizon];
+            for (int day = 0; day < horizon; day++) {
+                int season = seasonIndex(from.plusDays(day));
+                result[0][day] = Math.max(0, inflowLevel + inflowSeasonal[season]);
+                result[1][day] = Math.max(0, outflowLevel + outflowSeasonal[season]);
+            }
+            return result;
+        }
+
+        private static double smooth(double observed, double level, double[] seasonal, int season, double alpha, double gamma) {
+            double newLevel = alpha * (observed - seasonal[season]) + (1 - alpha) * level;
+            seasonal[season] = gamma * (observed - newLevel) + (1 - gamma) * seasonal[season];
+            return newLevel;
+        }
+
+        private static int seasonIndex(LocalDate date) {
+            return date.getDayOfWeek().getValue() - 1;
+        }
+
+        private static void parseSeasonal(String value, double[] target) {
+            String[] parts = value.split(",");
+            for (int i = 0; i < Math.min(parts.length, target.length); i++) {
+                target[i] = Double.parseDouble(parts[i]);
+            }
+        }
+
+        private static String formatSeasonal(double[] seasonal) {
+            return Arrays.stream(seasonal).mapToObj(Double::toString).collect(Collectors.joining(","));
+        }
+    }
+}
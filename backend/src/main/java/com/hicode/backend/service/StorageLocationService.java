@@ -0,0 +1,167 @@
+package com.hicode.backend.service;
+
+import com.hicode.backend.dto.admin.BloodUnitSnapshot;
+import com.hicode.backend.dto.admin.CreateStorageLocationRequest;
+import com.hicode.backend.dto.admin.StockTransferRequest;
+import com.hicode.backend.dto.admin.StockTransferResponse;
+import com.hicode.backend.dto.admin.StorageLocationResponse;
+import com.hicode.backend.event.BloodUnitEvent;
+import com.hicode.backend.model.entity.StorageLocation;
+import com.hicode.backend.model.enums.InventoryStatus;
+import com.hicode.backend.repository.BloodUnitRepository;
+import com.hicode.backend.repository.StorageLocationRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Quản lý các kho lưu trữ và chuyển đơn vị máu giữa các kho.
+ *
+ * Một lệnh chuyển là nguyên tử: mọi đơn vị được kiểm tra trước, rồi cập nhật bằng các câu UPDATE có điều kiện
+ * theo lô; nếu số dòng đổi không khớp (có đơn vị vừa bị cấp phát/hủy) thì cả lệnh bị rollback.
+ */
+@Service
+public class StorageLocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StorageLocationService.class);
+    // SQL Server giới hạn 2100 tham số mỗi câu lệnh
+    private static final int IN_CLAUSE_CHUNK = 1000;
+
+    @Autowired
+    private StorageLocationRepository storageLocationRepository;
+    @Autowired
+    private BloodUnitRepository bloodUnitRepository;
+    @Autowired
+    private InventorySummaryService inventorySummaryService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    public List<StorageLocationResponse> getAllLocations() {
+        Map<String, long[]> totals = inventorySummaryService.getLocationTotals();
+        List<StorageLocationResponse> responses = new ArrayList<>();
+        for (StorageLocation location : storageLocationRepository.findAllByOrderByCodeAsc()) {
+            responses.add(toResponse(location, totals.get(location.getCode())));
+        }
+        return responses;
+    }
+
+    @Transactional
+    public StorageLocationResponse createLocation(CreateStorageLocationRequest request) {
+        String code = request.getCode().trim();
+        if (storageLocationRepository.existsById(code)) {
+            throw new IllegalArgumentException("Storage location with code " + code + " already exists.");
+        }
+        StorageLocation location = new StorageLocation();
+        location.setCode(code);
+        location.setName(request.getName().trim());
+        location.setDescription(request.getDescription());
+        location.setActive(true);
+        return toResponse(storageLocationRepository.save(location), null);
+    }
+
+    /**
+     * Chuyển một lô đơn vị (AVAILABLE hoặc RESERVED) sang kho đích. Đơn vị đã ở kho đích được bỏ qua.
+     */
+    @Transactional
+    public StockTransferResponse transferUnits(StockTransferRequest request) {
+        String toLocation = request.getToLocation().trim();
+        StorageLocation target = storageLocationRepository.findById(toLocation)
+                .orElseThrow(() -> new EntityNotFoundException("Storage location not found with code: " + toLocation));
+        if (!Boolean.TRUE.equals(target.getActive())) {
+            throw new IllegalStateException("Storage location " + toLocation + " is not active.");
+        }
+
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(request.getUnitIds()));
+        Map<String, BloodUnitSnapshot> units = new HashMap<>();
+        for (List<String> chunk : chunks(ids)) {
+            for (BloodUnitSnapshot unit : bloodUnitRepository.findSnapshotsByIdIn(chunk)) {
+                units.put(unit.getId(), unit);
+            }
+        }
+
+        List<BloodUnitSnapshot> toMove = new ArrayList<>();
+        Map<String, Integer> bySource = new TreeMap<>();
+        int alreadyThere = 0;
+        for (String id : ids) {
+            BloodUnitSnapshot unit = units.get(id);
+            if (unit == null) {
+                throw new EntityNotFoundException("Blood unit not found with id: " + id);
+            }
+            if (unit.getStatus() != InventoryStatus.AVAILABLE && unit.getStatus() != InventoryStatus.RESERVED) {
+                throw new IllegalStateException("Blood unit " + id + " is " + unit.getStatus() + " and cannot be transferred.");
+            }
+            if (toLocation.equals(unit.getStorageLocation())) {
+                alreadyThere++;
+                continue;
+            }
+            toMove.add(unit);
+            bySource.merge(Objects.toString(unit.getStorageLocation(), "(none)"), 1, Integer::sum);
+        }
+
+        // Điều kiện theo đúng trạng thái và kho nguồn đã đọc, để event phát ra (kèm kho cũ) khớp với đơn vị thực tế
+        Map<InventoryStatus, Map<String, List<String>>> groups = new EnumMap<>(InventoryStatus.class);
+        for (BloodUnitSnapshot unit : toMove) {
+            groups.computeIfAbsent(unit.getStatus(), status -> new HashMap<>())
+                    .computeIfAbsent(unit.getStorageLocation(), location -> new ArrayList<>())
+                    .add(unit.getId());
+        }
+        int moved = 0;
+        for (Map.Entry<InventoryStatus, Map<String, List<String>>> byStatus : groups.entrySet()) {
+            for (Map.Entry<String, List<String>> group : byStatus.getValue().entrySet()) {
+                for (List<String> chunk : chunks(group.getValue())) {
+                    moved += group.getKey() == null
+                            ? bloodUnitRepository.moveUnassignedToLocation(chunk, byStatus.getKey(), toLocation)
+                            : bloodUnitRepository.moveToLocation(chunk, byStatus.getKey(), group.getKey(), toLocation);
+                }
+            }
+        }
+        if (moved != toMove.size()) {
+            throw new IllegalStateException("Some blood units changed status or location during the transfer. Please retry.");
+        }
+        for (BloodUnitSnapshot unit : toMove) {
+            eventPublisher.publishEvent(BloodUnitEvent.transfer(unit, toLocation));
+        }
+        logger.info("Transferred {} blood units to {}.", moved, toLocation);
+
+        StockTransferResponse response = new StockTransferResponse();
+        response.setToLocation(toLocation);
+        response.setTransferredUnits(moved);
+        response.setAlreadyAtLocation(alreadyThere);
+        response.setUnitsBySourceLocation(bySource);
+        return response;
+    }
+
+    private static StorageLocationResponse toResponse(StorageLocation location, long[] totals) {
+        StorageLocationResponse response = new StorageLocationResponse();
+        response.setCode(location.getCode());
+        response.setName(location.getName());
+        response.setDescription(location.getDescription());
+        response.setActive(Boolean.TRUE.equals(location.getActive()));
+        if (totals != null) {
+            response.setAvailableUnits(totals[0]);
+            response.setAvailableVolumeMl(totals[1]);
+        }
+        return response;
+    }
+
+    private static List<List<String>> chunks(List<String> ids) {
+        List<List<String>> chunks = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += IN_CLAUSE_CHUNK) {
+            chunks.add(ids.subList(i, Math.min(ids.size(), i + IN_CLAUSE_CHUNK)));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,66 @@
+package com.hicode.backend.service;
+
+import com.hicode.backend.dto.admin.TemperatureReading;
+import com.hicode.backend.dto.admin.TemperatureSensorResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sinh dữ liệu nhiệt độ giả cho các cảm biến đang hoạt động, dùng khi phát triển và kiểm thử tải.
+ * Chỉ bật khi telemetry.simulator.enabled=true; đợt vượt ngưỡng giả sẽ cách ly đơn vị thật trong kho.
+ */
+@Component
+@ConditionalOnProperty(name = "telemetry.simulator.enabled", havingValue = "true")
+public class TemperatureSimulator {
+
+    private static final int EXCURSION_TICKS = 10;
+
+    @Autowired
+    private TemperatureTelemetryService telemetryService;
+
+    @Value("${telemetry.simulator.readings-per-sensor:10}")
+    private int readingsPerSensor;
+    @Value("${telemetry.simulator.excursion-probability:0.0}")
+    private double excursionProbability;
+
+    // sensorId -> số tick còn lại của đợt vượt ngưỡng giả
+    private final Map<String, Integer> excursions = new ConcurrentHashMap<>();
+
+    @Scheduled(fixedRateString = "${telemetry.simulator.interval-ms:1000}")
+    public void emit() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDateTime now = LocalDateTime.now();
+        List<TemperatureReading> readings = new ArrayList<>();
+        for (TemperatureSensorResponse sensor : telemetryService.getSensors()) {
+            if (!sensor.isActive()) {
+                continue;
+            }
+            int remaining = excursions.getOrDefault(sensor.getId(), 0);
+            if (remaining == 0 && random.nextDouble() < excursionProbability) {
+                remaining = EXCURSION_TICKS;
+            }
+            if (remaining > 0) {
+                excursions.put(sensor.getId(), remaining - 1);
+            }
+            double center = remaining > 0
+                    ? sensor.getMaxCelsius() + 2
+                    : (sensor.getMinCelsius() + sensor.getMaxCelsius()) / 2;
+            for (int i = 0; i < readingsPerSensor; i++) {
+                readings.add(new TemperatureReading(sensor.getId(), now, center + random.nextGaussian() * 0.3));
+            }
+        }
+        if (!readings.isEmpty()) {
+            telemetryService.ingest(readings);
+        }
+    }
+}
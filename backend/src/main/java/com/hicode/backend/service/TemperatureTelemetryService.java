@@ -0,0 +1,379 @@
+package com.hicode.backend.service;
+
+import com.hicode.backend.dto.admin.BloodUnitSnapshot;
+import com.hicode.backend.dto.admin.CreateTemperatureSensorRequest;
+import com.hicode.backend.dto.admin.TemperatureIngestResponse;
+import com.hicode.backend.dto.admin.TemperatureReading;
+import com.hicode.backend.dto.admin.TemperatureSensorResponse;
+import com.hicode.backend.model.entity.TemperatureSample;
+import com.hicode.backend.model.entity.TemperatureSensor;
+import com.hicode.backend.model.enums.InventoryStatus;
+import com.hicode.backend.repository.BloodUnitRepository;
+import com.hicode.backend.repository.StorageLocationRepository;
+import com.hicode.backend.repository.TemperatureSampleRepository;
+import com.hicode.backend.repository.TemperatureSensorRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.DoubleAccumulator;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thu nhận nhiệt độ từ cảm biến tủ bảo quản.
+ *
+ * - Mỗi lần đọc chỉ chạm bộ nhớ: ghi vào ring buffer của cảm biến (không khóa) và cộng vào bucket theo phút.
+ * - Các bucket đã qua được ghi xuống temperature_samples định kỳ (min/max/trung bình mỗi phút).
+ * - Khi một cảm biến đọc ngoài ngưỡng liên tiếp đủ số lần, mọi đơn vị AVAILABLE trong kho đó bị chuyển sang
+ *   QUARANTINED; sự cố chỉ được báo một lần cho đến khi nhiệt độ trở lại trong ngưỡng.
+ */
+@Service
+public class TemperatureTelemetryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TemperatureTelemetryService.class);
+    private static final long MINUTE_MS = 60_000L;
+    // Mỗi sensor một dòng mỗi phút: 7 ngày là khoảng 10 nghìn dòng cho một lần đọc
+    private static final long MAX_SAMPLE_RANGE_DAYS = 7;
+
+    @Autowired
+    private TemperatureSensorRepository sensorRepository;
+    @Autowired
+    private TemperatureSampleRepository sampleRepository;
+    @Autowired
+    private StorageLocationRepository storageLocationRepository;
+    @Autowired
+    private BloodUnitRepository bloodUnitRepository;
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Value("${telemetry.ring-capacity:4096}")
+    private int ringCapacity;
+    @Value("${telemetry.excursion.min-readings:3}")
+    private int excursionMinReadings;
+
+    private final Map<String, SensorState> sensors = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadSensors() {
+        for (TemperatureSensor sensor : sensorRepository.findByActiveTrue()) {
+            sensors.putIfAbsent(sensor.getId(), new SensorState(sensor, ringCapacity));
+        }
+        logger.info("Temperature telemetry loaded {} active sensors.", sensors.size());
+    }
+
+    @Transactional
+    public TemperatureSensorResponse createSensor(CreateTemperatureSensorRequest request) {
+        String id = request.getId().trim();
+        if (sensorRepository.existsById(id)) {
+            throw new IllegalArgumentException("Temperature sensor " + id + " already exists.");
+        }
+        if (request.getMinCelsius() >= request.getMaxCelsius()) {
+            throw new IllegalArgumentException("minCelsius must be lower than maxCelsius.");
+        }
+        String location = request.getStorageLocation().trim();
+        if (!storageLocationRepository.existsById(location)) {
+            throw new EntityNotFoundException("Storage location not found with code: " + location);
+        }
+        TemperatureSensor sensor = new TemperatureSensor();
+        sensor.setId(id);
+        sensor.setStorageLocation(location);
+        sensor.setMinCelsius(request.getMinCelsius());
+        sensor.setMaxCelsius(request.getMaxCelsius());
+        sensor.setActive(true);
+        TemperatureSensor saved = sensorRepository.save(sensor);
+        SensorState state = new SensorState(saved, ringCapacity);
+        sensors.put(saved.getId(), state);
+        return toResponse(saved, state);
+    }
+
+    public List<TemperatureSensorResponse> getSensors() {
+        List<TemperatureSensorResponse> responses = new ArrayList<>();
+        for (TemperatureSensor sensor : sensorRepository.findAll()) {
+            responses.add(toResponse(sensor, sensors.get(sensor.getId())));
+        }
+        return responses;
+    }
+
+    /**
+     * Nhận một lô lần đọc. Không truy cập DB, trừ khi lô này làm phát sinh sự cố nhiệt độ mới.
+     */
+    public TemperatureIngestResponse ingest(List<TemperatureReading> readings) {
+        long receivedAt = System.currentTimeMillis();
+        int accepted = 0;
+        int rejected = 0;
+        List<SensorState> excursions = new ArrayList<>();
+        List<Double> excursionValues = new ArrayList<>();
+        for (TemperatureReading reading : readings) {
+            SensorState state = sensors.get(reading.getSensorId());
+            if (state == null) {
+                rejected++;
+                continue;
+            }
+            accepted++;
+            long timestamp = reading.getRecordedAt() == null ? receivedAt : toMillis(reading.getRecordedAt());
+            double celsius = reading.getCelsius();
+            boolean outOfRange = celsius < state.minCelsius || celsius > state.maxCelsius;
+            state.ring.add(timestamp, celsius);
+            state.aggregate(timestamp, celsius, outOfRange);
+
+            if (!outOfRange) {
+                state.consecutiveOutOfRange.set(0);
+                if (state.inExcursion.compareAndSet(true, false)) {
+                    logger.info("Sensor {} at {} is back within range ({}°C).", state.sensorId, state.location, celsius);
+                }
+            } else if (state.consecutiveOutOfRange.incrementAndGet() >= excursionMinReadings
+                    && state.inExcursion.compareAndSet(false, true)) {
+                excursions.add(state);
+                excursionValues.add(celsius);
+            }
+        }
+        for (int i = 0; i < excursions.size(); i++) {
+            raiseExcursion(excursions.get(i), excursionValues.get(i));
+        }
+
+        TemperatureIngestResponse response = new TemperatureIngestResponse();
+        response.setAccepted(accepted);
+        response.setRejected(rejected);
+        response.setExcursionsRaised(excursions.size());
+        return response;
+    }
+
+    /**
+     * Các lần đọc trong khoảng thời gian gần đây còn nằm trong ring buffer, cũ nhất trước.
+     */
+    public List<TemperatureReading> getRecentReadings(String sensorId, int seconds) {
+        SensorState state = sensors.get(sensorId);
+        if (state == null) {
+            throw new EntityNotFoundException("Active temperature sensor not found with id: " + sensorId);
+        }
+        return state.ring.readSince(System.currentTimeMillis() - seconds * 1000L, sensorId);
+    }
+
+    public List<TemperatureSample> getSamples(String sensorId, LocalDateTime from, LocalDateTime to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'.");
+        }
+        if (Duration.between(from, to).toDays() >= MAX_SAMPLE_RANGE_DAYS) {
+            throw new IllegalArgumentException("Sample range must be shorter than " + MAX_SAMPLE_RANGE_DAYS + " days.");
+        }
+        return sampleRepository.findInRange(sensorId, from, to);
+    }
+
+    /**
+     * Ghi các bucket của những phút đã qua (chừa một phút cho lần đọc đến trễ) xuống temperature_samples.
+     */
+    @Scheduled(fixedDelayString = "${telemetry.flush-interval-ms:60000}", initialDelayString = "${telemetry.flush-interval-ms:60000}")
+    public void flushSamples() {
+        long cutoff = System.currentTimeMillis() / MINUTE_MS - 1;
+        List<TemperatureSample> samples = new ArrayList<>();
+        for (SensorState state : sensors.values()) {
+            // Nâng mốc trước khi lấy bucket ra, để lần đọc đến sau không tạo lại bucket đã ghi. remove(key) khóa cùng
+            // ô của map với compute trong aggregate, nên mọi lần cộng dồn hoặc đã nằm trong bucket lấy ra,
+            // hoặc chạy sau và thấy mốc mới
+            state.flushedUpTo = Math.max(state.flushedUpTo, cutoff - 1);
+            for (Long minute : new ArrayList<>(state.buckets.keySet())) {
+                if (minute >= cutoff) {
+                    continue;
+                }
+                Bucket bucket = state.buckets.remove(minute);
+                if (bucket == null) {
+                    continue;
+                }
+                long count = bucket.count.sum();
+                if (count == 0) {
+                    continue;
+                }
+                TemperatureSample sample = new TemperatureSample();
+                sample.setSensorId(state.sensorId);
+                sample.setBucketStart(toLocalDateTime(minute * MINUTE_MS));
+                sample.setMinCelsius(bucket.min.get());
+                sample.setMaxCelsius(bucket.max.get());
+                sample.setAvgCelsius(bucket.sum.sum() / count);
+                sample.setReadingCount((int) count);
+                sample.setExcursion(bucket.excursion);
+                samples.add(sample);
+            }
+        }
+        if (!samples.isEmpty()) {
+            sampleRepository.saveAll(samples);
+        }
+    }
+
+    private void raiseExcursion(SensorState state, double celsius) {
+        String reason = "Temperature excursion at " + state.location + ": sensor " + state.sensorId + " read " + celsius
+                + "°C (allowed " + state.minCelsius + "–" + state.maxCelsius + "°C)";
+        try {
+            List<BloodUnitSnapshot> units = bloodUnitRepository.findSnapshotsByStorageLocationAndStatus(state.location, InventoryStatus.AVAILABLE);
+            List<BloodUnitSnapshot> quarantined = inventoryService.quarantineUnits(units, reason);
+            logger.warn("{}. Quarantined {} available units.", reason, quarantined.size());
+        } catch (RuntimeException e) {
+            // Mở lại cờ để lần đọc ngoài ngưỡng kế tiếp thử cách ly lại
+            state.inExcursion.set(false);
+            logger.error("Failed to quarantine units for excursion at {}: {}", state.location, e.getMessage());
+        }
+    }
+
+    private static TemperatureSensorResponse toResponse(TemperatureSensor sensor, SensorState state) {
+        TemperatureSensorResponse response = new TemperatureSensorResponse();
+        response.setId(sensor.getId());
+        response.setStorageLocation(sensor.getStorageLocation());
+        response.setMinCelsius(sensor.getMinCelsius());
+        response.setMaxCelsius(sensor.getMaxCelsius());
+        response.setActive(Boolean.TRUE.equals(sensor.getActive()));
+        if (state != null) {
+            TemperatureReading last = state.ring.last(sensor.getId());
+            if (last != null) {
+                response.setLastCelsius(last.getCelsius());
+                response.setLastRecordedAt(last.getRecordedAt());
+            }
+            response.setInExcursion(state.inExcursion.get());
+        }
+        return response;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    private static final class SensorState {
+        private final String sensorId;
+        private final String location;
+        private final double minCelsius;
+        private final double maxCelsius;
+        private final RingBuffer ring;
+        // phút (epoch / 60000) -> bucket
+        private final Map<Long, Bucket> buckets = new ConcurrentHashMap<>();
+        private volatile long flushedUpTo = Long.MIN_VALUE;
+        private final AtomicInteger consecutiveOutOfRange = new AtomicInteger();
+        private final AtomicBoolean inExcursion = new AtomicBoolean();
+
+        private SensorState(TemperatureSensor sensor, int capacity) {
+            this.sensorId = sensor.getId();
+            this.location = sensor.getStorageLocation();
+            this.minCelsius = sensor.getMinCelsius();
+            this.maxCelsius = sensor.getMaxCelsius();
+            this.ring = new RingBuffer(capacity);
+        }
+
+        void aggregate(long timestamp, double celsius, boolean outOfRange) {
+            long minute = timestamp / MINUTE_MS;
+            // Kiểm tra mốc và cộng dồn trong cùng compute, nguyên tử với remove của flushSamples
+            buckets.compute(minute, (key, bucket) -> {
+                // Lần đọc thuộc phút đã ghi xuống DB chỉ còn trong ring buffer
+                if (minute <= flushedUpTo) {
+                    return bucket;
+                }
+                Bucket target = bucket != null ? bucket : new Bucket();
+                target.min.accumulate(celsius);
+                target.max.accumulate(celsius);
+                target.sum.add(celsius);
+                target.count.increment();
+                if (outOfRange) {
+                    target.excursion = true;
+                }
+                return target;
+            });
+        }
+    }
+
+    private static final class Bucket {
+        private final DoubleAccumulator min = new DoubleAccumulator(Math::min, Double.POSITIVE_INFINITY);
+        private final DoubleAccumulator max = new DoubleAccumulator(Math::max, Double.NEGATIVE_INFINITY);
+        private final DoubleAdder sum = new DoubleAdder();
+        private final LongAdder count = new LongAdder();
+        private volatile boolean excursion;
+    }
+
+    /**
+     * Ring buffer nhiều bên ghi, không khóa: mỗi lần ghi lấy một số thứ tự bằng getAndIncrement.
+     * Mỗi ô có một số thứ tự kiểu seqlock để bên đọc bỏ qua ô đang được ghi dở hoặc đã bị ghi đè.
+     */
+    private static final class RingBuffer {
+        private final int mask;
+        private final AtomicLong cursor = new AtomicLong();
+        private final AtomicLongArray sequences;
+        private final AtomicLongArray timestamps;
+        private final AtomicLongArray values;
+
+        private RingBuffer(int requestedCapacity) {
+            int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+            this.mask = capacity - 1;
+            this.sequences = new AtomicLongArray(capacity);
+            this.timestamps = new AtomicLongArray(capacity);
+            this.values = new AtomicLongArray(capacity);
+        }
+
+        void add(long timestamp, double celsius) {
+            long seq = cursor.getAndIncrement();
+            int slot = (int) (seq & mask);
+            sequences.set(slot, -(seq + 1));
+            timestamps.set(slot, timestamp);
+            values.set(slot, Double.doubleToRawLongBits(celsius));
+            sequences.set(slot, seq + 1);
+        }
+
+        TemperatureReading last(String sensorId) {
+            long end = cursor.get();
+            for (long seq = end - 1; seq >= Math.max(0, end - 4); seq--) {
+                TemperatureReading reading = read(seq, sensorId);
+                if (reading != null) {
+                    return reading;
+                }
+            }
+            return null;
+        }
+
+        List<TemperatureReading> readSince(long sinceMillis, String sensorId) {
+            long end = cursor.get();
+            List<TemperatureReading> readings = new ArrayList<>();
+            for (long seq = Math.max(0, end - mask - 1); seq < end; seq++) {
+                int slot = (int) (seq & mask);
+                if (timestamps.get(slot) < sinceMillis) {
+                    continue;
+                }
+                TemperatureReading reading = read(seq, sensorId);
+                if (reading != null && !reading.getRecordedAt().isBefore(toLocalDateTime(sinceMillis))) {
+                    readings.add(reading);
+                }
+            }
+            return readings;
+        }
+
+        private TemperatureReading read(long seq, String sensorId) {
+            int slot = (int) (seq & mask);
+            if (sequences.get(slot) != seq + 1) {
+                return null;
+            }
+            long timestamp = timestamps.get(slot);
+            double celsius = Double.longBitsToDouble(values.get(slot));
+            if (sequences.get(slot) != seq + 1) {
+                return null;
+            }
+            return new TemperatureReading(sensorId, toLocalDateTime(timestamp), celsius);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.hicode.backend.service;
+
+import com.hicode.backend.dto.admin.BloodUnitSnapshot;
+import com.hicode.backend.dto.admin.DonorQuarantineResponse;
+import com.hicode.backend.dto.admin.TraceabilityRow;
+import com.hicode.backend.model.enums.InventoryStatus;
+import com.hicode.backend.repository.BloodRequestRepository;
+import com.hicode.backend.repository.BloodUnitRepository;
+import com.hicode.backend.repository.UserRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Truy vết lookback giữa người hiến và người nhận.
+ *
+ * Mỗi hướng tra cứu là một câu projection duy nhất đi theo các khóa ngoại đã đánh index
+ * (donation_processes.donor_id, blood_units.process_id/parent_unit_id/allocated_request_id),
+ * nên thời gian chỉ phụ thuộc số đơn vị của người hiến/yêu cầu chứ không phụ thuộc độ dài lịch sử.
+ */
+@Service
+public class TraceabilityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TraceabilityService.class);
+
+    @Autowired
+    private BloodUnitRepository bloodUnitRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BloodRequestRepository bloodRequestRepository;
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Transactional(readOnly = true)
+    public List<TraceabilityRow> traceDonor(Long donorId) {
+        if (!userRepository.existsById(donorId)) {
+            throw new EntityNotFoundException("User not found with id: " + donorId);
+        }
+        return bloodUnitRepository.traceByDonorId(donorId);
+    }
+
+    /**
+     * Đơn vị đã cho cùng mọi đơn vị khác của lần hiến đó (túi gốc, chế phẩm anh em) kèm người hiến và nơi nhận.
+     */
+    @Transactional(readOnly = true)
+    public List<TraceabilityRow> traceUnit(String unitId) {
+        List<TraceabilityRow> rows = bloodUnitRepository.traceByUnitId(unitId);
+        if (rows.isEmpty()) {
+            throw new EntityNotFoundException("Blood unit not found with id: " + unitId);
+        }
+        return rows;
+    }
+
+    @Transactional(readOnly = true)
+    public List<TraceabilityRow> traceRequest(Long requestId) {
+        if (!bloodRequestRepository.existsById(requestId)) {
+            throw new EntityNotFoundException("Blood request not found with id: " + requestId);
+        }
+        return bloodUnitRepository.traceByRequestId(requestId);
+    }
+
+    /**
+     * Cách ly mọi đơn vị AVAILABLE/RESERVED của người hiến (đơn vị của yêu cầu đã hoàn thành đã được chuyển USED
+     * nên không còn ở đây) và trả về các đơn vị đã cấp đi để thông báo cho bệnh viện nhận.
+     */
+    @Transactional
+    public DonorQuarantineResponse quarantineDonorUnits(Long donorId, String reason) {
+        if (!userRepository.existsById(donorId)) {
+            throw new EntityNotFoundException("User not found with id: " + donorId);
+        }
+        List<BloodUnitSnapshot> units = bloodUnitRepository.findSnapshotsByDonorIdAndStatusIn(donorId,
+                EnumSet.of(InventoryStatus.AVAILABLE, InventoryStatus.RESERVED));
+        List<String> quarantinedIds = inventoryService.quarantineUnits(units, "Donor lookback: " + reason).stream()
+                .map(BloodUnitSnapshot::getId)
+                .collect(Collectors.toList());
+        List<TraceabilityRow> distributed = bloodUnitRepository.traceByDonorId(donorId).stream()
+                .filter(row -> row.getStatus() == InventoryStatus.USED)
+                .collect(Collectors.toList());
+        logger.warn("Donor lookback for donor {}: quarantined {} units, {} units already distributed.",
+                donorId, quarantinedIds.size(), distributed.size());
+
+        DonorQuarantineResponse response = new DonorQuarantineResponse();
+        response.setDonorId(donorId);
+        response.setQuarantinedUnits(quarantinedIds.size());
+        response.setQuarantinedUnitIds(quarantinedIds);
+        response.setDistributedUnits(distributed);
+        return response;
+    }
+}
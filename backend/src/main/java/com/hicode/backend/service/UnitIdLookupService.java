@@ -0,0 +1,263 @@
+package com.hicode.backend.service;
+
+import com.hicode.backend.dto.admin.BloodUnitSnapshot;
+import com.hicode.backend.dto.admin.ScanResolutionResponse;
+import com.hicode.backend.event.BloodUnitEvent;
+import com.hicode.backend.model.enums.ScanMatchType;
+import com.hicode.backend.repository.BloodUnitRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Chỉ mục in-memory mã đơn vị máu để tra cứu theo tiền tố/hậu tố khi quét mã vạch.
+ *
+ * Mã được chuẩn hóa (in hoa, bỏ khoảng trắng và dấu gạch, bỏ mã nhận dạng "]Xn" của máy quét) rồi lưu trong
+ * hai skip list: một theo mã xuôi cho tra cứu tiền tố, một theo mã đảo ngược cho tra cứu hậu tố.
+ * Nhiều mã gốc có thể cùng một khóa chuẩn hóa (ví dụ "AB-123" và "AB123") nên mỗi khóa giữ mọi mã gốc của nó;
+ * khi trùng khóa, mã gốc khớp nguyên văn được ưu tiên, nếu không kết quả là AMBIGUOUS.
+ * Cả hai đều cho truy vấn khoảng O(log n + k), tương đương cây radix nhưng an toàn khi đọc/ghi đồng thời.
+ */
+@Service
+public class UnitIdLookupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UnitIdLookupService.class);
+    // Mã ngắn hơn mức này không được dùng để khớp một phần, tránh khớp nhầm hàng loạt
+    private static final int MIN_PARTIAL_LENGTH = 4;
+    private static final int MAX_CANDIDATES = 5;
+
+    @Autowired
+    private BloodUnitRepository bloodUnitRepository;
+
+    private volatile IdIndex index = new IdIndex();
+    private boolean rebuilding;
+    private final List<String> journal = new ArrayList<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        synchronized (this) {
+            rebuilding = true;
+            journal.clear();
+        }
+        IdIndex fresh = new IdIndex();
+        try {
+            for (String id : bloodUnitRepository.findAllIds()) {
+                fresh.add(id);
+            }
+        } finally {
+            synchronized (this) {
+                journal.forEach(fresh::add);
+                journal.clear();
+                rebuilding = false;
+                index = fresh;
+            }
+        }
+        logger.info("Blood unit id lookup index loaded with {} normalized keys.", fresh.forward.size());
+    }
+
+    @TransactionalEventListener
+    public void onBloodUnitEvent(BloodUnitEvent event) {
+        if (event.getPreviousStatus() != null) {
+            return;
+        }
+        synchronized (this) {
+            index.add(event.getUnitId());
+            if (rebuilding) {
+                journal.add(event.getUnitId());
+            }
+        }
+    }
+
+    /**
+     * Gợi ý mã đơn vị bắt đầu bằng chuỗi đã nhập, theo thứ tự từ điển.
+     */
+    public List<String> typeAhead(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        return index.startingWith(index.forward, key, limit);
+    }
+
+    /**
+     * Giải mã một lô mã quét trong một lần gọi; thông tin đơn vị được nạp bằng một truy vấn duy nhất.
+     */
+    public List<ScanResolutionResponse> resolveBatch(List<String> codes) {
+        IdIndex current = index;
+        List<ScanResolutionResponse> results = new ArrayList<>(codes.size());
+        Set<String> matchedIds = new LinkedHashSet<>();
+        for (String code : codes) {
+            ScanResolutionResponse resolution = resolve(current, code);
+            if (resolution.getUnitId() != null) {
+                matchedIds.add(resolution.getUnitId());
+            }
+            results.add(resolution);
+        }
+        if (matchedIds.isEmpty()) {
+            return results;
+        }
+
+        Map<String, BloodUnitSnapshot> units = bloodUnitRepository.findSnapshotsByIdIn(matchedIds).stream()
+                .collect(Collectors.toMap(BloodUnitSnapshot::getId, Function.identity()));
+        for (ScanResolutionResponse resolution : results) {
+            BloodUnitSnapshot unit = resolution.getUnitId() == null ? null : units.get(resolution.getUnitId());
+            if (unit != null) {
+                resolution.setBloodTypeId(unit.getBloodTypeId());
+                resolution.setStatus(unit.getStatus());
+                resolution.setExpiryDate(unit.getExpiryDate());
+                resolution.setStorageLocation(unit.getStorageLocation());
+            }
+        }
+        return results;
+    }
+
+    private ScanResolutionResponse resolve(IdIndex current, String code) {
+        ScanResolutionResponse resolution = new ScanResolutionResponse();
+        resolution.setScannedCode(code);
+        String key = normalize(code);
+        if (key.isEmpty()) {
+            resolution.setMatchType(ScanMatchType.NOT_FOUND);
+            return resolution;
+        }
+
+        String[] exact = current.forward.get(key);
+        if (exact != null) {
+            String raw = stripSymbology(code);
+            for (String id : exact) {
+                if (id.equals(raw)) {
+                    return matched(resolution, ScanMatchType.EXACT, id);
+                }
+            }
+            return exact.length == 1 ? matched(resolution, ScanMatchType.EXACT, exact[0]) : ambiguous(resolution, exact);
+        }
+        // Mã có tiền tố thừa: thử các hậu tố của mã quét, dài nhất trước
+        for (int start = 1; key.length() - start >= MIN_PARTIAL_LENGTH; start++) {
+            String[] ids = current.forward.get(key.substring(start));
+            if (ids != null) {
+                return ids.length == 1 ? matched(resolution, ScanMatchType.PREFIXED, ids[0]) : ambiguous(resolution, ids);
+            }
+        }
+        if (key.length() < MIN_PARTIAL_LENGTH) {
+            resolution.setMatchType(ScanMatchType.NOT_FOUND);
+            return resolution;
+        }
+
+        List<String> byPrefix = current.startingWith(current.forward, key, MAX_CANDIDATES);
+        if (byPrefix.size() == 1) {
+            return matched(resolution, ScanMatchType.PARTIAL_PREFIX, byPrefix.get(0));
+        }
+        if (byPrefix.isEmpty()) {
+            List<String> bySuffix = current.startingWith(current.reversed, reverse(key), MAX_CANDIDATES);
+            if (bySuffix.size() == 1) {
+                return matched(resolution, ScanMatchType.PARTIAL_SUFFIX, bySuffix.get(0));
+            }
+            byPrefix = bySuffix;
+        }
+        if (byPrefix.isEmpty()) {
+            resolution.setMatchType(ScanMatchType.NOT_FOUND);
+        } else {
+            resolution.setMatchType(ScanMatchType.AMBIGUOUS);
+            resolution.setCandidates(byPrefix);
+        }
+        return resolution;
+    }
+
+    private static ScanResolutionResponse matched(ScanResolutionResponse resolution, ScanMatchType type, String unitId) {
+        resolution.setMatchType(type);
+        resolution.setUnitId(unitId);
+        return resolution;
+    }
+
+    private static ScanResolutionResponse ambiguous(ScanResolutionResponse resolution, String[] ids) {
+        resolution.setMatchType(ScanMatchType.AMBIGUOUS);
+        resolution.setCandidates(List.of(ids).subList(0, Math.min(ids.length, MAX_CANDIDATES)));
+        return resolution;
+    }
+
+    // Mã quét đã bỏ khoảng trắng hai đầu và mã nhận dạng ký hiệu AIM do máy quét chèn vào đầu, ví dụ "]C1"
+    private static String stripSymbology(String code) {
+        if (code == null) {
+            return "";
+        }
+        String value = code.trim();
+        if (value.length() > 3 && value.charAt(0) == ']') {
+            value = value.substring(3);
+        }
+        return value;
+    }
+
+    private static String normalize(String code) {
+        String value = stripSymbology(code);
+        StringBuilder key = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!Character.isWhitespace(c) && c != '-') {
+                key.append(Character.toUpperCase(c));
+            }
+        }
+        return key.toString();
+    }
+
+    private static String reverse(String value) {
+        return new StringBuilder(value).reverse().toString();
+    }
+
+    private static final class IdIndex {
+        // Giá trị là mảng bất biến, thay bằng mảng mới (copy-on-write) khi thêm mã trùng khóa
+        private final ConcurrentSkipListMap<String, String[]> forward = new ConcurrentSkipListMap<>();
+        private final ConcurrentSkipListMap<String, String[]> reversed = new ConcurrentSkipListMap<>();
+
+        void add(String id) {
+            String key = normalize(id);
+            if (key.isEmpty()) {
+                return;
+            }
+            String[] single = {id};
+            forward.merge(key, single, IdIndex::append);
+            reversed.merge(reverse(key), single, IdIndex::append);
+        }
+
+        private static String[] append(String[] ids, String[] added) {
+            for (String id : ids) {
+                if (id.equals(added[0])) {
+                    return ids;
+                }
+            }
+            String[] merged = Arrays.copyOf(ids, ids.length + 1);
+            merged[ids.length] = added[0];
+            return merged;
+        }
+
+        List<String> startingWith(ConcurrentSkipListMap<String, String[]> map, String prefix, int limit) {
+            NavigableMap<String, String[]> range = map.tailMap(prefix, true);
+            List<String> ids = new ArrayList<>(Math.min(limit, 16));
+            for (Map.Entry<String, String[]> entry : range.entrySet()) {
+                if (!entry.getKey().startsWith(prefix)) {
+                    break;
+                }
+                for (String id : entry.getValue()) {
+                    if (ids.size() >= limit) {
+                        return ids;
+                    }
+                    ids.add(id);
+                }
+            }
+            return ids;
+        }
+    }
+}
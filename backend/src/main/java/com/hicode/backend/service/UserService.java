@@ -13,6 +13,7 @@ import com.hicode.backend.repository.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
@@ -22,13 +23,20 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class UserService {
 
+    private static final double EARTH_RADIUS_KM = 6371;
+
     @Autowired
     private UserRepository userRepository;
     @Autowired
@@ -38,6 +46,9 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Value("${donor-search.default-limit:100}")
+    private int defaultSearchLimit;
+
     public User getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || !authentication.isAuthenticated() || "anonymousUser".equals(authentication.getPrincipal())) {
@@ -78,19 +89,77 @@ public class UserService {
         return mapToUserResponse(updatedUser);
     }
 
+    /**
+     * Người hiến sẵn sàng trong bán kính (km), gần nhất trước. DB chỉ lọc theo hình chữ nhật bao trên cột
+     * đã đánh index; khoảng cách haversine được tính trong Java cho các ứng viên, rồi chỉ nạp entity
+     * của những người nằm trong kết quả.
+     */
     @Transactional(readOnly = true)
     public List<UserResponse> searchDonorsByLocation(LocationSearchRequest request) {
-        List<User> users = userRepository.findDonorsWithinRadius(
-                request.getLatitude(),
-                request.getLongitude(),
-                request.getRadius(),
-                request.getBloodTypeId()
-        );
-        return users.stream()
+        double lat = request.getLatitude();
+        double lon = request.getLongitude();
+        double radius = request.getRadius();
+        int limit = request.getLimit() != null ? request.getLimit() : defaultSearchLimit;
+
+        double deltaLat = Math.toDegrees(radius / EARTH_RADIUS_KM);
+        double minLat = Math.max(-90, lat - deltaLat);
+        double maxLat = Math.min(90, lat + deltaLat);
+        double minLon = -180;
+        double maxLon = 180;
+        // Khoảng thứ hai mặc định rỗng
+        double minLon2 = 1;
+        double maxLon2 = 0;
+        double lonRatio = Math.sin(radius / EARTH_RADIUS_KM) / Math.cos(Math.toRadians(lat));
+        // Gần cực hoặc bán kính rất lớn: lấy toàn bộ kinh độ
+        if (minLat > -90 && maxLat < 90 && lonRatio < 1) {
+            double deltaLon = Math.toDegrees(Math.asin(lonRatio));
+            minLon = lon - deltaLon;
+            maxLon = lon + deltaLon;
+            if (minLon < -180) {
+                minLon2 = minLon + 360;
+                maxLon2 = 180;
+                minLon = -180;
+            } else if (maxLon > 180) {
+                minLon2 = -180;
+                maxLon2 = maxLon - 360;
+                maxLon = 180;
+            }
+        }
+
+        List<Object[]> candidates = userRepository.findReadyDonorLocationsInBox(
+                minLat, maxLat, minLon, maxLon, minLon2, maxLon2, request.getBloodTypeId());
+        // [id, khoảng cách km]
+        List<Object[]> inRange = new ArrayList<>();
+        for (Object[] row : candidates) {
+            double distance = haversineKm(lat, lon, (Double) row[1], (Double) row[2]);
+            if (distance <= radius) {
+                inRange.add(new Object[]{row[0], distance});
+            }
+        }
+        inRange.sort(Comparator.comparingDouble(entry -> (Double) entry[1]));
+        List<Long> ids = inRange.stream().limit(limit).map(entry -> (Long) entry[0]).collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, User> users = userRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        return ids.stream()
+                .map(users::get)
+                .filter(Objects::nonNull)
                 .map(this::mapToUserResponse)
                 .collect(Collectors.toList());
     }
 
+    private static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        // Kẹp về [0, 1] để sai số làm tròn không gây NaN
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(Math.min(1, Math.max(0, a))));
+    }
+
     public Page<UserResponse> getAllUsers(Pageable pageable) {
         Page<User> usersPage = userRepository.findAll(pageable);
         return usersPage.map(this::mapToUserResponse);
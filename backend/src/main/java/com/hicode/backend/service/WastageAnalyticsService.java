@@ -0,0 +1,147 @@
+package com.hicode.backend.service;
+
+import com.hicode.backend.dto.admin.WastageReportRow;
+import com.hicode.backend.event.BloodUnitEvent;
+import com.hicode.backend.model.entity.BloodType;
+import com.hicode.backend.model.entity.WastageRollup;
+import com.hicode.backend.model.enums.BloodComponentType;
+import com.hicode.backend.model.enums.InventoryStatus;
+import com.hicode.backend.repository.WastageRollupJdbcRepository;
+import com.hicode.backend.repository.WastageRollupRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Thống kê hao hụt: số đơn vị rời kho theo kết cục (USED/EXPIRED/DISPOSED), tháng, BloodType và kho.
+ *
+ * Mỗi lần đổi trạng thái được cộng vào một bộ đệm gắn với transaction hiện tại, rồi ghi một lần
+ * (một câu MERGE cho mỗi khóa rollup) ngay trước khi commit. Rollup vì thế luôn khớp với trạng thái đơn vị,
+ * và một lượt quét hết hạn hàng trăm đơn vị chỉ tạo vài câu MERGE.
+ */
+@Service
+public class WastageAnalyticsService {
+
+    private static final Set<InventoryStatus> OUTCOMES = EnumSet.of(InventoryStatus.USED, InventoryStatus.EXPIRED, InventoryStatus.DISPOSED);
+    private static final long MAX_REPORT_MONTHS = 60;
+
+    @Autowired
+    private WastageRollupRepository wastageRollupRepository;
+    @Autowired
+    private WastageRollupJdbcRepository wastageRollupJdbcRepository;
+
+    @Value("${inventory.default-location:Main Storage}")
+    private String defaultLocation;
+
+    private final Object bufferKey = new Object();
+
+    @EventListener
+    public void onBloodUnitEvent(BloodUnitEvent event) {
+        InventoryStatus previous = event.getPreviousStatus();
+        // Hủy một đơn vị đã hết hạn không phải hao hụt mới: nó đã được tính khi chuyển sang EXPIRED
+        if (previous == null || previous == event.getStatus() || previous == InventoryStatus.EXPIRED
+                || !OUTCOMES.contains(event.getStatus())) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        long daysLeft = event.getExpiryDate() == null ? 0 : Math.max(0, ChronoUnit.DAYS.between(today, event.getExpiryDate()));
+        String location = event.getStorageLocation() == null ? defaultLocation : event.getStorageLocation();
+        LocalDate month = today.withDayOfMonth(1);
+
+        Map<String, WastageRollup> buffer = currentBuffer();
+        String key = month + "|" + event.getBloodTypeId() + "|" + location + "|" + event.getStatus();
+        WastageRollup increment = buffer == null
+                ? newIncrement(month, event.getBloodTypeId(), location, event.getStatus())
+                : buffer.computeIfAbsent(key, k -> newIncrement(month, event.getBloodTypeId(), location, event.getStatus()));
+        increment.setUnits(increment.getUnits() + 1);
+        increment.setVolumeMl(increment.getVolumeMl() + (event.getVolumeMl() == null ? 0 : event.getVolumeMl()));
+        increment.setDaysBeforeExpirySum(increment.getDaysBeforeExpirySum() + daysLeft);
+        if (buffer == null) {
+            wastageRollupJdbcRepository.addAll(List.of(increment));
+        }
+    }
+
+    public List<WastageReportRow> getReport(YearMonth from, YearMonth to, Integer bloodTypeId, String storageLocation) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'.");
+        }
+        if (ChronoUnit.MONTHS.between(from, to) >= MAX_REPORT_MONTHS) {
+            throw new IllegalArgumentException("Wastage report range must not exceed " + MAX_REPORT_MONTHS + " months.");
+        }
+        String location = storageLocation == null || storageLocation.isBlank() ? null : storageLocation.trim();
+        List<WastageReportRow> rows = new ArrayList<>();
+        for (Object[] row : wastageRollupRepository.findReportRows(from.atDay(1), to.atDay(1), bloodTypeId, location)) {
+            WastageReportRow report = new WastageReportRow();
+            report.setMonth(YearMonth.from((LocalDate) row[0]));
+            report.setBloodTypeId((Integer) row[1]);
+            report.setBloodGroup((String) row[2]);
+            report.setComponentType((BloodComponentType) row[3]);
+            report.setStorageLocation((String) row[4]);
+            report.setOutcome((InventoryStatus) row[5]);
+            report.setUnits((Integer) row[6]);
+            report.setVolumeMl((Long) row[7]);
+            report.setAvgDaysBeforeExpiry(report.getUnits() == 0 ? 0 : ((Long) row[8]).doubleValue() / report.getUnits());
+            rows.add(report);
+        }
+        return rows;
+    }
+
+    /**
+     * Bộ đệm của transaction đang chạy, tạo và đăng ký ghi trước khi commit ở lần dùng đầu tiên.
+     * Trả về null khi không có transaction.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, WastageRollup> currentBuffer() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        Map<String, WastageRollup> buffer = (Map<String, WastageRollup>) TransactionSynchronizationManager.getResource(bufferKey);
+        if (buffer != null) {
+            return buffer;
+        }
+        // TreeMap: các transaction đồng thời MERGE theo cùng thứ tự khóa, tránh deadlock
+        Map<String, WastageRollup> fresh = new TreeMap<>();
+        TransactionSynchronizationManager.bindResource(bufferKey, fresh);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                if (!fresh.isEmpty()) {
+                    wastageRollupJdbcRepository.addAll(new ArrayList<>(fresh.values()));
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(bufferKey);
+            }
+        });
+        return fresh;
+    }
+
+    private static WastageRollup newIncrement(LocalDate month, Integer bloodTypeId, String location, InventoryStatus outcome) {
+        BloodType bloodType = new BloodType();
+        bloodType.setId(bloodTypeId);
+        WastageRollup increment = new WastageRollup();
+        increment.setPeriodMonth(month);
+        increment.setBloodType(bloodType);
+        increment.setStorageLocation(location);
+        increment.setOutcome(outcome);
+        increment.setUnits(0);
+        increment.setVolumeMl(0L);
+        increment.setDaysBeforeExpirySum(0L);
+        return increment;
+    }
+}
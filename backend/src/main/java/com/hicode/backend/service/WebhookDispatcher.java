@@ -0,0 +1,193 @@
+package com.hicode.backend.service;
+
+import com.hicode.backend.model.entity.HospitalWebhookEndpoint;
+import com.hicode.backend.model.entity.WebhookDeadLetter;
+import com.hicode.backend.model.entity.WebhookDelivery;
+import com.hicode.backend.repository.WebhookDeadLetterRepository;
+import com.hicode.backend.repository.WebhookDeliveryRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Gửi các webhook đang chờ trong bảng webhook_deliveries.
+ *
+ * - Mỗi endpoint có một Semaphore giới hạn số request đồng thời (maxConcurrency).
+ * - Lỗi được retry với exponential backoff + full jitter; quá số lần thử thì chuyển sang webhook_dead_letters.
+ * - Payload được ký bằng HMAC-SHA256 trên chuỗi "timestamp.body" (header X-Webhook-Signature).
+ */
+@Service
+public class WebhookDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebhookDispatcher.class);
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    @Autowired
+    private WebhookDeliveryRepository deliveryRepository;
+    @Autowired
+    private WebhookDeadLetterRepository deadLetterRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${webhook.batch-size:100}")
+    private int batchSize;
+    @Value("${webhook.max-attempts:8}")
+    private int maxAttempts;
+    @Value("${webhook.backoff-base-ms:5000}")
+    private long backoffBaseMs;
+    @Value("${webhook.backoff-max-ms:3600000}")
+    private long backoffMaxMs;
+    @Value("${webhook.request-timeout-ms:10000}")
+    private long requestTimeoutMs;
+    @Value("${webhook.in-flight-timeout-minutes:5}")
+    private long inFlightTimeoutMinutes;
+
+    private final ExecutorService executor;
+    private final HttpClient httpClient;
+    private final Map<Long, Semaphore> endpointPermits = new ConcurrentHashMap<>();
+
+    public WebhookDispatcher(@Value("${webhook.dispatcher-threads:8}") int dispatcherThreads) {
+        this.executor = Executors.newFixedThreadPool(dispatcherThreads);
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    @Scheduled(fixedDelayString = "${webhook.poll-interval-ms:2000}")
+    public void dispatchDueDeliveries() {
+        LocalDateTime now = LocalDateTime.now();
+        List<WebhookDelivery> due = deliveryRepository.findDue(now, PageRequest.of(0, batchSize));
+        for (WebhookDelivery delivery : due) {
+            HospitalWebhookEndpoint endpoint = delivery.getEndpoint();
+            Semaphore permits = endpointPermits.computeIfAbsent(endpoint.getId(),
+                    id -> new Semaphore(Math.max(1, endpoint.getMaxConcurrency())));
+            if (!permits.tryAcquire()) {
+                // Endpoint đang bận, để delivery ở trạng thái PENDING cho vòng sau
+                continue;
+            }
+            if (deliveryRepository.claim(delivery.getId(), now) == 0) {
+                permits.release();
+                continue;
+            }
+            executor.execute(() -> {
+                try {
+                    send(delivery, endpoint);
+                } finally {
+                    permits.release();
+                }
+            });
+        }
+    }
+
+    /**
+     * Thu hồi các delivery bị kẹt ở IN_FLIGHT (ví dụ node bị tắt giữa chừng).
+     */
+    @Scheduled(fixedDelayString = "${webhook.recovery-interval-ms:60000}")
+    public void recoverStuckDeliveries() {
+        int released = deliveryRepository.releaseStuck(LocalDateTime.now().minusMinutes(inFlightTimeoutMinutes));
+        if (released > 0) {
+            logger.warn("Released {} webhook deliveries stuck in flight.", released);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private void send(WebhookDelivery delivery, HospitalWebhookEndpoint endpoint) {
+        String error;
+        try {
+            String timestamp = String.valueOf(System.currentTimeMillis() / 1000);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(endpoint.getUrl()))
+                    .timeout(Duration.ofMillis(requestTimeoutMs))
+                    .header("Content-Type", "application/json")
+                    .header("X-Webhook-Event", delivery.getEventType())
+                    .header("X-Webhook-Delivery", String.valueOf(delivery.getId()))
+                    .header("X-Webhook-Timestamp", timestamp)
+                    .header("X-Webhook-Signature", "sha256=" + sign(endpoint.getSecret(), timestamp + "." + delivery.getPayload()))
+                    .POST(HttpRequest.BodyPublishers.ofString(delivery.getPayload(), StandardCharsets.UTF_8))
+                    .build();
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() / 100 == 2) {
+                markDelivered(delivery);
+                return;
+            }
+            error = "HTTP " + response.statusCode();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            error = "Interrupted";
+        } catch (Exception e) {
+            error = e.getClass().getSimpleName() + ": " + e.getMessage();
+        }
+        markFailed(delivery, error);
+    }
+
+    private void markDelivered(WebhookDelivery delivery) {
+        if (deliveryRepository.markDelivered(delivery.getId(), LocalDateTime.now()) == 0) {
+            logger.warn("Webhook delivery {} was reclaimed before it could be marked delivered.", delivery.getId());
+        }
+    }
+
+    private void markFailed(WebhookDelivery delivery, String error) {
+        int attempts = delivery.getAttempts() + 1;
+        String truncatedError = error != null && error.length() > 1000 ? error.substring(0, 1000) : error;
+
+        if (attempts >= maxAttempts) {
+            Boolean moved = transactionTemplate.execute(status -> {
+                if (deliveryRepository.deleteInFlight(delivery.getId()) == 0) {
+                    return false;
+                }
+                WebhookDeadLetter deadLetter = new WebhookDeadLetter();
+                deadLetter.setEndpoint(delivery.getEndpoint());
+                deadLetter.setOriginalDeliveryId(delivery.getId());
+                deadLetter.setEventType(delivery.getEventType());
+                deadLetter.setPayload(delivery.getPayload());
+                deadLetter.setAttempts(attempts);
+                deadLetter.setLastError(truncatedError);
+                deadLetterRepository.save(deadLetter);
+                return true;
+            });
+            if (Boolean.TRUE.equals(moved)) {
+                logger.warn("Webhook delivery {} moved to dead letters after {} attempts: {}", delivery.getId(), attempts, error);
+            }
+            return;
+        }
+
+        // Full jitter: chờ ngẫu nhiên trong [0, min(max, base * 2^attempts)]
+        long ceiling = Math.min(backoffMaxMs, backoffBaseMs << Math.min(attempts, 20));
+        long delayMs = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        deliveryRepository.scheduleRetry(delivery.getId(), truncatedError, LocalDateTime.now().plusNanos(delayMs * 1_000_000));
+    }
+
+    private static String sign(String secret, String data) throws GeneralSecurityException {
+        Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+        return HexFormat.of().formatHex(mac.doFinal(data.getBytes(StandardCharsets.UTF_8)));
+    }
+}
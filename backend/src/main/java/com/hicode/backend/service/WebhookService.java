@@ -0,0 +1,169 @@
+package com.hicode.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hicode.backend.dto.admin.CreateWebhookEndpointRequest;
+import com.hicode.backend.dto.admin.WebhookDeadLetterResponse;
+import com.hicode.backend.dto.admin.WebhookEndpointResponse;
+import com.hicode.backend.event.BloodRequestEvent;
+import com.hicode.backend.model.entity.HospitalWebhookEndpoint;
+import com.hicode.backend.model.entity.WebhookDeadLetter;
+import com.hicode.backend.model.entity.WebhookDelivery;
+import com.hicode.backend.model.enums.RequestStatus;
+import com.hicode.backend.repository.HospitalWebhookEndpointRepository;
+import com.hicode.backend.repository.WebhookDeadLetterRepository;
+import com.hicode.backend.repository.WebhookDeliveryRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Quản lý endpoint webhook của bệnh viện và đưa sự kiện vào hàng đợi gửi (bảng webhook_deliveries).
+ * Việc gửi thực tế do WebhookDispatcher đảm nhiệm.
+ */
+@Service
+public class WebhookService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    @Autowired
+    private HospitalWebhookEndpointRepository endpointRepository;
+    @Autowired
+    private WebhookDeliveryRepository deliveryRepository;
+    @Autowired
+    private WebhookDeadLetterRepository deadLetterRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Ghi delivery trong cùng transaction với việc đổi trạng thái yêu cầu (outbox),
+     * nên không mất sự kiện nếu ứng dụng dừng ngay sau khi commit.
+     */
+    @EventListener
+    public void onBloodRequestEvent(BloodRequestEvent event) {
+        RequestStatus status = event.getStatus();
+        if (status == event.getPreviousStatus()
+                || (status != RequestStatus.FULFILLED && status != RequestStatus.CANCELLED)
+                || event.getHospital() == null) {
+            return;
+        }
+        List<HospitalWebhookEndpoint> endpoints = endpointRepository.findByHospitalAndActiveTrue(event.getHospital());
+        if (endpoints.isEmpty()) {
+            return;
+        }
+
+        String eventType = "blood_request." + status.name().toLowerCase();
+        String payload = buildPayload(eventType, event);
+        for (HospitalWebhookEndpoint endpoint : endpoints) {
+            WebhookDelivery delivery = new WebhookDelivery();
+            delivery.setEndpoint(endpoint);
+            delivery.setEventType(eventType);
+            delivery.setPayload(payload);
+            deliveryRepository.save(delivery);
+        }
+    }
+
+    @Transactional
+    public WebhookEndpointResponse createEndpoint(CreateWebhookEndpointRequest request) {
+        HospitalWebhookEndpoint endpoint = new HospitalWebhookEndpoint();
+        endpoint.setHospital(request.getHospital().trim());
+        endpoint.setUrl(request.getUrl().trim());
+        endpoint.setMaxConcurrency(request.getMaxConcurrency());
+        endpoint.setSecret(request.getSecret() != null ? request.getSecret() : generateSecret());
+
+        HospitalWebhookEndpoint saved = endpointRepository.save(endpoint);
+        WebhookEndpointResponse response = mapToEndpointResponse(saved);
+        response.setSecret(saved.getSecret());
+        return response;
+    }
+
+    public List<WebhookEndpointResponse> getAllEndpoints() {
+        return endpointRepository.findAll().stream()
+                .map(this::mapToEndpointResponse)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional
+    public void deactivateEndpoint(Long id) {
+        HospitalWebhookEndpoint endpoint = endpointRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Webhook endpoint not found with id: " + id));
+        endpoint.setActive(false);
+        endpointRepository.save(endpoint);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<WebhookDeadLetterResponse> getDeadLetters(Pageable pageable) {
+        return deadLetterRepository.findAll(pageable).map(this::mapToDeadLetterResponse);
+    }
+
+    /**
+     * Đưa một dead letter trở lại hàng đợi gửi với bộ đếm lần thử mới.
+     */
+    @Transactional
+    public void replayDeadLetter(Long id) {
+        WebhookDeadLetter deadLetter = deadLetterRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Dead letter not found with id: " + id));
+        if (!Boolean.TRUE.equals(deadLetter.getEndpoint().getActive())) {
+            throw new IllegalStateException("Cannot replay to an inactive webhook endpoint.");
+        }
+        WebhookDelivery delivery = new WebhookDelivery();
+        delivery.setEndpoint(deadLetter.getEndpoint());
+        delivery.setEventType(deadLetter.getEventType());
+        delivery.setPayload(deadLetter.getPayload());
+        delivery.setNextAttemptAt(LocalDateTime.now());
+        deliveryRepository.save(delivery);
+        deadLetterRepository.delete(deadLetter);
+    }
+
+    private String buildPayload(String eventType, BloodRequestEvent event) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("event", eventType);
+        body.put("requestId", event.getRequestId());
+        body.put("hospital", event.getHospital());
+        body.put("patientName", event.getPatientName());
+        body.put("bloodGroup", event.getBloodGroup());
+        body.put("componentType", event.getComponentType());
+        body.put("quantityInUnits", event.getQuantityInUnits());
+        body.put("status", event.getStatus());
+        body.put("previousStatus", event.getPreviousStatus());
+        body.put("occurredAt", LocalDateTime.now().toString());
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize webhook payload.", e);
+        }
+    }
+
+    private String generateSecret() {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        return HexFormat.of().formatHex(bytes);
+    }
+
+    private WebhookEndpointResponse mapToEndpointResponse(HospitalWebhookEndpoint endpoint) {
+        WebhookEndpointResponse response = new WebhookEndpointResponse();
+        BeanUtils.copyProperties(endpoint, response, "secret");
+        return response;
+    }
+
+    private WebhookDeadLetterResponse mapToDeadLetterResponse(WebhookDeadLetter deadLetter) {
+        WebhookDeadLetterResponse response = new WebhookDeadLetterResponse();
+        BeanUtils.copyProperties(deadLetter, response, "endpoint");
+        response.setEndpointId(deadLetter.getEndpoint().getId());
+        response.setHospital(deadLetter.getEndpoint().getHospital());
+        return response;
+    }
+}
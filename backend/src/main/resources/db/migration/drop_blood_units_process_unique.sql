@@ -0,0 +1,42 @@
+-- Một lần hiến (donation_processes) giờ có thể tạo nhiều blood_units: túi máu toàn phần và các chế phẩm tách từ nó.
+-- Khi quan hệ còn là @OneToOne, Hibernate đã tạo ràng buộc UNIQUE trên blood_units.process_id; ddl-auto=update
+-- không tự xóa ràng buộc này nên phải chạy script một lần trên các database SQL Server đã có dữ liệu.
+-- Script an toàn khi chạy lại: nếu không còn ràng buộc/chỉ mục unique nào trên process_id thì không làm gì.
+
+DECLARE @sql NVARCHAR(MAX) = N'';
+
+-- Ràng buộc UNIQUE chỉ gồm cột process_id
+SELECT @sql = @sql + N'ALTER TABLE dbo.blood_units DROP CONSTRAINT ' + QUOTENAME(kc.name) + N';' + CHAR(10)
+FROM sys.key_constraints kc
+WHERE kc.parent_object_id = OBJECT_ID(N'dbo.blood_units')
+  AND kc.type = 'UQ'
+  AND NOT EXISTS (
+      SELECT 1 FROM sys.index_columns ic
+      JOIN sys.columns c ON c.object_id = ic.object_id AND c.column_id = ic.column_id
+      WHERE ic.object_id = kc.parent_object_id AND ic.index_id = kc.unique_index_id AND c.name <> N'process_id')
+  AND EXISTS (
+      SELECT 1 FROM sys.index_columns ic
+      JOIN sys.columns c ON c.object_id = ic.object_id AND c.column_id = ic.column_id
+      WHERE ic.object_id = kc.parent_object_id AND ic.index_id = kc.unique_index_id AND c.name = N'process_id');
+
+-- Chỉ mục UNIQUE độc lập (không gắn với ràng buộc) chỉ gồm cột process_id
+SELECT @sql = @sql + N'DROP INDEX ' + QUOTENAME(i.name) + N' ON dbo.blood_units;' + CHAR(10)
+FROM sys.indexes i
+WHERE i.object_id = OBJECT_ID(N'dbo.blood_units')
+  AND i.is_unique = 1
+  AND i.is_primary_key = 0
+  AND i.is_unique_constraint = 0
+  AND NOT EXISTS (
+      SELECT 1 FROM sys.index_columns ic
+      JOIN sys.columns c ON c.object_id = ic.object_id AND c.column_id = ic.column_id
+      WHERE ic.object_id = i.object_id AND ic.index_id = i.index_id AND c.name <> N'process_id')
+  AND EXISTS (
+      SELECT 1 FROM sys.index_columns ic
+      JOIN sys.columns c ON c.object_id = ic.object_id AND c.column_id = ic.column_id
+      WHERE ic.object_id = i.object_id AND ic.index_id = i.index_id AND c.name = N'process_id');
+
+IF LEN(@sql) > 0
+BEGIN
+    PRINT @sql;
+    EXEC sp_executesql @sql;
+END
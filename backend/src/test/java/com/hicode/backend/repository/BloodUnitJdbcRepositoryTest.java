@@ -0,0 +1,104 @@
+package com.hicode.backend.repository;
+
+import com.hicode.backend.model.entity.BloodType;
+import com.hicode.backend.model.entity.BloodUnit;
+import com.hicode.backend.model.entity.DonationProcess;
+import com.hicode.backend.model.enums.InventoryStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Chạy INSERT qua JdbcTemplate thật trên một Connection giả lập SQL Server, để kiểm tra rằng lỗi trùng khóa
+ * của driver (mã 2627 cho PRIMARY KEY, 2601 cho unique index) được Spring dịch thành DuplicateKeyException,
+ * là điều InventoryService.addUnitToInventory dựa vào để trả 409.
+ */
+@ExtendWith(MockitoExtension.class)
+class BloodUnitJdbcRepositoryTest {
+
+    @Mock
+    private DataSource dataSource;
+    @Mock
+    private Connection connection;
+    @Mock
+    private DatabaseMetaData metaData;
+    @Mock
+    private PreparedStatement statement;
+
+    private BloodUnitJdbcRepository repository;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        // Chỉ được đọc khi cần dịch lỗi
+        lenient().when(connection.getMetaData()).thenReturn(metaData);
+        lenient().when(metaData.getDatabaseProductName()).thenReturn("Microsoft SQL Server");
+
+        repository = new BloodUnitJdbcRepository();
+        ReflectionTestUtils.setField(repository, "jdbcTemplate", new JdbcTemplate(dataSource));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {2627, 2601})
+    void duplicateKeyFromDriverIsTranslatedToDuplicateKeyException(int errorCode) throws SQLException {
+        when(statement.executeUpdate()).thenThrow(new SQLException(
+                "Violation of PRIMARY KEY constraint 'PK_blood_units'. Cannot insert duplicate key in object 'dbo.blood_units'.",
+                "23000", errorCode));
+
+        assertThrows(DuplicateKeyException.class, () -> repository.insert(newUnit()));
+    }
+
+    @Test
+    void insertBindsEveryColumn() throws SQLException {
+        when(statement.executeUpdate()).thenReturn(1);
+
+        repository.insert(newUnit());
+
+        verify(statement).setString(1, "BU-0001");
+        verify(statement).setLong(2, 5L);
+        verify(statement).setInt(3, 1);
+        verify(statement).setInt(4, 450);
+        verify(statement).setString(7, "AVAILABLE");
+        verify(statement).setString(8, "Main Storage");
+        verify(statement).setNull(9, Types.VARCHAR);
+    }
+
+    private static BloodUnit newUnit() {
+        BloodType bloodType = new BloodType();
+        bloodType.setId(1);
+        DonationProcess process = new DonationProcess();
+        process.setId(5L);
+        BloodUnit unit = new BloodUnit();
+        unit.setId("BU-0001");
+        unit.setDonationProcess(process);
+        unit.setBloodType(bloodType);
+        unit.setVolumeMl(450);
+        unit.setCollectionDate(LocalDate.of(2026, 1, 10));
+        unit.setExpiryDate(LocalDate.of(2026, 2, 21));
+        unit.setStatus(InventoryStatus.AVAILABLE);
+        unit.setStorageLocation("Main Storage");
+        return unit;
+    }
+}
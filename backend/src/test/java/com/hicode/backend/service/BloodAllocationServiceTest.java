@@ -0,0 +1,84 @@
+package com.hicode.backend.service;
+
+import com.hicode.backend.dto.admin.BloodUnitSnapshot;
+import com.hicode.backend.event.BloodRequestEvent;
+import com.hicode.backend.model.enums.BloodComponentType;
+import com.hicode.backend.model.enums.InventoryStatus;
+import com.hicode.backend.model.enums.RequestStatus;
+import com.hicode.backend.model.enums.UrgencyLevel;
+import com.hicode.backend.repository.BloodUnitRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BloodAllocationServiceTest {
+
+    private static final Long REQUEST_ID = 42L;
+
+    @Mock
+    private BloodUnitRepository bloodUnitRepository;
+    @Mock
+    private InventoryService inventoryService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @InjectMocks
+    private BloodAllocationService bloodAllocationService;
+
+    @Test
+    void requestFulfilledByPledgeMarksHeldUnitsUsed() {
+        List<BloodUnitSnapshot> held = List.of(
+                new BloodUnitSnapshot("BU-1", 1, 450, LocalDate.now().plusDays(20), InventoryStatus.RESERVED, "Main Storage"),
+                new BloodUnitSnapshot("BU-2", 1, 450, LocalDate.now().plusDays(25), InventoryStatus.RESERVED, "Main Storage"));
+        when(bloodUnitRepository.findReservedIdsByRequestId(REQUEST_ID)).thenReturn(List.of("BU-1", "BU-2"));
+        when(bloodUnitRepository.findSnapshotsByIdIn(List.of("BU-1", "BU-2"))).thenReturn(held);
+        when(inventoryService.transitionUnits(held, InventoryStatus.RESERVED, InventoryStatus.USED)).thenReturn(held);
+
+        // pledgeForRequest hoàn thành yêu cầu và phát PLEDGED với PENDING -> FULFILLED
+        bloodAllocationService.onBloodRequestEvent(event(BloodRequestEvent.Type.PLEDGED, RequestStatus.FULFILLED, RequestStatus.PENDING));
+
+        verify(bloodUnitRepository).updateReservationDeadline(REQUEST_ID, null);
+        verify(inventoryService).transitionUnits(held, InventoryStatus.RESERVED, InventoryStatus.USED);
+        verify(bloodUnitRepository, never()).releaseReservationsForRequest(anyLong());
+    }
+
+    @Test
+    void pledgeThatDoesNotFulfilKeepsUnitsReserved() {
+        bloodAllocationService.onBloodRequestEvent(event(BloodRequestEvent.Type.PLEDGED, RequestStatus.PENDING, RequestStatus.PENDING));
+
+        verifyNoInteractions(bloodUnitRepository, inventoryService);
+    }
+
+    @Test
+    void cancelledRequestReleasesHeldUnits() {
+        BloodUnitSnapshot unit = new BloodUnitSnapshot("BU-3", 1, 450, LocalDate.now().plusDays(10), InventoryStatus.RESERVED, "Main Storage");
+        when(bloodUnitRepository.findReservedIdsByRequestId(REQUEST_ID)).thenReturn(List.of("BU-3"));
+        when(bloodUnitRepository.findSnapshotsByIdIn(List.of("BU-3"))).thenReturn(List.of(unit));
+        when(bloodUnitRepository.releaseReservationsForRequest(REQUEST_ID)).thenReturn(1);
+
+        bloodAllocationService.onBloodRequestEvent(event(BloodRequestEvent.Type.STATUS_CHANGED, RequestStatus.CANCELLED, RequestStatus.PENDING));
+
+        verify(bloodUnitRepository).releaseReservationsForRequest(REQUEST_ID);
+        verify(eventPublisher).publishEvent(any(Object.class));
+        verify(inventoryService, never()).transitionUnits(any(), any(), any());
+    }
+
+    private static BloodRequestEvent event(BloodRequestEvent.Type type, RequestStatus status, RequestStatus previousStatus) {
+        return new BloodRequestEvent(type, REQUEST_ID, "Nguyen Van A", "Cho Ray", 1, "O+", BloodComponentType.WHOLE_BLOOD,
+                2, 2, UrgencyLevel.NORMAL, status, previousStatus, LocalDateTime.now());
+    }
+}
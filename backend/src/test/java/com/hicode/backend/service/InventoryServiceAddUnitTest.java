@@ -0,0 +1,82 @@
+package com.hicode.backend.service;
+
+import com.hicode.backend.event.BloodUnitEvent;
+import com.hicode.backend.model.entity.BloodType;
+import com.hicode.backend.model.entity.BloodUnit;
+import com.hicode.backend.model.entity.DonationProcess;
+import com.hicode.backend.model.entity.User;
+import com.hicode.backend.model.enums.BloodComponentType;
+import com.hicode.backend.repository.BloodTypeRepository;
+import com.hicode.backend.repository.BloodUnitJdbcRepository;
+import com.hicode.backend.repository.BloodUnitRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Kiểm tra cách addUnitToInventory xử lý kết quả của INSERT: DuplicateKeyException từ tầng JDBC thành
+ * IllegalStateException (409) và chỉ đơn vị được ghi thành công mới phát event. Việc DB thực sự ném lỗi trùng
+ * khóa được kiểm tra ở BloodUnitJdbcRepositoryTest; hành vi tranh chấp đồng thời thuộc về khóa chính của DB,
+ * không được kiểm tra ở đây.
+ */
+@ExtendWith(MockitoExtension.class)
+class InventoryServiceAddUnitTest {
+
+    @Mock
+    private BloodUnitRepository bloodUnitRepository;
+    @Mock
+    private BloodUnitJdbcRepository bloodUnitJdbcRepository;
+    @Mock
+    private BloodTypeRepository bloodTypeRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private InventorySummaryService inventorySummaryService;
+    @InjectMocks
+    private InventoryService inventoryService;
+
+    @Test
+    void duplicateUnitIdIsRejectedAsConflictAndPublishesOneEvent() {
+        doNothing()
+                .doThrow(new DuplicateKeyException("Violation of PRIMARY KEY constraint on blood_units"))
+                .when(bloodUnitJdbcRepository).insert(any(BloodUnit.class));
+
+        BloodUnit unit = inventoryService.addUnitToInventory(newProcess(1L), "BU-0001");
+        IllegalStateException conflict = assertThrows(IllegalStateException.class,
+                () -> inventoryService.addUnitToInventory(newProcess(2L), "BU-0001"));
+
+        assertEquals("BU-0001", unit.getId());
+        assertEquals("Blood unit with ID BU-0001 already exists.", conflict.getMessage());
+        verify(bloodUnitJdbcRepository, times(2)).insert(any(BloodUnit.class));
+        verify(eventPublisher, times(1)).publishEvent(any(BloodUnitEvent.class));
+        verify(bloodUnitRepository, never()).existsById(any());
+        verify(bloodUnitRepository, never()).save(any());
+    }
+
+    private static DonationProcess newProcess(Long id) {
+        BloodType bloodType = new BloodType();
+        bloodType.setId(1);
+        bloodType.setBloodGroup("O+");
+        bloodType.setComponentType(BloodComponentType.WHOLE_BLOOD);
+        bloodType.setShelfLifeDays(42);
+        User donor = new User();
+        donor.setBloodType(bloodType);
+        DonationProcess process = new DonationProcess();
+        process.setId(id);
+        process.setDonor(donor);
+        process.setCollectedVolumeMl(450);
+        return process;
+    }
+}
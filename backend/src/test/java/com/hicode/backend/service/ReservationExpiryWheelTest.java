@@ -0,0 +1,68 @@
+package com.hicode.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReservationExpiryWheelTest {
+
+    private static final long TICK_MS = 60_000;
+    private static final int SLOTS = 512;
+    // Đầu một phút, để vị trí trong tick được xác định rõ
+    private static final long START = 1_000_000 * TICK_MS;
+
+    @Test
+    void deadlineInsideCurrentMinuteFiresOnNextTick() {
+        ReservationExpiryService.TimingWheel wheel = new ReservationExpiryService.TimingWheel(TICK_MS, SLOTS, START);
+        // Hạn rơi giữa phút: bánh xe tiến tới phút đó trước khi hạn tới
+        long deadline = START + 15 * TICK_MS + 30_000;
+        wheel.schedule("BU-1", deadline);
+
+        assertTrue(wheel.advance(START + 15 * TICK_MS + 10_000).isEmpty());
+        assertEquals(List.of("BU-1"), wheel.advance(START + 16 * TICK_MS));
+    }
+
+    @Test
+    void deadlineOnTickBoundaryFiresOnThatTick() {
+        ReservationExpiryService.TimingWheel wheel = new ReservationExpiryService.TimingWheel(TICK_MS, SLOTS, START);
+        wheel.schedule("BU-1", START + 5 * TICK_MS);
+
+        assertTrue(wheel.advance(START + 5 * TICK_MS - 1).isEmpty());
+        assertEquals(List.of("BU-1"), wheel.advance(START + 5 * TICK_MS));
+    }
+
+    @Test
+    void pastDeadlineFiresOnNextTick() {
+        ReservationExpiryService.TimingWheel wheel = new ReservationExpiryService.TimingWheel(TICK_MS, SLOTS, START + 20_000);
+        wheel.schedule("BU-1", START - TICK_MS);
+
+        assertEquals(List.of("BU-1"), wheel.advance(START + TICK_MS));
+    }
+
+    @Test
+    void deadlineBeyondOneRoundWaitsForItsRound() {
+        ReservationExpiryService.TimingWheel wheel = new ReservationExpiryService.TimingWheel(TICK_MS, SLOTS, START);
+        long deadline = START + (SLOTS + 3) * TICK_MS;
+        wheel.schedule("BU-1", deadline);
+
+        for (long tick = 1; tick < SLOTS + 3; tick++) {
+            assertTrue(wheel.advance(START + tick * TICK_MS).isEmpty(), "fired early at tick " + tick);
+        }
+        assertEquals(List.of("BU-1"), wheel.advance(deadline));
+    }
+
+    @Test
+    void rescheduledAndCancelledUnitsDoNotFire() {
+        ReservationExpiryService.TimingWheel wheel = new ReservationExpiryService.TimingWheel(TICK_MS, SLOTS, START);
+        wheel.schedule("BU-1", START + 2 * TICK_MS);
+        wheel.schedule("BU-2", START + 2 * TICK_MS);
+        wheel.schedule("BU-1", START + 10 * TICK_MS);
+        wheel.cancel("BU-2");
+
+        assertTrue(wheel.advance(START + 2 * TICK_MS).isEmpty());
+        assertEquals(List.of("BU-1"), wheel.advance(START + 10 * TICK_MS));
+    }
+}
@@ -0,0 +1,227 @@
+package com.hicode.backend.service;
+
+import com.hicode.backend.model.entity.HospitalWebhookEndpoint;
+import com.hicode.backend.model.entity.WebhookDeadLetter;
+import com.hicode.backend.model.entity.WebhookDelivery;
+import com.hicode.backend.repository.WebhookDeadLetterRepository;
+import com.hicode.backend.repository.WebhookDeliveryRepository;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WebhookDispatcherTest {
+
+    private static final String SECRET = "test-secret";
+    private static final String PAYLOAD = "{\"event\":\"blood_request.fulfilled\",\"requestId\":42}";
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long BACKOFF_BASE_MS = 1000;
+
+    @Mock
+    private WebhookDeliveryRepository deliveryRepository;
+    @Mock
+    private WebhookDeadLetterRepository deadLetterRepository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private HttpServer server;
+    // Mã trạng thái stub server trả về cho các request tiếp theo; rỗng thì trả 200
+    private final BlockingQueue<Integer> responseCodes = new LinkedBlockingQueue<>();
+    private final BlockingQueue<Map<String, String>> received = new LinkedBlockingQueue<>();
+    private WebhookDispatcher dispatcher;
+    private HospitalWebhookEndpoint endpoint;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/hook", exchange -> {
+            String body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            received.add(Map.of(
+                    "body", body,
+                    "event", exchange.getRequestHeaders().getFirst("X-Webhook-Event"),
+                    "timestamp", exchange.getRequestHeaders().getFirst("X-Webhook-Timestamp"),
+                    "signature", exchange.getRequestHeaders().getFirst("X-Webhook-Signature")));
+            Integer code = responseCodes.poll();
+            exchange.sendResponseHeaders(code == null ? 200 : code, -1);
+            exchange.close();
+        });
+        server.start();
+
+        endpoint = new HospitalWebhookEndpoint();
+        endpoint.setId(1L);
+        endpoint.setHospital("Cho Ray");
+        endpoint.setUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/hook");
+        endpoint.setSecret(SECRET);
+        endpoint.setMaxConcurrency(2);
+        endpoint.setActive(true);
+
+        dispatcher = new WebhookDispatcher(2);
+        ReflectionTestUtils.setField(dispatcher, "deliveryRepository", deliveryRepository);
+        ReflectionTestUtils.setField(dispatcher, "deadLetterRepository", deadLetterRepository);
+        ReflectionTestUtils.setField(dispatcher, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 10);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", MAX_ATTEMPTS);
+        ReflectionTestUtils.setField(dispatcher, "backoffBaseMs", BACKOFF_BASE_MS);
+        ReflectionTestUtils.setField(dispatcher, "backoffMaxMs", 60_000L);
+        ReflectionTestUtils.setField(dispatcher, "requestTimeoutMs", 5_000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    void successfulDeliveryIsSignedAndMarkedDelivered() throws Exception {
+        when(deliveryRepository.markDelivered(eq(10L), any(LocalDateTime.class))).thenReturn(1);
+        dispatch(newDelivery(10L, 0));
+
+        Map<String, String> request = received.poll(5, TimeUnit.SECONDS);
+        assertNotNull(request);
+        assertEquals(PAYLOAD, request.get("body"));
+        assertEquals("blood_request.fulfilled", request.get("event"));
+        assertEquals("sha256=" + hmac(request.get("timestamp") + "." + PAYLOAD), request.get("signature"));
+
+        verify(deliveryRepository, timeout(5000)).markDelivered(eq(10L), any(LocalDateTime.class));
+        verify(deliveryRepository, never()).scheduleRetry(anyLong(), any(), any());
+    }
+
+    @Test
+    void failedDeliveryIsRescheduledWithinBackoffCeiling() throws Exception {
+        responseCodes.add(500);
+        WebhookDelivery delivery = newDelivery(11L, 1);
+        LocalDateTime before = LocalDateTime.now();
+        dispatch(delivery);
+
+        ArgumentCaptor<LocalDateTime> nextAttempt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(deliveryRepository, timeout(5000)).scheduleRetry(eq(11L), eq("HTTP 500"), nextAttempt.capture());
+        LocalDateTime after = LocalDateTime.now();
+
+        // Lần thử thứ 2: trễ ngẫu nhiên trong [0, base * 2^2]
+        assertFalse(nextAttempt.getValue().isBefore(before));
+        assertFalse(nextAttempt.getValue().isAfter(after.plusNanos(BACKOFF_BASE_MS * 4 * 1_000_000)));
+        verify(deliveryRepository, never()).markDelivered(anyLong(), any());
+    }
+
+    @Test
+    void exhaustedDeliveryMovesToDeadLetterAndReplaysSigned() throws Exception {
+        executeTransactionsInline();
+        responseCodes.add(503);
+        when(deliveryRepository.deleteInFlight(12L)).thenReturn(1);
+        dispatch(newDelivery(12L, MAX_ATTEMPTS - 1));
+
+        ArgumentCaptor<WebhookDeadLetter> deadLetterCaptor = ArgumentCaptor.forClass(WebhookDeadLetter.class);
+        verify(deadLetterRepository, timeout(5000)).save(deadLetterCaptor.capture());
+        WebhookDeadLetter deadLetter = deadLetterCaptor.getValue();
+        assertEquals(12L, deadLetter.getOriginalDeliveryId());
+        assertEquals(MAX_ATTEMPTS, deadLetter.getAttempts());
+        assertEquals("HTTP 503", deadLetter.getLastError());
+        assertEquals(PAYLOAD, deadLetter.getPayload());
+        verify(deliveryRepository, never()).scheduleRetry(anyLong(), any(), any());
+        received.clear();
+
+        // Replay đưa dead letter về hàng đợi với bộ đếm mới, lần gửi lại được ký như bình thường
+        deadLetter.setId(7L);
+        WebhookService webhookService = new WebhookService();
+        ReflectionTestUtils.setField(webhookService, "deliveryRepository", deliveryRepository);
+        ReflectionTestUtils.setField(webhookService, "deadLetterRepository", deadLetterRepository);
+        when(deadLetterRepository.findById(7L)).thenReturn(Optional.of(deadLetter));
+        webhookService.replayDeadLetter(7L);
+
+        ArgumentCaptor<WebhookDelivery> replayed = ArgumentCaptor.forClass(WebhookDelivery.class);
+        verify(deliveryRepository).save(replayed.capture());
+        verify(deadLetterRepository).delete(deadLetter);
+        WebhookDelivery replay = replayed.getValue();
+        assertEquals(PAYLOAD, replay.getPayload());
+        assertEquals(endpoint, replay.getEndpoint());
+        replay.setId(13L);
+        replay.setAttempts(0);
+        when(deliveryRepository.markDelivered(eq(13L), any(LocalDateTime.class))).thenReturn(1);
+        dispatch(replay);
+
+        Map<String, String> request = received.poll(5, TimeUnit.SECONDS);
+        assertNotNull(request);
+        assertEquals("sha256=" + hmac(request.get("timestamp") + "." + PAYLOAD), request.get("signature"));
+        verify(deliveryRepository, timeout(5000)).markDelivered(eq(13L), any(LocalDateTime.class));
+    }
+
+    @Test
+    void reclaimedDeliveryIsNotDeadLettered() throws Exception {
+        executeTransactionsInline();
+        responseCodes.add(500);
+        when(deliveryRepository.deleteInFlight(14L)).thenReturn(0);
+        dispatch(newDelivery(14L, MAX_ATTEMPTS - 1));
+
+        verify(deliveryRepository, timeout(5000)).deleteInFlight(14L);
+        assertNotNull(received.poll(5, TimeUnit.SECONDS));
+        verify(deadLetterRepository, never()).save(any());
+    }
+
+    private void dispatch(WebhookDelivery delivery) {
+        when(deliveryRepository.findDue(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(delivery));
+        when(deliveryRepository.claim(eq(delivery.getId()), any(LocalDateTime.class))).thenReturn(1);
+        dispatcher.dispatchDueDeliveries();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void executeTransactionsInline() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+    }
+
+    private WebhookDelivery newDelivery(Long id, int attempts) {
+        WebhookDelivery delivery = new WebhookDelivery();
+        delivery.setId(id);
+        delivery.setEndpoint(endpoint);
+        delivery.setEventType("blood_request.fulfilled");
+        delivery.setPayload(PAYLOAD);
+        delivery.setAttempts(attempts);
+        delivery.setNextAttemptAt(LocalDateTime.now());
+        return delivery;
+    }
+
+    private static String hmac(String data) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return HexFormat.of().formatHex(mac.doFinal(data.getBytes(StandardCharsets.UTF_8)));
+    }
+}